@@ -0,0 +1,52 @@
+package com.zb.redis.redisdemo.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * @description: 基准测试入口，接受JMH的全部命令行参数
+ * 未指定 -rf/-rff 时结果以JSON写入 results/jmh-{release}-{时间}.json，release取 -Dbench.release，默认dev，
+ * 不同版本的结果文件可以直接对比找出性能回退；-Dredis.host、-Dredis.port 会传给fork出的JVM
+ * 例：java -Dbench.release=1.0.0 -jar target/benchmarks.jar DateUtilBenchmark
+ * @author: zhangbing
+ * @create: 2026-10-19 18:30
+ **/
+public class BenchmarkRunner {
+
+    private static final String RESULT_DIR = "results";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue() && !commandLine.getResult().hasValue()) {
+            File dir = new File(RESULT_DIR);
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IllegalStateException("无法创建结果目录:" + dir.getAbsolutePath());
+            }
+            String release = System.getProperty("bench.release", "dev");
+            String time = new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+            builder.resultFormat(ResultFormatType.JSON)
+                    .result(new File(dir, "jmh-" + release + "-" + time + ".json").getPath());
+        }
+        List<String> forwarded = new ArrayList<>();
+        for (String property : new String[]{"redis.host", "redis.port"}) {
+            String value = System.getProperty(property);
+            if (value != null) {
+                forwarded.add("-D" + property + "=" + value);
+            }
+        }
+        if (!forwarded.isEmpty()) {
+            builder.jvmArgsAppend(forwarded.toArray(new String[0]));
+        }
+        new Runner(builder.build()).run();
+    }
+}
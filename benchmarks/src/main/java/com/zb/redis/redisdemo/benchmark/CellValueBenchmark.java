@@ -0,0 +1,104 @@
+package com.zb.redis.redisdemo.benchmark;
+
+import com.zb.redis.redisdemo.utils.DateUtil;
+import com.zb.redis.redisdemo.utils.ExcelFileUtil;
+import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.text.DecimalFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: ExcelFileUtil.getValue对数字、日期、字符串单元格的转换耗时
+ * legacy开头的方法是改写前每个单元格新建DecimalFormat、经Calendar和SimpleDateFormat转换日期的做法，用于对比，
+ * 加 -prof gc 运行可以看到每次调用的分配字节数(gc.alloc.rate.norm)
+ * @author: zhangbing
+ * @create: 2026-10-19 18:05
+ **/
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CellValueBenchmark {
+
+    private Workbook workbook;
+    private Cell numericCell;
+    private Cell largeNumericCell;
+    private Cell dateCell;
+    private Cell stringCell;
+
+    /**
+     * 改写前DateUtil每个线程复用一个SimpleDateFormat，每次调用都applyPattern
+     */
+    private SimpleDateFormat legacyDateFormat;
+
+    @Setup
+    public void setup() {
+        workbook = new XSSFWorkbook();
+        Row row = workbook.createSheet().createRow(0);
+
+        numericCell = row.createCell(0);
+        numericCell.setCellValue(12345.678);
+
+        largeNumericCell = row.createCell(1);
+        largeNumericCell.setCellValue(13800138000.0);
+
+        CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+        dateCell = row.createCell(2);
+        dateCell.setCellValue(new Date(1792300002345L));
+        dateCell.setCellStyle(dateStyle);
+
+        stringCell = row.createCell(3);
+        stringCell.setCellValue("  zhangbing  ");
+
+        legacyDateFormat = new SimpleDateFormat(DateUtil.DEFAULT_DATE_FORMAT);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        workbook.close();
+    }
+
+    @Benchmark
+    public String numeric() throws IOException {
+        return ExcelFileUtil.getValue(numericCell);
+    }
+
+    @Benchmark
+    public String largeNumeric() throws IOException {
+        return ExcelFileUtil.getValue(largeNumericCell);
+    }
+
+    @Benchmark
+    public String date() throws IOException {
+        return ExcelFileUtil.getValue(dateCell);
+    }
+
+    @Benchmark
+    public String string() throws IOException {
+        return ExcelFileUtil.getValue(stringCell);
+    }
+
+    @Benchmark
+    public String legacyNumeric() {
+        String val = new DecimalFormat("0.00").format(numericCell.getNumericCellValue()).toUpperCase();
+        if (val.contains("E")) {
+            val = val.split("E")[0].replace(".", "");
+        }
+        return val;
+    }
+
+    @Benchmark
+    public String legacyDate() {
+        //getDateCellValue经Calendar换算，DateUtil.getTime已改写，这里保留改写前的转换
+        legacyDateFormat.applyPattern(DateUtil.DEFAULT_DATE_FORMAT);
+        return legacyDateFormat.format(dateCell.getDateCellValue());
+    }
+}
@@ -0,0 +1,142 @@
+package com.zb.redis.redisdemo.benchmark;
+
+import com.zb.redis.redisdemo.utils.CachedClock;
+import com.zb.redis.redisdemo.utils.DateUtil;
+import com.zb.redis.redisdemo.utils.FixedDateParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: DateUtil解析、格式化的耗时，多线程运行时可以看出ThreadLocal格式化器切换pattern的开销
+ * @author: zhangbing
+ * @create: 2026-10-19 18:00
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DateUtilBenchmark {
+
+    private final Date date = new Date(1792300002345L);
+    private final long timeInMillis = 1792300002345L;
+
+    /**
+     * 模拟导入时的一整列时间
+     */
+    private final String[] column = new String[1000];
+    private final long[] columnMillis = new long[column.length];
+
+    @Setup
+    public void startClock() {
+        CachedClock.start(100);
+        for (int i = 0; i < column.length; i++) {
+            column[i] = DateUtil.getTime(timeInMillis + i * 7919000L);
+        }
+    }
+
+    @TearDown
+    public void stopClock() {
+        CachedClock.stop();
+    }
+
+    @Benchmark
+    public Date parseDefault() {
+        return DateUtil.parseDate("2026-10-19 18:00:02");
+    }
+
+    @Benchmark
+    public Date parseDate() {
+        return DateUtil.parseDate("2026-10-19", DateUtil.DATE_FORMAT_DATE);
+    }
+
+    @Benchmark
+    public Long parseLong() {
+        return DateUtil.parseLong("20261019180002", DateUtil.NEW_DATE_FORMAT);
+    }
+
+    @Benchmark
+    public String formatDefault() {
+        return DateUtil.getTime(date);
+    }
+
+    @Benchmark
+    public String formatMillis() {
+        return DateUtil.getTime(timeInMillis, DateUtil.DATE_FORMAT_DATE_MINUTE);
+    }
+
+    /**
+     * 同一线程交替使用两种pattern
+     */
+    @Benchmark
+    public String formatAlternatingPattern() {
+        DateUtil.getTime(date, DateUtil.DATE_FORMAT_DATE);
+        return DateUtil.getTime(date, DateUtil.DEFAULT_DATE_FORMAT);
+    }
+
+    @Benchmark
+    public Date longToDateMinute() {
+        return DateUtil.longToDate(timeInMillis, DateUtil.DATE_FORMAT_DATE_MINUTE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String formatDefaultContended() {
+        return DateUtil.getTime(date);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Date parseDefaultContended() {
+        return DateUtil.parseDate("2026-10-19 18:00:02");
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String formatAlternatingPatternContended() {
+        DateUtil.getTime(date, DateUtil.DATE_FORMAT_DATE);
+        return DateUtil.getTime(date, DateUtil.DEFAULT_DATE_FORMAT);
+    }
+
+    /**
+     * 缓存时钟启动后取当前时间字符串，对比每次格式化当前时间
+     */
+    @Benchmark
+    @Threads(4)
+    public String currentTimeCached() {
+        return DateUtil.getCurrentTimeInString();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String currentTimeFormatted() {
+        return DateUtil.getTime(System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public String timestampCached() {
+        return DateUtil.getTimestamp();
+    }
+
+    @Benchmark
+    public long[] parseColumnFixed() {
+        FixedDateParser.parseColumn(column, DateUtil.DEFAULT_DATE_FORMAT, columnMillis);
+        return columnMillis;
+    }
+
+    /**
+     * 原来的方式：逐个SimpleDateFormat解析
+     */
+    @Benchmark
+    public long[] parseColumnSimpleDateFormat() throws Exception {
+        SimpleDateFormat format = DateUtil.getDateFormatByPattern(DateUtil.DEFAULT_DATE_FORMAT);
+        for (int i = 0; i < column.length; i++) {
+            columnMillis[i] = format.parse(column[i]).getTime();
+        }
+        return columnMillis;
+    }
+}
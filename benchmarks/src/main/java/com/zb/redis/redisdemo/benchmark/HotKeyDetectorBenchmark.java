@@ -0,0 +1,52 @@
+package com.zb.redis.redisdemo.benchmark;
+
+import com.zb.redis.redisdemo.config.HotKeyProperties;
+import com.zb.redis.redisdemo.service.hotkey.HotKeyDetector;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 热点key探测的开销，sample是每次template操作都要付出的成本，
+ * record是采样到的key写入sketch和候选集合的成本，key按少量热点加大量冷key分布
+ * @author: zhangbing
+ * @create: 2026-10-19 21:40
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HotKeyDetectorBenchmark {
+
+    private static final int KEY_COUNT = 100000;
+
+    private HotKeyDetector detector;
+    private String[] keys;
+
+    @Setup
+    public void setup() {
+        detector = new HotKeyDetector(new HotKeyProperties());
+        keys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = "bench:key:" + i;
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean sample() {
+        return detector.sample();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void record() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // 一半的访问落在前16个key上
+        int index = random.nextBoolean() ? random.nextInt(16) : random.nextInt(KEY_COUNT);
+        detector.record(keys[index], (index & 7) == 0);
+    }
+}
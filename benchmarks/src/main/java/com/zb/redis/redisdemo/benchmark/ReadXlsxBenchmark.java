@@ -0,0 +1,116 @@
+package com.zb.redis.redisdemo.benchmark;
+
+import com.zb.redis.redisdemo.utils.ExcelColumn;
+import com.zb.redis.redisdemo.utils.ExcelFileUtil;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 流式读取不同行数xlsx的耗时，workbook在每轮测试前生成到临时文件，
+ * 每行包含数字、字符串、日期、金额、布尔5列；readTyped按@ExcelColumn绑定成对象，与逐行输出字符串数组对比
+ * @author: zhangbing
+ * @create: 2026-10-19 18:10
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReadXlsxBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private File file;
+
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        file = Files.createTempFile("bench-" + rows + "-", ".xlsx").toFile();
+        SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+            Sheet sheet = workbook.createSheet();
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+            Row title = sheet.createRow(0);
+            String[] titles = {"id", "name", "createTime", "amount", "enabled"};
+            for (int i = 0; i < titles.length; i++) {
+                title.createCell(i).setCellValue(titles[i]);
+            }
+            long base = 1792300000000L;
+            for (int i = 1; i <= rows; i++) {
+                Row row = sheet.createRow(i);
+                row.createCell(0).setCellValue(i);
+                row.createCell(1).setCellValue("user-" + i);
+                row.createCell(2).setCellValue(new Date(base + i * 1000L));
+                row.getCell(2).setCellStyle(dateStyle);
+                row.createCell(3).setCellValue(i * 1.25);
+                row.createCell(4).setCellValue((i & 1) == 0);
+            }
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void delete() {
+        file.delete();
+    }
+
+    @Benchmark
+    public long readXLSX(Blackhole blackhole) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return ExcelFileUtil.readXLSX(in, (rowNum, values) -> blackhole.consume(values));
+        }
+    }
+
+    @Benchmark
+    public long readTyped(Blackhole blackhole) throws IOException {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            return ExcelFileUtil.readXLSX(in, BenchRow.class, blackhole::consume);
+        }
+    }
+
+    public static class BenchRow {
+        @ExcelColumn("id")
+        private long id;
+        @ExcelColumn("name")
+        private String name;
+        @ExcelColumn("createTime")
+        private Date createTime;
+        @ExcelColumn("amount")
+        private double amount;
+        @ExcelColumn("enabled")
+        private boolean enabled;
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public void setCreateTime(Date createTime) {
+            this.createTime = createTime;
+        }
+
+        public void setAmount(double amount) {
+            this.amount = amount;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.zb.redis.redisdemo.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: StringRedisTemplate的get、set和pipeline批量set，需要本地redis-server，
+ * 地址可通过 -Dredis.host、-Dredis.port 指定，默认localhost:6379，BenchmarkRunner会把这两个参数传给fork出的JVM
+ * @author: zhangbing
+ * @create: 2026-10-19 18:20
+ **/
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class RedisTemplateBenchmark {
+
+    private static final String KEY_PREFIX = "bench:jmh:";
+
+    @Param({"16", "1024"})
+    private int valueSize;
+
+    @Param({"100"})
+    private int pipelineSize;
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate template;
+    private String value;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"), Integer.getInteger("redis.port", 6379));
+        connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        template = new StringRedisTemplate(connectionFactory);
+        char[] chars = new char[valueSize];
+        Arrays.fill(chars, 'x');
+        value = new String(chars);
+        template.opsForValue().set(KEY_PREFIX + "get", value);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    public String get() {
+        return template.opsForValue().get(KEY_PREFIX + "get");
+    }
+
+    @Benchmark
+    public void set() {
+        template.opsForValue().set(KEY_PREFIX + "set", value);
+    }
+
+    /**
+     * 一次pipeline写入pipelineSize个key，吞吐量按批次计
+     */
+    @Benchmark
+    public List<Object> pipelineSet() {
+        return template.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            for (int i = 0; i < pipelineSize; i++) {
+                conn.set(KEY_PREFIX + "pipeline:" + i, value);
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,31 @@
+package com.zb.redis.redisdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @description: 阻塞/响应式吞吐对比接口配置，默认关闭
+ * @author: zhangbing
+ * @create: 2026-10-18 16:30
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "redis.benchmark")
+public class BenchmarkProperties {
+
+    /**
+     * 对比会占满redis连接并启动与并发度相同数量的线程，只在压测环境开启
+     */
+    private boolean enabled = false;
+
+    /**
+     * 单次对比每种模式的最长运行时间，单位秒
+     */
+    private int maxSeconds = 30;
+
+    /**
+     * 最大并发度，阻塞模式下即线程数
+     */
+    private int maxConcurrency = 200;
+}
@@ -0,0 +1,31 @@
+package com.zb.redis.redisdemo.config;
+
+import com.zb.redis.redisdemo.utils.CachedClock;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * @description: 应用启动时开启缓存时钟，DateUtil取当前时间字符串时不再每次格式化，关闭时停止刷新线程
+ * @author: zhangbing
+ * @create: 2026-10-22 10:30
+ **/
+@Configuration
+@ConditionalOnProperty(prefix = "date.clock", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class CachedClockConfig implements InitializingBean, DisposableBean {
+
+    @Autowired
+    private CachedClockProperties properties;
+
+    @Override
+    public void afterPropertiesSet() {
+        CachedClock.start(properties.getTickMillis());
+    }
+
+    @Override
+    public void destroy() {
+        CachedClock.stop();
+    }
+}
@@ -0,0 +1,26 @@
+package com.zb.redis.redisdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @description: 缓存时钟配置
+ * @author: zhangbing
+ * @create: 2026-10-22 10:20
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "date.clock")
+public class CachedClockProperties {
+
+    /**
+     * 是否启用，关闭后DateUtil每次按当前时间格式化
+     */
+    private boolean enabled = true;
+
+    /**
+     * 刷新间隔，即当前时间字符串允许落后的最长时间，单位毫秒
+     */
+    private long tickMillis = 100;
+}
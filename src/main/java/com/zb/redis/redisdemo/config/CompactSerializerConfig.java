@@ -0,0 +1,46 @@
+package com.zb.redis.redisdemo.config;
+
+import com.zb.redis.redisdemo.service.LoadJobReport;
+import com.zb.redis.redisdemo.service.ThroughputReport;
+import com.zb.redis.redisdemo.service.serializer.CompactRedisSerializer;
+import com.zb.redis.redisdemo.service.serializer.CompactTypeRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * @description: 紧凑二进制序列化配置，类型id一经分配不能修改，新增字段时注册新版本
+ * @author: zhangbing
+ * @create: 2026-10-19 17:00
+ **/
+@Configuration
+public class CompactSerializerConfig {
+
+    @Bean
+    public CompactTypeRegistry compactTypeRegistry() {
+        return new CompactTypeRegistry()
+                .register(LoadJobReport.class, 1, 1,
+                        "jobId", "status", "keyPrefix", "keyCount", "valueSize", "batchSize", "concurrency",
+                        "written", "failedBatches", "startTime", "endTime", "opsPerSecond",
+                        "p50Micros", "p90Micros", "p99Micros", "maxMicros", "error")
+                .register(ThroughputReport.class, 2, 1,
+                        "mode", "concurrency", "durationMillis", "operations", "errors", "opsPerSecond",
+                        "cpuMillis", "opsPerCpuSecond", "availableProcessors", "opsPerSecondPerCore:DOUBLE", "peakThreads")
+                .register(ThroughputReport.class, 2, 2,
+                        "mode", "concurrency", "durationMillis", "operations", "errors", "opsPerSecond",
+                        "cpuMillis", "opsPerCpuSecond", "availableProcessors", "peakThreads");
+    }
+
+    @Bean
+    public RedisTemplate<String, LoadJobReport> loadJobReportRedisTemplate(RedisConnectionFactory connectionFactory,
+                                                                           CompactTypeRegistry registry) {
+        RedisTemplate<String, LoadJobReport> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(new CompactRedisSerializer<>(registry, LoadJobReport.class));
+        template.setHashKeySerializer(StringRedisSerializer.UTF_8);
+        return template;
+    }
+}
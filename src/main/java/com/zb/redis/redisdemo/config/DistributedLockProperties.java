@@ -0,0 +1,41 @@
+package com.zb.redis.redisdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @description: 分布式锁配置
+ * @author: zhangbing
+ * @create: 2026-10-18 16:55
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "redis.lock")
+public class DistributedLockProperties {
+
+    /**
+     * 锁key前缀
+     */
+    private String keyPrefix = "lock:";
+
+    /**
+     * redis中锁的租期，进程崩溃后最多经过该时间锁自动释放，单位毫秒
+     */
+    private long leaseMillis = 30000;
+
+    /**
+     * 批量续期的间隔，应明显小于租期，单位毫秒
+     */
+    private long renewIntervalMillis = 10000;
+
+    /**
+     * 抢redis锁失败后的重试间隔，单位毫秒
+     */
+    private long retryIntervalMillis = 50;
+
+    /**
+     * 同一个锁连续在本机线程间交接的最大次数，达到后释放redis锁让其它节点有机会获取
+     */
+    private int maxLocalHandoffs = 16;
+}
@@ -0,0 +1,46 @@
+package com.zb.redis.redisdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @description: 异步excel导出配置
+ * @author: zhangbing
+ * @create: 2026-10-19 14:00
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "excel.export")
+public class ExcelExportProperties {
+
+    /**
+     * 导出文件在redis中分块存储的块大小，单位字节
+     */
+    private int chunkSize = 512 * 1024;
+
+    /**
+     * 导出结果及任务状态的过期时间，单位秒
+     */
+    private long ttlSeconds = 3600;
+
+    /**
+     * 排队中或执行中的任务超过该时间没有心跳视为构建节点已宕机，允许重新提交，单位秒
+     */
+    private long staleAfterSeconds = 300;
+
+    /**
+     * 构建节点为排队中和执行中的任务写心跳的间隔，需要明显小于staleAfterSeconds，单位毫秒
+     */
+    private long heartbeatMillis = 10000;
+
+    /**
+     * 同时构建的导出任务数
+     */
+    private int workers = 2;
+
+    /**
+     * 排队中的导出任务上限
+     */
+    private int queueCapacity = 16;
+}
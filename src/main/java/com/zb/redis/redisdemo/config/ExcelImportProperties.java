@@ -0,0 +1,83 @@
+package com.zb.redis.redisdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @description: excel异步导入队列配置
+ * @author: zhangbing
+ * @create: 2026-10-20 16:00
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "excel.import")
+public class ExcelImportProperties {
+
+    /**
+     * 任务stream、消费组及死信stream
+     */
+    private String stream = "excel:import:jobs";
+    private String group = "excel-import";
+    private String deadLetterStream = "excel:import:jobs:dead";
+
+    /**
+     * stream的近似最大长度，已处理的旧消息会被裁掉
+     */
+    private long maxStreamLength = 10000;
+
+    /**
+     * 本节点的消费线程数，0表示本节点只提交不消费
+     */
+    private int workers = 2;
+
+    /**
+     * 队列为空时的轮询间隔，单位毫秒
+     */
+    private long pollIntervalMillis = 500;
+
+    /**
+     * 检查待确认消息的间隔，同时为本节点处理中的消息续期，单位毫秒
+     */
+    private long claimIntervalMillis = 10000;
+
+    /**
+     * 消息超过该时间未确认且未续期，视为处理节点已宕机，由其它节点认领，单位毫秒
+     */
+    private long claimIdleMillis = 60000;
+
+    /**
+     * 最大投递次数，超过后转入死信stream
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * 上传文件在redis中分块存储的块大小，单位字节
+     */
+    private int chunkSize = 512 * 1024;
+
+    /**
+     * 上传文件及任务状态的过期时间，单位秒
+     */
+    private long ttlSeconds = 86400;
+
+    /**
+     * 多sheet导入时进程内最多同时读取的sheet数，所有导入请求共用
+     */
+    private int sheetParallelism = 4;
+
+    /**
+     * 多sheet导入时进程内所有sheet合计缓存在内存中的行数，包括读取缓存和待写入redis的批次，所有导入请求共用
+     */
+    private int sheetRowBudget = 4000;
+
+    /**
+     * 流式返回解析结果时，累计多少行刷出一次
+     */
+    private int streamFlushRows = 1000;
+
+    /**
+     * 流式返回解析结果时，距上次刷出超过该时间也刷出，单位毫秒
+     */
+    private long streamFlushMillis = 200;
+}
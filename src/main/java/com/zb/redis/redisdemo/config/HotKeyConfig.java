@@ -0,0 +1,29 @@
+package com.zb.redis.redisdemo.config;
+
+import com.zb.redis.redisdemo.service.hotkey.HotKeyDetector;
+import com.zb.redis.redisdemo.service.hotkey.HotKeyStringRedisTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * @description: 热点key探测配置，默认开启，用带采样的StringRedisTemplate替换自动配置的实例
+ * @author: zhangbing
+ * @create: 2026-10-19 21:20
+ **/
+@Configuration
+@ConditionalOnProperty(prefix = "redis.hot-key", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class HotKeyConfig {
+
+    @Bean
+    public HotKeyDetector hotKeyDetector(HotKeyProperties properties) {
+        return new HotKeyDetector(properties);
+    }
+
+    @Bean
+    public StringRedisTemplate stringRedisTemplate(RedisConnectionFactory connectionFactory, HotKeyDetector hotKeyDetector) {
+        return new HotKeyStringRedisTemplate(connectionFactory, hotKeyDetector);
+    }
+}
@@ -0,0 +1,39 @@
+package com.zb.redis.redisdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @description: 热点key探测配置
+ * @author: zhangbing
+ * @create: 2026-10-19 20:30
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "redis.hot-key")
+public class HotKeyProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 采样率，每sampleRate次template操作抽取1次记录其中的key，1表示全部记录
+     */
+    private int sampleRate = 64;
+
+    /**
+     * 保留的热点key数量
+     */
+    private int topK = 20;
+
+    /**
+     * 统计窗口，单位毫秒，每个窗口结束时生成热点报告并清空计数
+     */
+    private long windowMillis = 10000;
+
+    /**
+     * count-min sketch的行数和每行计数器数(取2的幂)，误差约为 窗口采样总数 * e / width
+     */
+    private int sketchDepth = 4;
+    private int sketchWidth = 16384;
+}
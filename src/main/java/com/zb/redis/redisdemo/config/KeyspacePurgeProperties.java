@@ -0,0 +1,56 @@
+package com.zb.redis.redisdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @description: 批量清理key配置
+ * @author: zhangbing
+ * @create: 2026-10-20 11:00
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "redis.purge")
+public class KeyspacePurgeProperties {
+
+    /**
+     * SCAN的默认COUNT，提交任务时可以单独指定
+     */
+    private int scanCount = 1000;
+
+    /**
+     * 每条UNLINK命令携带的key数，一页扫描结果拆成多条UNLINK放在一个pipeline里发送
+     */
+    private int unlinkBatchSize = 200;
+
+    /**
+     * 目标命令耗时，SCAN或UNLINK超过该值时加大两页之间的间隔，低于该值时逐步缩短，单位毫秒
+     */
+    private long targetLatencyMillis = 5;
+
+    /**
+     * 两页之间的最大间隔，单位毫秒
+     */
+    private long maxDelayMillis = 1000;
+
+    /**
+     * 每秒最多删除的key数，0表示只按命令耗时调节
+     */
+    private long maxKeysPerSecond = 0;
+
+    /**
+     * 任务状态(包括断点游标)的保存时间，单位秒
+     */
+    private long stateTtlSeconds = 86400;
+
+    /**
+     * 排队中或执行中的任务超过该时间没有心跳视为执行节点已宕机，允许在其它节点从游标处继续，单位秒
+     */
+    private long staleAfterSeconds = 60;
+
+    /**
+     * 执行节点为排队中和执行中的任务写心跳的间隔，需要明显小于staleAfterSeconds，单位毫秒
+     */
+    private long heartbeatMillis = 10000;
+}
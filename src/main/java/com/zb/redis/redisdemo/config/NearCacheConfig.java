@@ -0,0 +1,34 @@
+package com.zb.redis.redisdemo.config;
+
+import com.zb.redis.redisdemo.service.nearcache.NearCacheSubscriber;
+import com.zb.redis.redisdemo.service.nearcache.NearCachedValueOperations;
+import io.lettuce.core.resource.ClientResources;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * @description: 近端缓存配置，redis.near-cache.enabled=true时生效
+ * @author: zhangbing
+ * @create: 2026-10-18 13:50
+ **/
+@Configuration
+@ConditionalOnProperty(prefix = "redis.near-cache", name = "enabled", havingValue = "true")
+public class NearCacheConfig {
+
+    @Bean
+    public NearCachedValueOperations nearCachedValueOperations(StringRedisTemplate stringRedisTemplate,
+                                                               NearCacheProperties properties) {
+        return new NearCachedValueOperations(stringRedisTemplate, properties);
+    }
+
+    @Bean
+    public NearCacheSubscriber nearCacheSubscriber(RedisProperties redisProperties, ClientResources clientResources,
+                                                   NearCachedValueOperations nearCachedValueOperations,
+                                                   NearCacheProperties properties) {
+        return new NearCacheSubscriber(redisProperties, clientResources, nearCachedValueOperations,
+                properties.getChannel());
+    }
+}
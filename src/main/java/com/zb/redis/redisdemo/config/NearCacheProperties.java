@@ -0,0 +1,48 @@
+package com.zb.redis.redisdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @description: 本地近端缓存配置，默认关闭
+ * @author: zhangbing
+ * @create: 2026-10-18 13:10
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "redis.near-cache")
+public class NearCacheProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * 最多缓存的key数量
+     */
+    private int maxEntries = 10000;
+
+    /**
+     * 缓存占用的估算字节上限
+     */
+    private long maxBytes = 64L * 1024 * 1024;
+
+    /**
+     * 本地条目的最长存活时间，用于兜底订阅断开期间丢失的失效消息，单位毫秒，0表示不过期
+     */
+    private long expireAfterWriteMillis = 60000;
+
+    /**
+     * 跨节点失效通知的频道
+     */
+    private String channel = "near-cache:invalidate";
+
+    /**
+     * 向失效频道发送心跳的间隔，用于确认本节点的订阅仍然有效，单位毫秒
+     */
+    private long heartbeatMillis = 1000;
+
+    /**
+     * 超过该时间没有收到自己的心跳即认为订阅已断开，清空本地缓存并暂停回填，直到再次收到心跳，单位毫秒
+     */
+    private long heartbeatTimeoutMillis = 3000;
+}
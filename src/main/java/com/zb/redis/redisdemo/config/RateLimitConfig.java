@@ -0,0 +1,31 @@
+package com.zb.redis.redisdemo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zb.redis.redisdemo.service.ratelimit.RateLimitInterceptor;
+import com.zb.redis.redisdemo.service.ratelimit.RedisRateLimiter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * @description: 注册@RateLimit拦截器，redis.rate-limit.enabled=false时注解不生效
+ * @author: zhangbing
+ * @create: 2026-10-20 09:50
+ **/
+@Configuration
+@ConditionalOnProperty(prefix = "redis.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private RedisRateLimiter redisRateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RateLimitInterceptor(redisRateLimiter, objectMapper));
+    }
+}
@@ -0,0 +1,44 @@
+package com.zb.redis.redisdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @description: 分布式限流配置
+ * @author: zhangbing
+ * @create: 2026-10-20 09:10
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "redis.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * 限流状态key前缀
+     */
+    private String keyPrefix = "rate-limit:";
+
+    /**
+     * 单次从redis预取的许可数下限和上限，上限同时不超过限流额度的1/10，避免一个节点囤积过多许可
+     */
+    private int minBatch = 1;
+    private int maxBatch = 50;
+
+    /**
+     * 预取的许可按本机观测到的速率应能用多久，批量大小 = 速率 * 该时长，单位毫秒
+     */
+    private long batchTargetMillis = 100;
+
+    /**
+     * 预取的许可在本机的有效期，过期未用完的直接丢弃，单位毫秒
+     */
+    private long prefetchTtlMillis = 1000;
+
+    /**
+     * redis不可用时是否放行
+     */
+    private boolean failOpen = true;
+}
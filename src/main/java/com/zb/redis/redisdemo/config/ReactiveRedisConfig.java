@@ -0,0 +1,20 @@
+package com.zb.redis.redisdemo.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+
+/**
+ * @description: 响应式redis配置，复用lettuce连接工厂的共享连接，不占用连接池
+ * @author: zhangbing
+ * @create: 2026-10-18 15:40
+ **/
+@Configuration
+public class ReactiveRedisConfig {
+
+    @Bean
+    public ReactiveStringRedisTemplate reactiveStringRedisTemplate(ReactiveRedisConnectionFactory connectionFactory) {
+        return new ReactiveStringRedisTemplate(connectionFactory);
+    }
+}
@@ -0,0 +1,37 @@
+package com.zb.redis.redisdemo.config;
+
+import com.zb.redis.redisdemo.service.routing.ReplicaLagMonitor;
+import com.zb.redis.redisdemo.service.routing.StalenessAwareReadFrom;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * @description: 从节点读路由配置，redis.read-routing.mode不是MASTER时生效
+ * 设置readFrom后lettuce会通过哨兵维护主从拓扑，读命令按模式分发到从节点，写命令始终走主节点
+ * @author: zhangbing
+ * @create: 2026-10-18 15:05
+ **/
+@Configuration
+@ConditionalOnExpression("'${redis.read-routing.mode:MASTER}' != 'MASTER'")
+public class ReadRoutingConfig {
+
+    @Bean
+    public StalenessAwareReadFrom stalenessAwareReadFrom(ReadRoutingProperties properties) {
+        return new StalenessAwareReadFrom(properties.getMode());
+    }
+
+    @Bean
+    public LettuceClientConfigurationBuilderCustomizer readFromCustomizer(StalenessAwareReadFrom readFrom) {
+        return builder -> builder.readFrom(readFrom);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(StringRedisTemplate stringRedisTemplate,
+                                               StalenessAwareReadFrom readFrom,
+                                               ReadRoutingProperties properties) {
+        return new ReplicaLagMonitor(stringRedisTemplate, readFrom, properties);
+    }
+}
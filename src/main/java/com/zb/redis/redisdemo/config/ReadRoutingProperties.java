@@ -0,0 +1,40 @@
+package com.zb.redis.redisdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @description: 读请求路由配置
+ * @author: zhangbing
+ * @create: 2026-10-18 14:30
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "redis.read-routing")
+public class ReadRoutingProperties {
+
+    /**
+     * 读路由模式：MASTER-只读主节点，REPLICA_PREFERRED-优先从节点，NEAREST-延迟最低的节点
+     */
+    private Mode mode = Mode.MASTER;
+
+    /**
+     * 从节点复制偏移量落后主节点超过该字节数时移出读轮询
+     */
+    private long maxLagBytes = 1024 * 1024;
+
+    /**
+     * 从节点最后一次与主节点交互超过该秒数时移出读轮询
+     */
+    private long maxLagSeconds = 5;
+
+    /**
+     * 检查复制延迟的间隔，单位毫秒
+     */
+    private long lagCheckIntervalMillis = 1000;
+
+    public enum Mode {
+        MASTER, REPLICA_PREFERRED, NEAREST
+    }
+}
@@ -0,0 +1,67 @@
+package com.zb.redis.redisdemo.config;
+
+import com.zb.redis.redisdemo.service.cache.PendingMissInterceptor;
+import com.zb.redis.redisdemo.service.cache.XFetchRedisCacheManager;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @description: @Cacheable使用redis缓存，每个缓存的过期时间、提前刷新和过期后返回旧值的策略见RedisCacheProperties
+ * redis中的过期时间 = 逻辑过期时间 + 允许返回旧值的时间，值用带类型信息的json序列化
+ * @author: zhangbing
+ * @create: 2026-10-20 15:00
+ **/
+@Configuration
+@EnableCaching
+public class RedisCacheConfig {
+
+    @Bean
+    public XFetchRedisCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+                                                RedisCacheProperties properties) {
+        RedisCacheConfiguration base = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new GenericJackson2JsonRedisSerializer()));
+        Map<String, RedisCacheConfiguration> initial = new HashMap<>();
+        for (String name : properties.getCaches().keySet()) {
+            initial.put(name, base.entryTtl(physicalTtl(properties.policy(name))));
+        }
+        return new XFetchRedisCacheManager(RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory),
+                base.entryTtl(physicalTtl(properties.getDefaults())), initial, properties);
+    }
+
+    /**
+     * 非sync的@Cacheable方法抛出异常时清除XFetchCache的未命中记录，排在缓存拦截器外层
+     */
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public Advisor pendingMissAdvisor() {
+        Pointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(Cacheable.class, true))
+                .union(AnnotationMatchingPointcut.forMethodAnnotation(Cacheable.class));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new PendingMissInterceptor());
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+
+    private static Duration physicalTtl(RedisCacheProperties.Policy policy) {
+        return Duration.ofSeconds(policy.getTtlSeconds() + policy.getStaleWhileRevalidateSeconds());
+    }
+}
@@ -0,0 +1,88 @@
+package com.zb.redis.redisdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @description: @Cacheable缓存配置，caches中按缓存名称单独配置，未配置的项使用defaults
+ * @author: zhangbing
+ * @create: 2026-10-20 14:00
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "redis.cache")
+public class RedisCacheProperties {
+
+    /**
+     * 后台刷新线程数及排队上限，队列满时放弃本次刷新
+     */
+    private int refreshThreads = 4;
+    private int refreshQueueCapacity = 1000;
+
+    private Policy defaults = Policy.defaults();
+
+    private Map<String, Policy> caches = new LinkedHashMap<>();
+
+    /**
+     * 取得某个缓存的配置，未单独配置的项使用默认值
+     */
+    public Policy policy(String cacheName) {
+        Policy policy = caches.get(cacheName);
+        return policy == null ? defaults : policy.withDefaults(defaults);
+    }
+
+    @Data
+    public static class Policy {
+
+        /**
+         * 逻辑过期时间，单位秒
+         */
+        private Long ttlSeconds;
+
+        /**
+         * 逻辑过期后仍保留旧值的时间，期间读到旧值直接返回并在后台刷新，0表示不返回过期值，单位秒
+         */
+        private Long staleWhileRevalidateSeconds;
+
+        /**
+         * 提前刷新系数，越大越早刷新，0表示关闭提前刷新
+         */
+        private Double beta;
+
+        /**
+         * 同一个缓存在本机同时进行的后台刷新数上限
+         */
+        private Integer maxConcurrentRefreshes;
+
+        /**
+         * 同一个key未命中时其它线程等待本机加载结果的最长时间，超过后报错，单位毫秒
+         */
+        private Long loadTimeoutMillis;
+
+        static Policy defaults() {
+            Policy policy = new Policy();
+            policy.setTtlSeconds(600L);
+            policy.setStaleWhileRevalidateSeconds(0L);
+            policy.setBeta(1.0);
+            policy.setMaxConcurrentRefreshes(2);
+            policy.setLoadTimeoutMillis(10000L);
+            return policy;
+        }
+
+        Policy withDefaults(Policy defaults) {
+            Policy policy = new Policy();
+            policy.setTtlSeconds(ttlSeconds != null ? ttlSeconds : defaults.getTtlSeconds());
+            policy.setStaleWhileRevalidateSeconds(staleWhileRevalidateSeconds != null
+                    ? staleWhileRevalidateSeconds : defaults.getStaleWhileRevalidateSeconds());
+            policy.setBeta(beta != null ? beta : defaults.getBeta());
+            policy.setMaxConcurrentRefreshes(maxConcurrentRefreshes != null
+                    ? maxConcurrentRefreshes : defaults.getMaxConcurrentRefreshes());
+            policy.setLoadTimeoutMillis(loadTimeoutMillis != null ? loadTimeoutMillis : defaults.getLoadTimeoutMillis());
+            return policy;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.zb.redis.redisdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @description: 哨兵主从切换相关配置
+ * @author: zhangbing
+ * @create: 2026-10-18 11:05
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "redis.failover")
+public class RedisFailoverProperties {
+
+    /**
+     * 切换期间最多缓存的写命令数，超出后直接失败
+     */
+    private int bufferSize = 10000;
+
+    /**
+     * 重放失败后再次重放的间隔，单位毫秒
+     */
+    private long replayIntervalMillis = 200;
+
+    /**
+     * 收到+odown/+try-failover后最长等待+switch-master的时间，超时后不再阻止重放，单位毫秒
+     */
+    private long maxFailoverMillis = 60000;
+}
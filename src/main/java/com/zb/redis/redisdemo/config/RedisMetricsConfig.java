@@ -0,0 +1,115 @@
+package com.zb.redis.redisdemo.config;
+
+import com.zb.redis.redisdemo.service.metrics.InstrumentedLettuceConnectionFactory;
+import com.zb.redis.redisdemo.service.metrics.MicrometerCommandLatencyCollector;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * @description: redis连接池和命令指标，通过actuator的/actuator/metrics查看
+ * 连接池：自行声明LettuceConnectionFactory代替自动配置，按spring.redis的哨兵/单机、超时、连接池配置创建，
+ * 开启连接池时为InstrumentedLettuceConnectionFactory，LettuceClientConfigurationBuilderCustomizer照常生效；
+ * 命令：替换lettuce的ClientResources，命令耗时记录到micrometer
+ * @author: zhangbing
+ * @create: 2026-10-19 20:00
+ **/
+@Configuration
+public class RedisMetricsConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public DefaultClientResources lettuceClientResources(MeterRegistry meterRegistry, RedisProperties redisProperties) {
+        String master = redisProperties.getSentinel() != null
+                ? redisProperties.getSentinel().getMaster() : InstrumentedLettuceConnectionFactory.STANDALONE;
+        return DefaultClientResources.builder()
+                .commandLatencyCollector(new MicrometerCommandLatencyCollector(meterRegistry, master))
+                .build();
+    }
+
+    @Bean
+    public LettuceConnectionFactory redisConnectionFactory(RedisProperties redisProperties,
+                                                           ClientResources lettuceClientResources,
+                                                           ObjectProvider<LettuceClientConfigurationBuilderCustomizer> customizers,
+                                                           MeterRegistry meterRegistry) {
+        RedisProperties.Pool pool = redisProperties.getLettuce().getPool();
+        //连接池由InstrumentedLettuceConnectionFactory创建，客户端配置本身不带连接池
+        LettuceClientConfiguration.LettuceClientConfigurationBuilder builder = LettuceClientConfiguration.builder();
+        if (redisProperties.isSsl()) {
+            builder.useSsl();
+        }
+        if (redisProperties.getTimeout() != null) {
+            builder.commandTimeout(redisProperties.getTimeout());
+        }
+        Duration shutdownTimeout = redisProperties.getLettuce().getShutdownTimeout();
+        if (shutdownTimeout != null && !shutdownTimeout.isZero()) {
+            builder.shutdownTimeout(shutdownTimeout);
+        }
+        builder.clientResources(lettuceClientResources);
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        LettuceClientConfiguration clientConfiguration = builder.build();
+
+        RedisProperties.Sentinel sentinel = redisProperties.getSentinel();
+        if (pool == null) {
+            return sentinel != null
+                    ? new LettuceConnectionFactory(sentinelConfiguration(redisProperties), clientConfiguration)
+                    : new LettuceConnectionFactory(standaloneConfiguration(redisProperties), clientConfiguration);
+        }
+        GenericObjectPoolConfig<?> poolConfig = poolConfig(pool);
+        return sentinel != null
+                ? new InstrumentedLettuceConnectionFactory(sentinelConfiguration(redisProperties), clientConfiguration,
+                poolConfig, meterRegistry)
+                : new InstrumentedLettuceConnectionFactory(standaloneConfiguration(redisProperties), clientConfiguration,
+                poolConfig, meterRegistry);
+    }
+
+    private static RedisSentinelConfiguration sentinelConfiguration(RedisProperties redisProperties) {
+        Set<String> nodes = new LinkedHashSet<>();
+        for (String node : redisProperties.getSentinel().getNodes()) {
+            nodes.add(node.trim());
+        }
+        RedisSentinelConfiguration config = new RedisSentinelConfiguration(redisProperties.getSentinel().getMaster(), nodes);
+        config.setDatabase(redisProperties.getDatabase());
+        if (StringUtils.isNotEmpty(redisProperties.getPassword())) {
+            config.setPassword(RedisPassword.of(redisProperties.getPassword()));
+        }
+        return config;
+    }
+
+    private static RedisStandaloneConfiguration standaloneConfiguration(RedisProperties redisProperties) {
+        RedisStandaloneConfiguration config = new RedisStandaloneConfiguration(redisProperties.getHost(),
+                redisProperties.getPort());
+        config.setDatabase(redisProperties.getDatabase());
+        if (StringUtils.isNotEmpty(redisProperties.getPassword())) {
+            config.setPassword(RedisPassword.of(redisProperties.getPassword()));
+        }
+        return config;
+    }
+
+    //与spring boot自动配置的连接池参数相同
+    private static GenericObjectPoolConfig<?> poolConfig(RedisProperties.Pool pool) {
+        GenericObjectPoolConfig<?> config = new GenericObjectPoolConfig<>();
+        config.setMaxTotal(pool.getMaxActive());
+        config.setMaxIdle(pool.getMaxIdle());
+        config.setMinIdle(pool.getMinIdle());
+        if (pool.getMaxWait() != null) {
+            config.setMaxWaitMillis(pool.getMaxWait().toMillis());
+        }
+        return config;
+    }
+}
@@ -0,0 +1,52 @@
+package com.zb.redis.redisdemo.config;
+
+import org.apache.commons.lang3.StringUtils;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.redisson.config.SentinelServersConfig;
+import org.redisson.config.SingleServerConfig;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * @description: redisson客户端配置，与spring.redis使用同一套哨兵/单机配置
+ * redisson创建时就会建立连接，因此延迟到第一次使用时才创建，避免redis不可用时应用无法启动
+ * @author: zhangbing
+ * @create: 2026-10-18 16:50
+ **/
+@Configuration
+public class RedissonConfig {
+
+    private static final String REDIS_SCHEME = "redis://";
+
+    @Lazy
+    @Bean(destroyMethod = "shutdown")
+    public RedissonClient redissonClient(RedisProperties redisProperties) {
+        Config config = new Config();
+        int timeout = redisProperties.getTimeout() == null ? 3000 : (int) redisProperties.getTimeout().toMillis();
+        if (redisProperties.getSentinel() != null) {
+            SentinelServersConfig sentinel = config.useSentinelServers()
+                    .setMasterName(redisProperties.getSentinel().getMaster())
+                    .setDatabase(redisProperties.getDatabase())
+                    .setTimeout(timeout);
+            for (String node : redisProperties.getSentinel().getNodes()) {
+                sentinel.addSentinelAddress(REDIS_SCHEME + node.trim());
+            }
+            if (StringUtils.isNotEmpty(redisProperties.getPassword())) {
+                sentinel.setPassword(redisProperties.getPassword());
+            }
+        } else {
+            SingleServerConfig single = config.useSingleServer()
+                    .setAddress(REDIS_SCHEME + redisProperties.getHost() + ":" + redisProperties.getPort())
+                    .setDatabase(redisProperties.getDatabase())
+                    .setTimeout(timeout);
+            if (StringUtils.isNotEmpty(redisProperties.getPassword())) {
+                single.setPassword(redisProperties.getPassword());
+            }
+        }
+        return Redisson.create(config);
+    }
+}
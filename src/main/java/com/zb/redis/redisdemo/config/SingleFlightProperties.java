@@ -0,0 +1,41 @@
+package com.zb.redis.redisdemo.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * @description: 缓存未命中合并加载配置
+ * @author: zhangbing
+ * @create: 2026-10-19 22:10
+ **/
+@Data
+@Component
+@ConfigurationProperties(prefix = "redis.single-flight")
+public class SingleFlightProperties {
+
+    /**
+     * 跨节点加载租约的key前缀
+     */
+    private String leaseKeyPrefix = "single-flight:";
+
+    /**
+     * 跨节点加载租约的时长，应略大于一次加载的耗时，0表示只在本机内合并，单位毫秒
+     */
+    private long leaseMillis = 5000;
+
+    /**
+     * 其它节点持有租约时轮询缓存的间隔，单位毫秒
+     */
+    private long pollIntervalMillis = 50;
+
+    /**
+     * 等待其它节点加载结果的最长时间，超过后自行加载，单位毫秒
+     */
+    private long waitMillis = 10000;
+
+    /**
+     * 一次加载的最长预期耗时，本机等待者最多等待 wait-millis(开启租约时) + 该值，超过后报错，单位毫秒
+     */
+    private long loadTimeoutMillis = 10000;
+}
@@ -0,0 +1,52 @@
+package com.zb.redis.redisdemo.controller;
+
+import com.zb.redis.redisdemo.service.lock.CoalescingLockService;
+import com.zb.redis.redisdemo.service.lock.LockStats;
+import com.zb.redis.redisdemo.utils.Result;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @description: 分布式锁统计及压测接口
+ * @author: zhangbing
+ * @create: 2026-10-18 17:40
+ **/
+@RestController
+@RequestMapping(value = DistributedLockController.BASE_URL)
+public class DistributedLockController {
+
+    public static final String BASE_URL = "redis/lock/";
+
+    @Autowired
+    private CoalescingLockService coalescingLockService;
+
+    @GetMapping("/stats")
+    public Result<LockStats> stats() {
+        return Result.ok(coalescingLockService.getStats());
+    }
+
+    /**
+     * 获取锁并持有一段时间，并发调用同一个key可以观察本机交接和节省的往返次数
+     */
+    @PostMapping("/{key}")
+    public Result<Boolean> lock(@PathVariable String key,
+                                @RequestParam(defaultValue = "1000") long waitMillis,
+                                @RequestParam(defaultValue = "10") long holdMillis) throws InterruptedException {
+        AtomicBoolean lost = new AtomicBoolean();
+        if (!coalescingLockService.tryLock(key, waitMillis, TimeUnit.MILLISECONDS, () -> lost.set(true))) {
+            return Result.failed("获取锁超时");
+        }
+        try {
+            Thread.sleep(holdMillis);
+        } finally {
+            coalescingLockService.unlock(key);
+        }
+        if (lost.get()) {
+            return Result.failed("持有期间redis锁已过期或被其它节点持有");
+        }
+        return Result.ok(true);
+    }
+}
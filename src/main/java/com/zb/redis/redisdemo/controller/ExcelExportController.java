@@ -0,0 +1,146 @@
+package com.zb.redis.redisdemo.controller;
+
+import com.zb.redis.redisdemo.service.excel.ExcelExportService;
+import com.zb.redis.redisdemo.service.excel.ExportJobStatus;
+import com.zb.redis.redisdemo.utils.Result;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URLEncoder;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @description: 异步excel导出接口：提交任务、查询进度、分段下载
+ * @author: zhangbing
+ * @create: 2026-10-19 15:10
+ **/
+@Log4j2
+@RestController
+@RequestMapping(value = ExcelExportController.BASE_URL)
+public class ExcelExportController {
+
+    public static final String BASE_URL = "excel/export/";
+
+    private static final String XLSX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+    @Autowired
+    private ExcelExportService excelExportService;
+
+    @GetMapping("/reports")
+    public Result<Set<String>> reports() {
+        return Result.ok(excelExportService.getReportNames());
+    }
+
+    /**
+     * 提交导出任务，除report外的请求参数都作为报表参数
+     *
+     * @param report 报表名称
+     * @param params 报表参数
+     */
+    @PostMapping
+    public Result<ExportJobStatus> submit(@RequestParam String report, @RequestParam Map<String, String> params) {
+        params.remove("report");
+        try {
+            return Result.ok(excelExportService.submit(report, params));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return Result.failed(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public Result<ExportJobStatus> status(@PathVariable String jobId) {
+        ExportJobStatus status = excelExportService.getStatus(jobId);
+        if (status == null) {
+            return Result.failed("导出任务不存在或已过期");
+        }
+        return Result.ok(status);
+    }
+
+    /**
+     * 下载导出结果，支持单个 Range: bytes=start-end 断点续传，If-Range与ETag(任务id和buildToken)不一致时返回整个文件
+     */
+    @GetMapping("/{jobId}/download")
+    public void download(@PathVariable String jobId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        ExportJobStatus status = excelExportService.getStatus(jobId);
+        if (status == null || !ExportJobStatus.DONE.equals(status.getStatus())) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "导出结果不存在或尚未完成");
+            return;
+        }
+        String etag = "\"" + jobId + "-" + status.getBuildToken() + "\"";
+        long size = status.getSize();
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        boolean partial = range != null && (ifRange == null || ifRange.equals(etag));
+        if (partial) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            start = bounds[0];
+            end = bounds[1];
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        response.setContentType(XLSX_CONTENT_TYPE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment;filename=" + URLEncoder.encode(status.getFileName(), "UTF-8"));
+        response.setContentLengthLong(end - start + 1);
+        OutputStream out = response.getOutputStream();
+        excelExportService.writeRange(status, start, end, out);
+        out.flush();
+    }
+
+    /**
+     * 解析单段range，支持 start-end、start- 和 -suffixLength 三种形式
+     *
+     * @return [start, end]，不合法或超出文件大小时返回null
+     */
+    private static long[] parseRange(String range, long size) {
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        String first = spec.substring(0, dash).trim();
+        String last = spec.substring(dash + 1).trim();
+        try {
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = StringUtils.isEmpty(last) ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            if (start < 0 || start > end || start >= size) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
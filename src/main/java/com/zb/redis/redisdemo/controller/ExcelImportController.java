@@ -0,0 +1,164 @@
+package com.zb.redis.redisdemo.controller;
+
+import com.alibaba.fastjson.JSON;
+import com.zb.redis.redisdemo.service.excel.ExcelImportQueue;
+import com.zb.redis.redisdemo.service.excel.ExcelImportService;
+import com.zb.redis.redisdemo.service.excel.ImportJobStatus;
+import com.zb.redis.redisdemo.service.excel.ImportQueueStats;
+import com.zb.redis.redisdemo.service.excel.ImportStats;
+import com.zb.redis.redisdemo.service.excel.JsonStreamRowSink;
+import com.zb.redis.redisdemo.service.excel.RedisRowSink;
+import com.zb.redis.redisdemo.utils.ExcelFileUtil;
+import com.zb.redis.redisdemo.utils.Result;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: excel导入接口
+ * @author: zhangbing
+ * @create: 2026-10-19 10:30
+ **/
+@Log4j2
+@RestController
+@RequestMapping(value = ExcelImportController.BASE_URL)
+public class ExcelImportController {
+
+    public static final String BASE_URL = "excel/";
+
+    private static final MediaType NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
+    @Autowired
+    private ExcelImportService excelImportService;
+
+    @Autowired
+    private ExcelImportQueue excelImportQueue;
+
+    /**
+     * 流式解析xlsx并按批次写入redis
+     *
+     * @param file      xlsx文件
+     * @param keyPrefix key前缀
+     * @param mode      HASH-每行一个hash，STRING-每行一个JSON字符串
+     * @param batchSize 每个pipeline批次的行数
+     */
+    @PostMapping("/import/redis")
+    public Result<ImportStats> importToRedis(@RequestParam("file") MultipartFile file,
+                                             @RequestParam String keyPrefix,
+                                             @RequestParam(defaultValue = "HASH") RedisRowSink.Mode mode,
+                                             @RequestParam(defaultValue = "500") int batchSize) throws IOException {
+        if (ExcelFileUtil.checkFile(file) != 1) {
+            return Result.failed("仅支持xlsx文件");
+        }
+        if (batchSize <= 0) {
+            return Result.failed("batchSize必须大于0");
+        }
+        return Result.ok(excelImportService.importToRedis(file, keyPrefix, mode, batchSize));
+    }
+
+    /**
+     * 解析excel并流式返回每一行，不在内存中组装整个结果，
+     * 响应不再包在Result中，以{"trailer":{"status":"DONE|FAILED","rows":...}}结尾
+     *
+     * 每行的键与readExcel相同，xls的行另有line行号，全为空的行不返回
+     *
+     * @param file        xlsx或xls文件
+     * @param format      NDJSON-每行一个JSON对象，JSON_ARRAY-{"data":[...],"trailer":{...}}
+     * @param isDeleteOne 是否删除第一行，与readExcel相同只对xls生效
+     */
+    @PostMapping("/read/stream")
+    public ResponseEntity<StreamingResponseBody> readStream(@RequestParam("file") MultipartFile file,
+                                                            @RequestParam(defaultValue = "NDJSON") JsonStreamRowSink.Format format,
+                                                            @RequestParam(defaultValue = "false") boolean isDeleteOne) {
+        int res = ExcelFileUtil.checkFile(file);
+        if (res != 1 && res != 2) {
+            //返回值只能是StreamingResponseBody，校验失败时直接写出Result
+            byte[] failed = JSON.toJSONBytes(Result.failed("文件格式错误,请导入excel文件"));
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body(out -> out.write(failed));
+        }
+        StreamingResponseBody body = out -> excelImportService.streamRows(file, format, isDeleteOne, out);
+        return ResponseEntity.ok()
+                .contentType(format == JsonStreamRowSink.Format.NDJSON ? NDJSON : MediaType.APPLICATION_JSON_UTF8)
+                .body(body);
+    }
+
+    /**
+     * 并行读取xlsx的多个sheet写入redis，每个sheet的key为keyPrefix + sheet名称 + ":" + 行下标
+     *
+     * @param file      xlsx文件
+     * @param sheets    要导入的sheet名称，不传时导入全部
+     * @param keyPrefix key前缀
+     * @param mode      HASH-每行一个hash，STRING-每行一个JSON字符串
+     * @param batchSize 每个pipeline批次的行数
+     */
+    @PostMapping("/import/redis/sheets")
+    public Result<Map<String, ImportStats>> importSheetsToRedis(@RequestParam("file") MultipartFile file,
+                                                               @RequestParam(required = false) List<String> sheets,
+                                                               @RequestParam String keyPrefix,
+                                                               @RequestParam(defaultValue = "HASH") RedisRowSink.Mode mode,
+                                                               @RequestParam(defaultValue = "500") int batchSize)
+            throws IOException {
+        if (ExcelFileUtil.checkFile(file) != 1) {
+            return Result.failed("仅支持xlsx文件");
+        }
+        if (batchSize <= 0) {
+            return Result.failed("batchSize必须大于0");
+        }
+        try {
+            return Result.ok(excelImportService.importSheetsToRedis(file, sheets, keyPrefix, mode, batchSize));
+        } catch (IllegalArgumentException e) {
+            return Result.failed(e.getMessage());
+        }
+    }
+
+    /**
+     * 提交异步导入任务，文件暂存在redis中，由任意节点的消费者处理
+     *
+     * @param file      xlsx文件
+     * @param keyPrefix key前缀
+     * @param mode      HASH-每行一个hash，STRING-每行一个JSON字符串
+     * @param batchSize 每个pipeline批次的行数
+     */
+    @PostMapping("/import/jobs")
+    public Result<ImportJobStatus> submitImport(@RequestParam("file") MultipartFile file,
+                                                @RequestParam String keyPrefix,
+                                                @RequestParam(defaultValue = "HASH") RedisRowSink.Mode mode,
+                                                @RequestParam(defaultValue = "500") int batchSize) throws IOException {
+        if (ExcelFileUtil.checkFile(file) != 1) {
+            return Result.failed("仅支持xlsx文件");
+        }
+        if (batchSize <= 0) {
+            return Result.failed("batchSize必须大于0");
+        }
+        return Result.ok(excelImportQueue.submit(file, keyPrefix, mode, batchSize));
+    }
+
+    /**
+     * 查询导入任务状态
+     */
+    @GetMapping("/import/jobs/{jobId}")
+    public Result<ImportJobStatus> getImportStatus(@PathVariable String jobId) {
+        ImportJobStatus status = excelImportQueue.getStatus(jobId);
+        if (status == null) {
+            return Result.failed("任务不存在或已过期");
+        }
+        return Result.ok(status);
+    }
+
+    /**
+     * 导入队列的积压、待确认、死信数量和本节点的处理统计
+     */
+    @GetMapping("/import/queue")
+    public Result<ImportQueueStats> getQueueStats() {
+        return Result.ok(excelImportQueue.getStats());
+    }
+}
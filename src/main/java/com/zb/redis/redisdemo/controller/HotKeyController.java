@@ -0,0 +1,35 @@
+package com.zb.redis.redisdemo.controller;
+
+import com.zb.redis.redisdemo.service.hotkey.HotKeyDetector;
+import com.zb.redis.redisdemo.service.hotkey.HotKeyReport;
+import com.zb.redis.redisdemo.utils.Result;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * @description: 热点key查询接口
+ * @author: zhangbing
+ * @create: 2026-10-19 21:25
+ **/
+@RestController
+@RequestMapping(value = HotKeyController.BASE_URL)
+public class HotKeyController {
+
+    public static final String BASE_URL = "redis/hot-keys/";
+
+    @Autowired(required = false)
+    private HotKeyDetector hotKeyDetector;
+
+    /**
+     * 最近一个完整统计窗口的热点key及读写速率
+     */
+    @GetMapping
+    public Result<HotKeyReport> hotKeys() {
+        if (hotKeyDetector == null) {
+            return Result.failed("热点key探测未开启");
+        }
+        return Result.ok(hotKeyDetector.getReport());
+    }
+}
@@ -0,0 +1,61 @@
+package com.zb.redis.redisdemo.controller;
+
+import com.zb.redis.redisdemo.service.keyspace.KeyspacePurgeService;
+import com.zb.redis.redisdemo.service.keyspace.PurgeJobStatus;
+import com.zb.redis.redisdemo.utils.Result;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * @description: 批量清理key接口，例如清理压测留下的 zhangbing* 数据
+ * @author: zhangbing
+ * @create: 2026-10-20 11:50
+ **/
+@RestController
+@RequestMapping(value = KeyspacePurgeController.BASE_URL)
+public class KeyspacePurgeController {
+
+    public static final String BASE_URL = "redis/keyspace/purge/";
+
+    @Autowired
+    private KeyspacePurgeService keyspacePurgeService;
+
+    /**
+     * 提交清理任务
+     *
+     * @param pattern SCAN匹配模式，例如 zhangbing*
+     * @param count   SCAN的COUNT，不传使用默认值
+     * @param dryRun  只统计不删除
+     */
+    @PostMapping
+    public Result<PurgeJobStatus> submit(@RequestParam String pattern,
+                                         @RequestParam(defaultValue = "0") int count,
+                                         @RequestParam(defaultValue = "false") boolean dryRun) {
+        try {
+            return Result.ok(keyspacePurgeService.submit(pattern, count, dryRun));
+        } catch (IllegalArgumentException e) {
+            return Result.failed(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public Result<PurgeJobStatus> status(@PathVariable String jobId) {
+        PurgeJobStatus status = keyspacePurgeService.getStatus(jobId);
+        return status == null ? Result.failed("任务不存在") : Result.ok(status);
+    }
+
+    @PostMapping("/{jobId}/pause")
+    public Result<PurgeJobStatus> pause(@PathVariable String jobId) {
+        PurgeJobStatus status = keyspacePurgeService.pause(jobId);
+        return status == null ? Result.failed("任务不存在") : Result.ok(status);
+    }
+
+    /**
+     * 从保存的游标处继续，只对暂停、失败或执行节点已宕机的任务生效
+     */
+    @PostMapping("/{jobId}/resume")
+    public Result<PurgeJobStatus> resume(@PathVariable String jobId) {
+        PurgeJobStatus status = keyspacePurgeService.resume(jobId);
+        return status == null ? Result.failed("任务不存在") : Result.ok(status);
+    }
+}
@@ -0,0 +1,56 @@
+package com.zb.redis.redisdemo.controller;
+
+import com.zb.redis.redisdemo.service.nearcache.NearCacheStats;
+import com.zb.redis.redisdemo.service.nearcache.NearCachedValueOperations;
+import com.zb.redis.redisdemo.utils.Result;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * @description: 近端缓存读写及统计接口，未开启近端缓存时返回失败
+ * @author: zhangbing
+ * @create: 2026-10-18 14:00
+ **/
+@RestController
+@RequestMapping(value = NearCacheController.BASE_URL)
+public class NearCacheController {
+
+    public static final String BASE_URL = "redis/near-cache/";
+
+    @Autowired(required = false)
+    private NearCachedValueOperations nearCachedValueOperations;
+
+    @GetMapping("/get")
+    public Result<String> get(@RequestParam String key) {
+        if (nearCachedValueOperations == null) {
+            return Result.failed("近端缓存未开启");
+        }
+        return Result.ok(nearCachedValueOperations.get(key));
+    }
+
+    @PostMapping("/set")
+    public Result<Boolean> set(@RequestParam String key, @RequestParam String value) {
+        if (nearCachedValueOperations == null) {
+            return Result.failed("近端缓存未开启");
+        }
+        nearCachedValueOperations.set(key, value);
+        return Result.ok(true);
+    }
+
+    @GetMapping("/stats")
+    public Result<NearCacheStats> stats() {
+        if (nearCachedValueOperations == null) {
+            return Result.failed("近端缓存未开启");
+        }
+        return Result.ok(nearCachedValueOperations.stats());
+    }
+
+    @DeleteMapping
+    public Result<Boolean> clear() {
+        if (nearCachedValueOperations == null) {
+            return Result.failed("近端缓存未开启");
+        }
+        nearCachedValueOperations.clear();
+        return Result.ok(true);
+    }
+}
@@ -0,0 +1,49 @@
+package com.zb.redis.redisdemo.controller;
+
+import com.zb.redis.redisdemo.service.ratelimit.RateLimit;
+import com.zb.redis.redisdemo.service.ratelimit.RateLimitAlgorithm;
+import com.zb.redis.redisdemo.service.ratelimit.RateLimitStats;
+import com.zb.redis.redisdemo.service.ratelimit.RedisRateLimiter;
+import com.zb.redis.redisdemo.utils.Result;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * @description: 限流统计及演示接口
+ * @author: zhangbing
+ * @create: 2026-10-20 10:00
+ **/
+@RestController
+@RequestMapping(value = RateLimitController.BASE_URL)
+public class RateLimitController {
+
+    public static final String BASE_URL = "redis/rate-limit/";
+
+    @Autowired
+    private RedisRateLimiter redisRateLimiter;
+
+    @GetMapping("/stats")
+    public Result<RateLimitStats> stats() {
+        return Result.ok(redisRateLimiter.getStats());
+    }
+
+    /**
+     * 令牌桶限流演示，所有节点合计每秒100次，允许200次突发
+     */
+    @RateLimit(permits = 100, burst = 200)
+    @GetMapping("/token-bucket")
+    public Result<Long> tokenBucket() {
+        return Result.ok(System.currentTimeMillis());
+    }
+
+    /**
+     * 滑动窗口限流演示，所有节点合计每10秒500次
+     */
+    @RateLimit(permits = 500, periodMillis = 10000, algorithm = RateLimitAlgorithm.SLIDING_WINDOW)
+    @GetMapping("/sliding-window")
+    public Result<Long> slidingWindow() {
+        return Result.ok(System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,94 @@
+package com.zb.redis.redisdemo.controller;
+
+import com.zb.redis.redisdemo.config.BenchmarkProperties;
+import com.zb.redis.redisdemo.service.TemplateThroughputBenchmark;
+import com.zb.redis.redisdemo.service.ThroughputReport;
+import com.zb.redis.redisdemo.utils.Result;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @description: 基于ReactiveStringRedisTemplate的非阻塞接口，请求线程在等待redis响应期间被释放
+ * @author: zhangbing
+ * @create: 2026-10-18 16:20
+ **/
+@RestController
+@RequestMapping(value = ReactiveRedisController.BASE_URL)
+public class ReactiveRedisController {
+
+    public static final String BASE_URL = "redis/reactive/";
+
+    @Autowired
+    private ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+    @Autowired
+    private TemplateThroughputBenchmark templateThroughputBenchmark;
+
+    @Autowired
+    private BenchmarkProperties benchmarkProperties;
+
+    @GetMapping("/get")
+    public Mono<Result<String>> get(@RequestParam String key) {
+        return reactiveStringRedisTemplate.opsForValue().get(key)
+                .map(Result::ok)
+                .defaultIfEmpty(Result.ok());
+    }
+
+    /**
+     * @param ttlSeconds 过期时间，不传或小于等于0表示不过期
+     */
+    @PostMapping("/set")
+    public Mono<Result<Boolean>> set(@RequestParam String key, @RequestParam String value,
+                                     @RequestParam(required = false) Long ttlSeconds) {
+        Mono<Boolean> result = ttlSeconds == null || ttlSeconds <= 0
+                ? reactiveStringRedisTemplate.opsForValue().set(key, value)
+                : reactiveStringRedisTemplate.opsForValue().set(key, value, Duration.ofSeconds(ttlSeconds));
+        return result.map(Result::ok);
+    }
+
+    @GetMapping("/mget")
+    public Mono<Result<List<String>>> mget(@RequestParam List<String> keys) {
+        return reactiveStringRedisTemplate.opsForValue().multiGet(keys).map(Result::ok);
+    }
+
+    /**
+     * 按SCAN游标流式返回匹配的key，每行一个JSON字符串；
+     * 客户端读得慢时响应写出阻塞，上游只按需拉取下一批，不会把整个keyspace堆在内存里
+     *
+     * @param pattern 匹配模式
+     * @param count   每次SCAN的COUNT提示值
+     */
+    @GetMapping(value = "/scan", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
+    public Flux<String> scan(@RequestParam String pattern, @RequestParam(defaultValue = "1000") long count) {
+        return reactiveStringRedisTemplate.scan(ScanOptions.scanOptions().match(pattern).count(count).build());
+    }
+
+    /**
+     * 相同并发度下阻塞与响应式template读的吞吐量、CPU消耗对比，会占满redis连接，
+     * redis.benchmark.enabled=true时才可调用
+     */
+    @GetMapping("/benchmark")
+    public Mono<Result<List<ThroughputReport>>> benchmark(@RequestParam(defaultValue = "10") int seconds,
+                                                          @RequestParam(defaultValue = "64") int concurrency) {
+        if (!benchmarkProperties.isEnabled()) {
+            return Mono.just(Result.failed("吞吐对比未开启，需配置redis.benchmark.enabled=true"));
+        }
+        int maxSeconds = benchmarkProperties.getMaxSeconds();
+        int maxConcurrency = benchmarkProperties.getMaxConcurrency();
+        if (seconds <= 0 || seconds > maxSeconds || concurrency <= 0 || concurrency > maxConcurrency) {
+            return Mono.just(Result.failed("seconds取值1-" + maxSeconds + "，concurrency取值1-" + maxConcurrency));
+        }
+        return Mono.fromCallable(() -> templateThroughputBenchmark.compare(seconds, concurrency))
+                .subscribeOn(Schedulers.elastic())
+                .map(Result::ok);
+    }
+}
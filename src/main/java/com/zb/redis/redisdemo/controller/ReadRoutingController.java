@@ -0,0 +1,56 @@
+package com.zb.redis.redisdemo.controller;
+
+import com.zb.redis.redisdemo.service.routing.ReadRouting;
+import com.zb.redis.redisdemo.service.routing.ReplicaLagMonitor;
+import com.zb.redis.redisdemo.utils.Result;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * @description: 读路由状态及读写示例接口
+ * @author: zhangbing
+ * @create: 2026-10-18 15:15
+ **/
+@RestController
+@RequestMapping(value = ReadRoutingController.BASE_URL)
+public class ReadRoutingController {
+
+    public static final String BASE_URL = "redis/read-routing/";
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired(required = false)
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    /**
+     * 当前读路由模式、各从节点复制延迟及被移出轮询的从节点
+     */
+    @GetMapping("/status")
+    public Result<ReplicaLagMonitor.ReadRoutingStatus> status() {
+        if (replicaLagMonitor == null) {
+            return Result.failed("未开启从节点读路由");
+        }
+        return Result.ok(replicaLagMonitor.getStatus());
+    }
+
+    /**
+     * 按配置的模式读取，可能读到从节点上的旧值
+     */
+    @GetMapping("/get")
+    public Result<String> get(@RequestParam String key) {
+        return Result.ok(stringRedisTemplate.opsForValue().get(key));
+    }
+
+    /**
+     * 写入后立即从主节点读回
+     */
+    @PostMapping("/set")
+    public Result<String> setAndRead(@RequestParam String key, @RequestParam String value) {
+        return Result.ok(ReadRouting.onMaster(() -> {
+            stringRedisTemplate.opsForValue().set(key, value);
+            return stringRedisTemplate.opsForValue().get(key);
+        }));
+    }
+}
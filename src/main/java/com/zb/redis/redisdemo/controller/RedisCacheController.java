@@ -0,0 +1,46 @@
+package com.zb.redis.redisdemo.controller;
+
+import com.zb.redis.redisdemo.service.cache.CacheDemoService;
+import com.zb.redis.redisdemo.service.cache.CacheStats;
+import com.zb.redis.redisdemo.service.cache.XFetchRedisCacheManager;
+import com.zb.redis.redisdemo.utils.Result;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * @description: @Cacheable缓存统计及演示接口
+ * @author: zhangbing
+ * @create: 2026-10-20 15:15
+ **/
+@RestController
+@RequestMapping(value = RedisCacheController.BASE_URL)
+public class RedisCacheController {
+
+    public static final String BASE_URL = "redis/cache/";
+
+    @Autowired
+    private XFetchRedisCacheManager cacheManager;
+
+    @Autowired
+    private CacheDemoService cacheDemoService;
+
+    @GetMapping("/stats")
+    public Result<List<CacheStats>> stats() {
+        return Result.ok(cacheManager.getStats());
+    }
+
+    /**
+     * 读取演示缓存，未命中时模拟一次耗时costMillis的计算
+     *
+     * @param inline 是否使用非sync的@Cacheable
+     */
+    @GetMapping("/demo/{key}")
+    public Result<String> demo(@PathVariable String key,
+                               @RequestParam(defaultValue = "200") long costMillis,
+                               @RequestParam(defaultValue = "false") boolean inline) {
+        return Result.ok(inline ? cacheDemoService.computeInline(key, costMillis)
+                : cacheDemoService.compute(key, costMillis));
+    }
+}
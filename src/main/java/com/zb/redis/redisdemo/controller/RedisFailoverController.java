@@ -0,0 +1,50 @@
+package com.zb.redis.redisdemo.controller;
+
+import com.zb.redis.redisdemo.service.failover.FailoverRetryBuffer;
+import com.zb.redis.redisdemo.service.failover.FailoverStats;
+import com.zb.redis.redisdemo.utils.Result;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * @description: 主从切换状态及经由重试缓冲区的写入接口
+ * @author: zhangbing
+ * @create: 2026-10-18 11:45
+ **/
+@RestController
+@RequestMapping(value = RedisFailoverController.BASE_URL)
+public class RedisFailoverController {
+
+    public static final String BASE_URL = "redis/failover/";
+
+    @Autowired
+    private FailoverRetryBuffer failoverRetryBuffer;
+
+    /**
+     * 写不可用窗口和缓冲区统计
+     */
+    @GetMapping("/stats")
+    public Result<FailoverStats> stats() {
+        return Result.ok(failoverRetryBuffer.getStats());
+    }
+
+    /**
+     * 写入key，切换期间会被缓存并在新主节点上重放，不等待重放完成
+     */
+    @PostMapping("/set")
+    public Result<Boolean> set(@RequestParam String key, @RequestParam String value) {
+        CompletableFuture<Void> future = failoverRetryBuffer.set(key, value);
+        if (future.isCompletedExceptionally()) {
+            try {
+                future.join();
+            } catch (CompletionException e) {
+                return Result.failed(e.getCause().getMessage());
+            }
+        }
+        boolean written = future.isDone();
+        return Result.ok(written, written ? "" : "主从切换中，已进入重试缓冲区");
+    }
+}
@@ -1,11 +1,13 @@
 package com.zb.redis.redisdemo.controller;
 
+import com.zb.redis.redisdemo.service.LoadJobReport;
+import com.zb.redis.redisdemo.service.RedisLoadGenerator;
+import com.zb.redis.redisdemo.service.ratelimit.RateLimit;
+import com.zb.redis.redisdemo.service.ratelimit.RateLimitAlgorithm;
+import com.zb.redis.redisdemo.utils.Result;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.redis.core.StringRedisTemplate;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
 /**
  * @description: 用户控制器
@@ -21,22 +23,53 @@ public class RedisTestController {
 
 
     @Autowired
-    private StringRedisTemplate stringRedisTemplate;
-
-    @GetMapping("/testSentinel")
-    public void testSentinel() {
-        int i = 1;
-        while (true) {
-            try {
-                stringRedisTemplate.opsForValue().set("zhangbing" + i, i + "");
-                System.out.println("设置key：" + "zhangbing" + i);
-                i++;
-                Thread.sleep(2000);
-            } catch (Exception e) {
-                log.error("异常:" + e);
-            }
+    private RedisLoadGenerator redisLoadGenerator;
 
+    /**
+     * 提交pipeline批量写入的压测任务，任务在后台执行
+     *
+     * @param keyPrefix   key前缀
+     * @param keyCount    写入的key数量
+     * @param valueSize   value字节数
+     * @param batchSize   每个pipeline批次的命令数
+     * @param concurrency 并发线程数
+     * @return 任务id
+     */
+    @RateLimit(permits = 10, periodMillis = 60000, algorithm = RateLimitAlgorithm.SLIDING_WINDOW)
+    @PostMapping("/testSentinel")
+    public Result<String> testSentinel(@RequestParam(defaultValue = "zhangbing") String keyPrefix,
+                                       @RequestParam(defaultValue = "100000") long keyCount,
+                                       @RequestParam(defaultValue = "16") int valueSize,
+                                       @RequestParam(defaultValue = "100") int batchSize,
+                                       @RequestParam(defaultValue = "4") int concurrency) {
+        if (keyCount <= 0 || valueSize <= 0 || batchSize <= 0 || concurrency <= 0) {
+            return Result.failed("参数必须大于0");
         }
+        if (concurrency > RedisLoadGenerator.MAX_CONCURRENCY) {
+            return Result.failed("并发数不能超过" + RedisLoadGenerator.MAX_CONCURRENCY);
+        }
+        try {
+            return Result.ok(redisLoadGenerator.submit(keyPrefix, keyCount, valueSize, batchSize, concurrency));
+        } catch (IllegalStateException e) {
+            return Result.failed(e.getMessage());
+        }
+    }
+
+    /**
+     * 查询压测任务状态，结束后包含ops/sec和批次耗时分位数
+     */
+    @GetMapping("/testSentinel/{jobId}")
+    public Result<LoadJobReport> loadReport(@PathVariable String jobId) {
+        LoadJobReport report = redisLoadGenerator.getReport(jobId);
+        return report == null ? Result.failed("任务不存在") : Result.ok(report);
+    }
+
+    /**
+     * 取消压测任务
+     */
+    @DeleteMapping("/testSentinel/{jobId}")
+    public Result<Boolean> cancelLoad(@PathVariable String jobId) {
+        return redisLoadGenerator.cancel(jobId) ? Result.ok(true) : Result.failed("任务不存在");
     }
 
 }
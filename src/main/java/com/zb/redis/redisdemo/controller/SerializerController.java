@@ -0,0 +1,42 @@
+package com.zb.redis.redisdemo.controller;
+
+import com.zb.redis.redisdemo.service.serializer.SerializerBenchmark;
+import com.zb.redis.redisdemo.service.serializer.SerializerBenchmarkResult;
+import com.zb.redis.redisdemo.utils.Result;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * @description: value序列化方式对比
+ * @author: zhangbing
+ * @create: 2026-10-19 17:25
+ **/
+@Log4j2
+@RestController
+@RequestMapping(value = SerializerController.BASE_URL)
+public class SerializerController {
+
+    public static final String BASE_URL = "redis/serializer/";
+
+    @Autowired
+    private SerializerBenchmark serializerBenchmark;
+
+    /**
+     * 对比紧凑编码、fastjson、jackson的value字节数和编解码ns/op
+     *
+     * @param iterations 每种方式编码、解码各执行的次数
+     */
+    @GetMapping("/benchmark")
+    public Result<List<SerializerBenchmarkResult>> benchmark(@RequestParam(defaultValue = "200000") int iterations) {
+        if (iterations <= 0 || iterations > 10_000_000) {
+            return Result.failed("iterations取值1-10000000");
+        }
+        return Result.ok(serializerBenchmark.compare(iterations));
+    }
+}
@@ -0,0 +1,47 @@
+package com.zb.redis.redisdemo.controller;
+
+import com.zb.redis.redisdemo.service.cache.SingleFlightCache;
+import com.zb.redis.redisdemo.service.cache.SingleFlightStats;
+import com.zb.redis.redisdemo.utils.Result;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 合并加载统计及演示接口
+ * @author: zhangbing
+ * @create: 2026-10-19 22:40
+ **/
+@RestController
+@RequestMapping(value = SingleFlightController.BASE_URL)
+public class SingleFlightController {
+
+    public static final String BASE_URL = "redis/single-flight/";
+
+    @Autowired
+    private SingleFlightCache singleFlightCache;
+
+    @GetMapping("/stats")
+    public Result<SingleFlightStats> stats() {
+        return Result.ok(singleFlightCache.getStats());
+    }
+
+    /**
+     * 读取key，未命中时模拟一次耗时loadMillis的回源，并发请求同一个过期key可以观察合并次数
+     */
+    @GetMapping("/{key}")
+    public Result<String> get(@PathVariable String key,
+                              @RequestParam(defaultValue = "200") long loadMillis,
+                              @RequestParam(defaultValue = "60") long ttlSeconds) {
+        return Result.ok(singleFlightCache.get(key, ttlSeconds, TimeUnit.SECONDS, () -> {
+            try {
+                Thread.sleep(loadMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("加载被中断", e);
+            }
+            return key + "@" + System.currentTimeMillis();
+        }));
+    }
+}
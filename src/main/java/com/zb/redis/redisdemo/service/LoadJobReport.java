@@ -0,0 +1,52 @@
+package com.zb.redis.redisdemo.service;
+
+import lombok.Data;
+
+/**
+ * @description: 压测任务的状态与结果
+ * @author: zhangbing
+ * @create: 2026-10-18 10:12
+ **/
+@Data
+public class LoadJobReport {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String FINISHED = "FINISHED";
+    public static final String CANCELLED = "CANCELLED";
+    public static final String FAILED = "FAILED";
+
+    private String jobId;
+    private String status;
+
+    /**
+     * 任务参数
+     */
+    private String keyPrefix;
+    private long keyCount;
+    private int valueSize;
+    private int batchSize;
+    private int concurrency;
+
+    /**
+     * 已写入的key数量
+     */
+    private long written;
+    private long failedBatches;
+    private long startTime;
+    private long endTime;
+
+    /**
+     * 吞吐量(ops/sec)，任务结束后计算
+     */
+    private double opsPerSecond;
+
+    /**
+     * 单个pipeline批次的耗时分位数，单位微秒
+     */
+    private long p50Micros;
+    private long p90Micros;
+    private long p99Micros;
+    private long maxMicros;
+
+    private String error;
+}
@@ -0,0 +1,308 @@
+package com.zb.redis.redisdemo.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @description: 基于pipeline批量写入的redis压测任务
+ * 每个任务把keyCount个key切分成batchSize大小的批次，由concurrency个工作线程抢占批次并通过executePipelined写入，
+ * 任务在后台运行，可随时取消，结束后给出吞吐量和批次耗时分位数(按固定桶数的直方图统计，最大值为实际最大值)
+ * @author: zhangbing
+ * @create: 2026-10-18 10:20
+ **/
+@Log4j2
+@Service
+public class RedisLoadGenerator implements DisposableBean {
+
+    /**
+     * 工作线程池大小，所有任务共享，单个任务的并发数不能超过该值
+     */
+    public static final int MAX_CONCURRENCY = 32;
+
+    /**
+     * 批次耗时直方图：64微秒以下每微秒一个桶，以上每个2的幂区间分成32个桶，相对误差不超过1/32，
+     * 桶数固定，内存占用与批次数无关
+     */
+    private static final int LINEAR_BUCKETS = 64;
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int LATENCY_BUCKETS = LINEAR_BUCKETS + (64 - 6) * (1 << SUB_BUCKET_BITS);
+
+    /**
+     * 最多保留的已结束任务数
+     */
+    private static final int MAX_RETAINED_JOBS = 50;
+
+    /**
+     * 已结束任务的报告在redis中的保留时间，内存中被淘汰后仍可查询
+     */
+    private static final String REPORT_KEY_PREFIX = "redis:load:report:";
+    private static final long REPORT_TTL_HOURS = 24;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisTemplate<String, LoadJobReport> loadJobReportRedisTemplate;
+
+    private final ThreadPoolExecutor workers = new ThreadPoolExecutor(MAX_CONCURRENCY, MAX_CONCURRENCY,
+            60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(MAX_CONCURRENCY), new ThreadFactory() {
+        private final AtomicInteger index = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "redis-load-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private final Map<String, LoadJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * 提交压测任务
+     *
+     * @param keyPrefix   key前缀，实际key为keyPrefix + 序号
+     * @param keyCount    写入的key数量
+     * @param valueSize   value字节数
+     * @param batchSize   每个pipeline批次的命令数
+     * @param concurrency 并发的工作线程数
+     * @return 任务id
+     */
+    public String submit(String keyPrefix, long keyCount, int valueSize, int batchSize, int concurrency) {
+        evictFinishedJobs();
+        LoadJob job = new LoadJob(UUID.randomUUID().toString().replace("-", ""), keyPrefix, keyCount,
+                valueSize, batchSize, concurrency);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(concurrency);
+        try {
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(CompletableFuture.runAsync(() -> runWorker(job), workers));
+            }
+        } catch (RejectedExecutionException e) {
+            job.cancelled = true;
+            throw new IllegalStateException("压测线程池已满，请稍后再试");
+        }
+        jobs.put(job.id, job);
+        //取消时工作线程在当前批次结束后自行退出，全部退出后才生成最终报告
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((v, e) -> {
+                    job.finish(e);
+                    saveReport(job.finalReport);
+                });
+        log.info("压测任务{}已提交: keyCount={} valueSize={} batchSize={} concurrency={}",
+                job.id, keyCount, valueSize, batchSize, concurrency);
+        return job.id;
+    }
+
+    /**
+     * 查询任务状态，任务结束后包含吞吐量和耗时分位数
+     */
+    public LoadJobReport getReport(String jobId) {
+        LoadJob job = jobs.get(jobId);
+        if (job != null) {
+            return job.report();
+        }
+        return loadJobReportRedisTemplate.opsForValue().get(REPORT_KEY_PREFIX + jobId);
+    }
+
+    /**
+     * 取消任务，已提交的pipeline批次会执行完，所有工作线程退出后任务才结束
+     */
+    public boolean cancel(String jobId) {
+        LoadJob job = jobs.get(jobId);
+        if (job == null) {
+            return false;
+        }
+        job.cancelled = true;
+        return true;
+    }
+
+    private void runWorker(LoadJob job) {
+        long batch;
+        while (!job.cancelled && (batch = job.nextBatch.getAndIncrement()) < job.batches) {
+            long from = batch * job.batchSize;
+            long to = Math.min(from + job.batchSize, job.keyCount);
+            long start = System.nanoTime();
+            try {
+                stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    StringRedisConnection conn = (StringRedisConnection) connection;
+                    for (long i = from; i < to; i++) {
+                        conn.set(job.keyPrefix + i, job.value);
+                    }
+                    return null;
+                });
+                job.written.addAndGet(to - from);
+                job.recordLatency(System.nanoTime() - start);
+            } catch (Exception e) {
+                job.failedBatches.incrementAndGet();
+                log.error("压测任务{}批次{}写入失败:{}", job.id, batch, e.getMessage());
+            }
+        }
+    }
+
+    private void saveReport(LoadJobReport report) {
+        try {
+            loadJobReportRedisTemplate.opsForValue().set(REPORT_KEY_PREFIX + report.getJobId(), report,
+                    REPORT_TTL_HOURS, TimeUnit.HOURS);
+        } catch (Exception e) {
+            log.warn("压测任务{}报告保存失败:{}", report.getJobId(), e.getMessage());
+        }
+    }
+
+    private void evictFinishedJobs() {
+        if (jobs.size() < MAX_RETAINED_JOBS) {
+            return;
+        }
+        jobs.values().stream()
+                .filter(job -> job.endTime > 0)
+                .sorted(Comparator.comparingLong(job -> job.endTime))
+                .limit(jobs.size() - MAX_RETAINED_JOBS + 1)
+                .forEach(job -> jobs.remove(job.id));
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        jobs.values().forEach(job -> job.cancelled = true);
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    private static final class LoadJob {
+        final String id;
+        final String keyPrefix;
+        final long keyCount;
+        final int valueSize;
+        final int batchSize;
+        final int concurrency;
+        final String value;
+        final long batches;
+        final AtomicLongArray latencyBuckets = new AtomicLongArray(LATENCY_BUCKETS);
+        final AtomicLong maxLatencyNanos = new AtomicLong();
+        final AtomicLong nextBatch = new AtomicLong();
+        final AtomicLong written = new AtomicLong();
+        final AtomicLong failedBatches = new AtomicLong();
+        final long startTime = System.currentTimeMillis();
+        volatile long endTime;
+        volatile boolean cancelled;
+        volatile String error;
+        volatile LoadJobReport finalReport;
+
+        LoadJob(String id, String keyPrefix, long keyCount, int valueSize, int batchSize, int concurrency) {
+            this.id = id;
+            this.keyPrefix = keyPrefix;
+            this.keyCount = keyCount;
+            this.valueSize = valueSize;
+            this.batchSize = batchSize;
+            this.concurrency = concurrency;
+            char[] chars = new char[valueSize];
+            Arrays.fill(chars, 'x');
+            this.value = new String(chars);
+            this.batches = (keyCount + batchSize - 1) / batchSize;
+        }
+
+        void recordLatency(long nanos) {
+            latencyBuckets.incrementAndGet(bucketOf(nanos / 1000));
+            maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        void finish(Throwable e) {
+            endTime = System.currentTimeMillis();
+            if (e != null && !(e instanceof CancellationException)) {
+                error = e.getMessage();
+            }
+            finalReport = buildReport();
+            log.info("压测任务{}结束: status={} written={} ops/sec={} p99={}us", id, finalReport.getStatus(),
+                    finalReport.getWritten(), finalReport.getOpsPerSecond(), finalReport.getP99Micros());
+        }
+
+        LoadJobReport report() {
+            LoadJobReport report = finalReport;
+            return report != null ? report : buildReport();
+        }
+
+        private LoadJobReport buildReport() {
+            LoadJobReport report = new LoadJobReport();
+            report.setJobId(id);
+            report.setKeyPrefix(keyPrefix);
+            report.setKeyCount(keyCount);
+            report.setValueSize(valueSize);
+            report.setBatchSize(batchSize);
+            report.setConcurrency(concurrency);
+            report.setWritten(written.get());
+            report.setFailedBatches(failedBatches.get());
+            report.setStartTime(startTime);
+            report.setEndTime(endTime);
+            report.setError(error);
+            if (endTime == 0) {
+                report.setStatus(LoadJobReport.RUNNING);
+                return report;
+            }
+            report.setStatus(error != null ? LoadJobReport.FAILED
+                    : cancelled ? LoadJobReport.CANCELLED : LoadJobReport.FINISHED);
+            long elapsed = Math.max(1, endTime - startTime);
+            report.setOpsPerSecond(written.get() * 1000.0 / elapsed);
+
+            long[] counts = new long[LATENCY_BUCKETS];
+            long total = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = latencyBuckets.get(i);
+                total += counts[i];
+            }
+            if (total > 0) {
+                long maxMicros = maxLatencyNanos.get() / 1000;
+                report.setP50Micros(percentile(counts, total, 0.50, maxMicros));
+                report.setP90Micros(percentile(counts, total, 0.90, maxMicros));
+                report.setP99Micros(percentile(counts, total, 0.99, maxMicros));
+                report.setMaxMicros(maxMicros);
+            }
+            return report;
+        }
+
+        /**
+         * 分位数所在桶的上界，不超过实际最大值
+         */
+        private static long percentile(long[] counts, long total, double p, long maxMicros) {
+            long rank = Math.max(1, (long) Math.ceil(p * total));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(bucketUpperBound(i), maxMicros);
+                }
+            }
+            return maxMicros;
+        }
+    }
+
+    private static int bucketOf(long micros) {
+        if (micros < LINEAR_BUCKETS) {
+            return (int) Math.max(0, micros);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+        return LINEAR_BUCKETS + (exponent - 6) * (1 << SUB_BUCKET_BITS) + sub;
+    }
+
+    private static long bucketUpperBound(int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        int exponent = (bucket - LINEAR_BUCKETS) / (1 << SUB_BUCKET_BITS) + 6;
+        int sub = (bucket - LINEAR_BUCKETS) % (1 << SUB_BUCKET_BITS);
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (1L << exponent) + (sub + 1) * width - 1;
+    }
+}
@@ -0,0 +1,144 @@
+package com.zb.redis.redisdemo.service;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: 同一个key在相同并发度下分别用StringRedisTemplate(每个并发一个阻塞线程)
+ * 和ReactiveStringRedisTemplate(flatMap限制在途请求数)读取固定时长，对比吞吐量和每CPU秒完成的操作数。
+ * 测的是进程内的template调用，不经过HTTP，结果不包含servlet线程、序列化和网络开销；
+ * 接口层面的吞吐需用外部压测工具直接请求 /redis/reactive/get 等接口测量
+ * @author: zhangbing
+ * @create: 2026-10-18 16:00
+ **/
+@Log4j2
+@Service
+public class TemplateThroughputBenchmark {
+
+    public static final String BLOCKING = "blocking";
+    public static final String REACTIVE = "reactive";
+
+    private static final String BENCH_KEY = "bench:throughput";
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+    public List<ThroughputReport> compare(int seconds, int concurrency) throws Exception {
+        stringRedisTemplate.opsForValue().set(BENCH_KEY, "0123456789abcdef");
+        List<ThroughputReport> reports = new ArrayList<>(2);
+        reports.add(runBlocking(seconds, concurrency));
+        reports.add(runReactive(seconds, concurrency));
+        return reports;
+    }
+
+    private ThroughputReport runBlocking(int seconds, int concurrency) throws Exception {
+        LongAdder operations = new LongAdder();
+        LongAdder errors = new LongAdder();
+        ExecutorService threads = Executors.newFixedThreadPool(concurrency);
+        Measurement measurement = new Measurement();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        try {
+            List<Future<?>> futures = new ArrayList<>(concurrency);
+            for (int i = 0; i < concurrency; i++) {
+                futures.add(threads.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            stringRedisTemplate.opsForValue().get(BENCH_KEY);
+                            operations.increment();
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+        return measurement.finish(BLOCKING, concurrency, operations.sum(), errors.sum());
+    }
+
+    private ThroughputReport runReactive(int seconds, int concurrency) {
+        LongAdder errors = new LongAdder();
+        Measurement measurement = new Measurement();
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        Long operations = Flux.range(0, Integer.MAX_VALUE)
+                .takeWhile(i -> System.nanoTime() < deadline)
+                .flatMap(i -> reactiveStringRedisTemplate.opsForValue().get(BENCH_KEY)
+                        .defaultIfEmpty("")
+                        .onErrorResume(e -> {
+                            errors.increment();
+                            return Mono.empty();
+                        }), concurrency)
+                .count()
+                .block(Duration.ofSeconds(seconds + 30L));
+        return measurement.finish(REACTIVE, concurrency, operations == null ? 0 : operations, errors.sum());
+    }
+
+    /**
+     * 记录开始时的时间、进程CPU时间和线程数峰值
+     */
+    private static final class Measurement {
+        private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        private final long startNanos = System.nanoTime();
+        private final long startCpu;
+
+        Measurement() {
+            threadBean.resetPeakThreadCount();
+            startCpu = processCpuNanos();
+        }
+
+        ThroughputReport finish(String mode, int concurrency, long operations, long errors) {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            long endCpu = processCpuNanos();
+            ThroughputReport report = new ThroughputReport();
+            report.setMode(mode);
+            report.setConcurrency(concurrency);
+            report.setDurationMillis(elapsedNanos / 1_000_000);
+            report.setOperations(operations);
+            report.setErrors(errors);
+            report.setOpsPerSecond(operations * 1e9 / elapsedNanos);
+            report.setAvailableProcessors(Runtime.getRuntime().availableProcessors());
+            if (startCpu >= 0 && endCpu >= 0) {
+                long cpuNanos = Math.max(1, endCpu - startCpu);
+                report.setCpuMillis(cpuNanos / 1_000_000);
+                report.setOpsPerCpuSecond(operations * 1e9 / cpuNanos);
+            } else {
+                report.setCpuMillis(-1);
+                report.setOpsPerCpuSecond(-1);
+            }
+            report.setPeakThreads(threadBean.getPeakThreadCount());
+            log.info("吞吐对比 {}: {}", mode, report);
+            return report;
+        }
+
+        private static long processCpuNanos() {
+            OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+            if (os instanceof com.sun.management.OperatingSystemMXBean) {
+                return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+            }
+            return -1;
+        }
+    }
+}
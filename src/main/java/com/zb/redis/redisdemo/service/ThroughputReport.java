@@ -0,0 +1,35 @@
+package com.zb.redis.redisdemo.service;
+
+import lombok.Data;
+
+/**
+ * @description: 阻塞/响应式读吞吐对比结果
+ * @author: zhangbing
+ * @create: 2026-10-18 15:50
+ **/
+@Data
+public class ThroughputReport {
+
+    /**
+     * blocking 或 reactive
+     */
+    private String mode;
+    private int concurrency;
+    private long durationMillis;
+    private long operations;
+    private long errors;
+    private double opsPerSecond;
+
+    /**
+     * 测试期间进程消耗的CPU时间，以及每CPU秒完成的操作数，取不到进程CPU时间时为-1
+     */
+    private long cpuMillis;
+    private double opsPerCpuSecond;
+
+    private int availableProcessors;
+
+    /**
+     * 测试期间活跃线程数峰值
+     */
+    private int peakThreads;
+}
@@ -0,0 +1,36 @@
+package com.zb.redis.redisdemo.service.cache;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+/**
+ * @description: 模拟耗时计算的缓存演示，sync = true时提前刷新和返回旧值在后台进行
+ * @author: zhangbing
+ * @create: 2026-10-20 15:10
+ **/
+@Service
+public class CacheDemoService {
+
+    @Cacheable(cacheNames = "demo", sync = true)
+    public String compute(String key, long costMillis) {
+        return slowCompute(key, costMillis);
+    }
+
+    /**
+     * 非sync读取，提前刷新表现为某一次调用重新计算
+     */
+    @Cacheable(cacheNames = "demo-inline")
+    public String computeInline(String key, long costMillis) {
+        return slowCompute(key, costMillis);
+    }
+
+    private String slowCompute(String key, long costMillis) {
+        try {
+            Thread.sleep(costMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("计算被中断", e);
+        }
+        return key + "@" + System.currentTimeMillis();
+    }
+}
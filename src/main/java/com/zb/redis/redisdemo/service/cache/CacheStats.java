@@ -0,0 +1,39 @@
+package com.zb.redis.redisdemo.service.cache;
+
+import lombok.Data;
+
+/**
+ * @description: 单个缓存的命中及刷新统计
+ * @author: zhangbing
+ * @create: 2026-10-20 14:15
+ **/
+@Data
+public class CacheStats {
+
+    private String name;
+    private long ttlSeconds;
+    private long staleWhileRevalidateSeconds;
+    private double beta;
+    private int maxConcurrentRefreshes;
+
+    private long hits;
+    private long misses;
+
+    /**
+     * 逻辑过期后返回旧值的次数
+     */
+    private long staleHits;
+
+    /**
+     * 按XFetch提前触发刷新的次数，没有加载函数的读取(非sync的@Cacheable)表现为一次未命中
+     */
+    private long earlyRefreshes;
+    private long refreshes;
+    private long refreshFailures;
+
+    /**
+     * 并发刷新数达到上限或队列已满而放弃的刷新
+     */
+    private long refreshesRejected;
+    private int refreshing;
+}
@@ -0,0 +1,24 @@
+package com.zb.redis.redisdemo.service.cache;
+
+import lombok.Data;
+
+/**
+ * @description: 缓存在redis中的实际内容，除了值以外还记录计算耗时和逻辑过期时间，用于判断是否提前刷新
+ * @author: zhangbing
+ * @create: 2026-10-20 14:10
+ **/
+@Data
+public class CachedValue {
+
+    private Object value;
+
+    /**
+     * 计算该值的耗时，单位毫秒
+     */
+    private long computeMillis;
+
+    /**
+     * 逻辑过期时间戳，redis中实际的过期时间还要加上允许返回旧值的时间
+     */
+    private long expiresAt;
+}
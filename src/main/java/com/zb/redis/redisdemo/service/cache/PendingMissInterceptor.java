@@ -0,0 +1,28 @@
+package com.zb.redis.redisdemo.service.cache;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * @description: 包在@Cacheable方法的缓存拦截器外层，调用结束后恢复XFetchCache的未命中记录
+ * 方法抛出异常时缓存不会put，未命中记录在这里清除，不会留在线程池线程里被后面无关的put误用；
+ * 嵌套的@Cacheable调用结束后恢复外层调用的记录
+ * @author: zhangbing
+ * @create: 2026-10-20 15:10
+ **/
+public class PendingMissInterceptor implements MethodInterceptor {
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        XFetchCache.PendingMiss previous = XFetchCache.PENDING_MISS.get();
+        try {
+            return invocation.proceed();
+        } finally {
+            if (previous == null) {
+                XFetchCache.PENDING_MISS.remove();
+            } else {
+                XFetchCache.PENDING_MISS.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.zb.redis.redisdemo.service.cache;
+
+import com.zb.redis.redisdemo.config.SingleFlightProperties;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * @description: 合并缓存未命中加载的cache-aside读取
+ * 同一个key在本机同时只有一个线程调用加载函数，其余线程等待同一个future；
+ * 开启租约时加载前先在redis中SET NX PX抢租约，没抢到说明其它节点正在加载，轮询缓存直到对方写入或等待超时
+ * @author: zhangbing
+ * @create: 2026-10-19 22:20
+ **/
+@Log4j2
+@Service
+public class SingleFlightCache implements InitializingBean {
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0", Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private SingleFlightProperties properties;
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+
+    private final String token = UUID.randomUUID().toString();
+
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong localCoalesced = new AtomicLong();
+    private final AtomicLong remoteCoalesced = new AtomicLong();
+    private final AtomicLong leaseTimeouts = new AtomicLong();
+
+    @Override
+    public void afterPropertiesSet() {
+        if (meterRegistry == null) {
+            return;
+        }
+        registerCounter("hit", hits);
+        registerCounter("load", loads);
+        registerCounter("load_failure", loadFailures);
+        registerCounter("local_coalesced", localCoalesced);
+        registerCounter("remote_coalesced", remoteCoalesced);
+        registerCounter("lease_timeout", leaseTimeouts);
+        Gauge.builder("redis.single.flight.in.flight", inFlight, ConcurrentHashMap::size).register(meterRegistry);
+    }
+
+    /**
+     * 读取缓存，未命中时加载并写入
+     *
+     * @param key    缓存key
+     * @param ttl    写入缓存的过期时间
+     * @param unit   时间单位
+     * @param loader 加载函数，返回null时不写缓存
+     * @return 缓存值或加载结果
+     */
+    public String get(String key, long ttl, TimeUnit unit, Supplier<String> loader) {
+        requests.incrementAndGet();
+        String value = stringRedisTemplate.opsForValue().get(key);
+        if (value != null) {
+            hits.incrementAndGet();
+            return value;
+        }
+        CompletableFuture<String> future = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            localCoalesced.incrementAndGet();
+            return await(key, existing);
+        }
+        try {
+            value = loadWithLease(key, ttl, unit, loader);
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    public SingleFlightStats getStats() {
+        SingleFlightStats stats = new SingleFlightStats();
+        stats.setInFlight(inFlight.size());
+        stats.setRequests(requests.get());
+        stats.setHits(hits.get());
+        stats.setMisses(requests.get() - hits.get());
+        stats.setLoads(loads.get());
+        stats.setLoadFailures(loadFailures.get());
+        stats.setLocalCoalesced(localCoalesced.get());
+        stats.setRemoteCoalesced(remoteCoalesced.get());
+        stats.setLeaseTimeouts(leaseTimeouts.get());
+        return stats;
+    }
+
+    private String loadWithLease(String key, long ttl, TimeUnit unit, Supplier<String> loader) {
+        long leaseMillis = properties.getLeaseMillis();
+        if (leaseMillis <= 0) {
+            //读缓存和登记inFlight之间上一个加载者可能刚写完缓存并退出
+            String value = stringRedisTemplate.opsForValue().get(key);
+            if (value != null) {
+                localCoalesced.incrementAndGet();
+                return value;
+            }
+            return load(key, ttl, unit, loader);
+        }
+        String leaseKey = properties.getLeaseKeyPrefix() + key;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getWaitMillis());
+        while (true) {
+            Boolean acquired = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(leaseKey, token, leaseMillis, TimeUnit.MILLISECONDS);
+            if (Boolean.TRUE.equals(acquired)) {
+                try {
+                    //抢租约前其它节点可能刚好写完
+                    String value = stringRedisTemplate.opsForValue().get(key);
+                    if (value != null) {
+                        remoteCoalesced.incrementAndGet();
+                        return value;
+                    }
+                    return load(key, ttl, unit, loader);
+                } finally {
+                    releaseLease(leaseKey);
+                }
+            }
+            sleep(properties.getPollIntervalMillis());
+            String value = stringRedisTemplate.opsForValue().get(key);
+            if (value != null) {
+                remoteCoalesced.incrementAndGet();
+                return value;
+            }
+            if (System.nanoTime() - deadline >= 0) {
+                log.warn("等待其它节点加载超时，自行加载，key={}", key);
+                leaseTimeouts.incrementAndGet();
+                return load(key, ttl, unit, loader);
+            }
+        }
+    }
+
+    private String load(String key, long ttl, TimeUnit unit, Supplier<String> loader) {
+        loads.incrementAndGet();
+        String value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            loadFailures.incrementAndGet();
+            throw e;
+        }
+        if (value != null) {
+            stringRedisTemplate.opsForValue().set(key, value, ttl, unit);
+        }
+        return value;
+    }
+
+    private void releaseLease(String leaseKey) {
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(leaseKey), token);
+        } catch (Exception e) {
+            //租约会自动过期，释放失败只是让其它节点多等一会
+            log.error("释放加载租约失败，key={}:{}", leaseKey, e.getMessage());
+        }
+    }
+
+    /**
+     * 本机加载者可能先轮询等待其它节点的租约，再自行加载，等待时间需要覆盖这两段
+     */
+    private String await(String key, CompletableFuture<String> future) {
+        long timeout = properties.getLoadTimeoutMillis();
+        if (properties.getLeaseMillis() > 0) {
+            timeout += properties.getWaitMillis();
+        }
+        try {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待加载结果时被中断:" + key, e);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("等待加载结果超时:" + key, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("加载失败:" + key, cause);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待其它节点加载时被中断", e);
+        }
+    }
+
+    private void registerCounter(String result, AtomicLong counter) {
+        FunctionCounter.builder("redis.single.flight", counter, AtomicLong::get)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
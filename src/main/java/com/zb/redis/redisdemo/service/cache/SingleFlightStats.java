@@ -0,0 +1,42 @@
+package com.zb.redis.redisdemo.service.cache;
+
+import lombok.Data;
+
+/**
+ * @description: 合并加载统计
+ * @author: zhangbing
+ * @create: 2026-10-19 22:15
+ **/
+@Data
+public class SingleFlightStats {
+
+    /**
+     * 当前本机正在加载的key数量
+     */
+    private int inFlight;
+
+    private long requests;
+    private long hits;
+    private long misses;
+
+    /**
+     * 实际调用加载函数的次数
+     */
+    private long loads;
+    private long loadFailures;
+
+    /**
+     * 等待本机同一个key的加载结果而没有自己加载的次数
+     */
+    private long localCoalesced;
+
+    /**
+     * 其它节点持有加载租约，轮询到其写入的缓存而没有自己加载的次数
+     */
+    private long remoteCoalesced;
+
+    /**
+     * 等待其它节点加载超时后自行加载的次数
+     */
+    private long leaseTimeouts;
+}
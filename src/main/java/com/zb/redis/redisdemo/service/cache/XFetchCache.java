@@ -0,0 +1,285 @@
+package com.zb.redis.redisdemo.service.cache;
+
+import com.zb.redis.redisdemo.config.RedisCacheProperties;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 带提前刷新的缓存，包装RedisCache，redis中保存的是CachedValue
+ * 读取时按XFetch算法 now - 计算耗时 * beta * ln(random) >= 逻辑过期时间 决定是否提前刷新，计算越慢、越接近过期越容易触发，
+ * 热点key会在过期前被某一次读取刷新，不会在同一时刻全部失效；
+ * 通过get(key, loader)读取(@Cacheable(sync = true))时刷新在后台执行，当前调用仍返回旧值，逻辑过期后在允许的时间内也返回旧值；
+ * 通过get(key)读取时没有加载函数，被选中提前刷新的那一次调用按未命中处理，由调用方重新计算
+ * @author: zhangbing
+ * @create: 2026-10-20 14:30
+ **/
+@Log4j2
+public class XFetchCache implements Cache {
+
+    private final Cache delegate;
+    private final RedisCacheProperties.Policy policy;
+    private final Executor refreshExecutor;
+    private final Semaphore refreshPermits;
+
+    /**
+     * 本机正在后台刷新的key
+     */
+    private final ConcurrentHashMap<Object, Boolean> refreshing = new ConcurrentHashMap<>();
+
+    /**
+     * 本机正在同步加载的key，同一个key未命中时只加载一次
+     */
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * 非sync的@Cacheable先get未命中，再执行方法，最后在同一个线程里put，用来估算计算耗时；
+     * 方法抛出异常时没有put，由PendingMissInterceptor在调用结束时清除
+     */
+    static final ThreadLocal<PendingMiss> PENDING_MISS = new ThreadLocal<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong earlyRefreshes = new AtomicLong();
+    private final AtomicLong refreshes = new AtomicLong();
+    private final AtomicLong refreshFailures = new AtomicLong();
+    private final AtomicLong refreshesRejected = new AtomicLong();
+
+    public XFetchCache(Cache delegate, RedisCacheProperties.Policy policy, Executor refreshExecutor) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.refreshExecutor = refreshExecutor;
+        this.refreshPermits = new Semaphore(Math.max(1, policy.getMaxConcurrentRefreshes()));
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        long now = System.currentTimeMillis();
+        if (wrapper == null) {
+            return miss(key, now);
+        }
+        if (!(wrapper.get() instanceof CachedValue)) {
+            hits.incrementAndGet();
+            return wrapper;
+        }
+        CachedValue cached = (CachedValue) wrapper.get();
+        if (now >= cached.getExpiresAt()) {
+            return miss(key, now);
+        }
+        if (shouldRefreshEarly(cached, now)) {
+            earlyRefreshes.incrementAndGet();
+            return miss(key, now);
+        }
+        hits.incrementAndGet();
+        return new SimpleValueWrapper(cached.getValue());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper == null ? null : wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("缓存值类型不是" + type.getName() + ":" + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = delegate.get(key);
+        long now = System.currentTimeMillis();
+        if (wrapper != null && wrapper.get() instanceof CachedValue) {
+            CachedValue cached = (CachedValue) wrapper.get();
+            if (now < cached.getExpiresAt()) {
+                hits.incrementAndGet();
+                if (shouldRefreshEarly(cached, now)) {
+                    earlyRefreshes.incrementAndGet();
+                    refreshAsync(key, valueLoader);
+                }
+                return (T) cached.getValue();
+            }
+            //redis中的过期时间包含了允许返回旧值的时间，还能读到说明在该时间内
+            if (policy.getStaleWhileRevalidateSeconds() > 0) {
+                staleHits.incrementAndGet();
+                refreshAsync(key, valueLoader);
+                return (T) cached.getValue();
+            }
+        } else if (wrapper != null) {
+            hits.incrementAndGet();
+            return (T) wrapper.get();
+        }
+        misses.incrementAndGet();
+        return (T) loadOnce(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        PendingMiss miss = PENDING_MISS.get();
+        long computeMillis = 0;
+        if (miss != null) {
+            PENDING_MISS.remove();
+            if (miss.cache == this && Objects.equals(miss.key, key)) {
+                computeMillis = System.currentTimeMillis() - miss.at;
+            }
+        }
+        delegate.put(key, wrap(value, computeMillis));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, wrap(value, 0));
+        if (existing != null && existing.get() instanceof CachedValue) {
+            return new SimpleValueWrapper(((CachedValue) existing.get()).getValue());
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    public CacheStats getStats() {
+        CacheStats stats = new CacheStats();
+        stats.setName(getName());
+        stats.setTtlSeconds(policy.getTtlSeconds());
+        stats.setStaleWhileRevalidateSeconds(policy.getStaleWhileRevalidateSeconds());
+        stats.setBeta(policy.getBeta());
+        stats.setMaxConcurrentRefreshes(policy.getMaxConcurrentRefreshes());
+        stats.setHits(hits.get());
+        stats.setMisses(misses.get());
+        stats.setStaleHits(staleHits.get());
+        stats.setEarlyRefreshes(earlyRefreshes.get());
+        stats.setRefreshes(refreshes.get());
+        stats.setRefreshFailures(refreshFailures.get());
+        stats.setRefreshesRejected(refreshesRejected.get());
+        stats.setRefreshing(refreshing.size());
+        return stats;
+    }
+
+    private ValueWrapper miss(Object key, long now) {
+        misses.incrementAndGet();
+        PENDING_MISS.set(new PendingMiss(this, key, now));
+        return null;
+    }
+
+    private boolean shouldRefreshEarly(CachedValue cached, long now) {
+        if (policy.getBeta() <= 0 || cached.getComputeMillis() <= 0) {
+            return false;
+        }
+        double random = 1 - ThreadLocalRandom.current().nextDouble();
+        return now - cached.getComputeMillis() * policy.getBeta() * Math.log(random) >= cached.getExpiresAt();
+    }
+
+    private Object loadOnce(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = loading.putIfAbsent(key, future);
+        if (existing != null) {
+            try {
+                return existing.get(policy.getLoadTimeoutMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ValueRetrievalException(key, valueLoader, e);
+            } catch (TimeoutException e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            } catch (ExecutionException e) {
+                throw new ValueRetrievalException(key, valueLoader, e.getCause());
+            }
+        }
+        try {
+            Object value = load(key, valueLoader);
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            //Error也要通知等待者，否则它们会一直等到超时
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        long start = System.currentTimeMillis();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        delegate.put(key, wrap(value, System.currentTimeMillis() - start));
+        return value;
+    }
+
+    private void refreshAsync(Object key, Callable<?> valueLoader) {
+        if (refreshing.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+        if (!refreshPermits.tryAcquire()) {
+            refreshing.remove(key);
+            refreshesRejected.incrementAndGet();
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, valueLoader);
+                    refreshes.incrementAndGet();
+                } catch (Exception e) {
+                    refreshFailures.incrementAndGet();
+                    log.error("缓存{}后台刷新失败，key={}", getName(), key, e);
+                } finally {
+                    refreshPermits.release();
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshPermits.release();
+            refreshing.remove(key);
+            refreshesRejected.incrementAndGet();
+        }
+    }
+
+    private CachedValue wrap(Object value, long computeMillis) {
+        CachedValue cached = new CachedValue();
+        cached.setValue(value);
+        cached.setComputeMillis(computeMillis);
+        cached.setExpiresAt(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(policy.getTtlSeconds()));
+        return cached;
+    }
+
+    static final class PendingMiss {
+        final XFetchCache cache;
+        final Object key;
+        final long at;
+
+        PendingMiss(XFetchCache cache, Object key, long at) {
+            this.cache = cache;
+            this.key = key;
+            this.at = at;
+        }
+    }
+}
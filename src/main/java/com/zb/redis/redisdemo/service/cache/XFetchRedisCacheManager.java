@@ -0,0 +1,62 @@
+package com.zb.redis.redisdemo.service.cache;
+
+import com.zb.redis.redisdemo.config.RedisCacheProperties;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @description: 创建的每个RedisCache都包装为XFetchCache，所有缓存共用一个后台刷新线程池
+ * @author: zhangbing
+ * @create: 2026-10-20 14:50
+ **/
+public class XFetchRedisCacheManager extends RedisCacheManager implements DisposableBean {
+
+    private final RedisCacheProperties properties;
+    private final ThreadPoolExecutor refreshExecutor;
+
+    public XFetchRedisCacheManager(RedisCacheWriter cacheWriter, RedisCacheConfiguration defaultCacheConfiguration,
+                                   Map<String, RedisCacheConfiguration> initialCacheConfigurations,
+                                   RedisCacheProperties properties) {
+        super(cacheWriter, defaultCacheConfiguration, initialCacheConfigurations, true);
+        this.properties = properties;
+        AtomicInteger index = new AtomicInteger();
+        this.refreshExecutor = new ThreadPoolExecutor(properties.getRefreshThreads(), properties.getRefreshThreads(),
+                60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(properties.getRefreshQueueCapacity()), r -> {
+            Thread thread = new Thread(r, "cache-refresh-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    protected Cache decorateCache(Cache cache) {
+        return new XFetchCache(super.decorateCache(cache), properties.policy(cache.getName()), refreshExecutor);
+    }
+
+    public List<CacheStats> getStats() {
+        List<CacheStats> stats = new ArrayList<>();
+        for (String name : getCacheNames()) {
+            Cache cache = getCache(name);
+            if (cache instanceof XFetchCache) {
+                stats.add(((XFetchCache) cache).getStats());
+            }
+        }
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,329 @@
+package com.zb.redis.redisdemo.service.excel;
+
+import com.zb.redis.redisdemo.config.ExcelExportProperties;
+import com.zb.redis.redisdemo.utils.ExcelFileUtil;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @description: 异步excel导出
+ * 任务id由报表名称和排序后的参数计算得到，相同的导出请求只会构建一次，后来的请求直接复用正在构建或已完成的结果；
+ * 构建时用SXSSF流式生成xlsx，输出按块写入redis，任务状态也保存在redis中，集群内任意节点都可以查询进度和分段下载；
+ * 提交时生成buildToken，块按buildToken分开存放，排队和构建期间定时写心跳，心跳超时的任务才允许被重新提交，
+ * 状态的所有更新都校验buildToken，被接管的旧构建不会覆盖新构建的状态
+ * @author: zhangbing
+ * @create: 2026-10-19 14:45
+ **/
+@Log4j2
+@Service
+public class ExcelExportService implements DisposableBean {
+
+    private static final String STATUS_KEY_PREFIX = "excel:export:";
+    private static final String CHUNK_KEY_SUFFIX = ":chunk:";
+
+    /**
+     * 状态不存在、构建失败或心跳超时时抢占任务，写入新的buildToken，返回1表示抢占成功
+     */
+    private static final RedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "local status = redis.call('hget', KEYS[1], 'status') " +
+            "if status then " +
+            "  if status == 'DONE' then return 0 end " +
+            "  local heartbeat = tonumber(redis.call('hget', KEYS[1], 'heartbeatAt')) or 0 " +
+            "  if status ~= 'FAILED' and heartbeat >= tonumber(ARGV[3]) then return 0 end " +
+            "  redis.call('del', KEYS[1]) " +
+            "end " +
+            "redis.call('hmset', KEYS[1], 'status', 'PENDING', 'buildToken', ARGV[1], 'report', ARGV[4], " +
+            "  'chunkSize', ARGV[5], 'createdAt', ARGV[2], 'updatedAt', ARGV[2], 'heartbeatAt', ARGV[2]) " +
+            "redis.call('expire', KEYS[1], ARGV[6]) " +
+            "return 1", Long.class);
+
+    /**
+     * buildToken一致时更新字段并续期，ARGV: buildToken, ttl, 字段, 值, ...
+     */
+    private static final RedisScript<Long> UPDATE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('hget', KEYS[1], 'buildToken') ~= ARGV[1] then return 0 end " +
+            "redis.call('hmset', KEYS[1], unpack(ARGV, 3)) " +
+            "redis.call('expire', KEYS[1], ARGV[2]) " +
+            "return 1", Long.class);
+
+    /**
+     * 完成时把所有块和状态的过期时间一起重置，块已过期返回-1，buildToken不一致返回0
+     * KEYS: 状态, 块...；ARGV: buildToken, ttl, now, 字段, 值, ...
+     */
+    private static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('hget', KEYS[1], 'buildToken') ~= ARGV[1] then return 0 end " +
+            "for i = 2, #KEYS do " +
+            "  if redis.call('expire', KEYS[i], ARGV[2]) == 0 then return -1 end " +
+            "end " +
+            "redis.call('hmset', KEYS[1], 'status', 'DONE', 'updatedAt', ARGV[3], 'heartbeatAt', ARGV[3], " +
+            "  unpack(ARGV, 4)) " +
+            "redis.call('expire', KEYS[1], ARGV[2]) " +
+            "return 1", Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ExcelExportProperties properties;
+
+    @Autowired
+    private List<ExcelReportProvider> providers;
+
+    private final Map<String, ExcelReportProvider> providersByName = new HashMap<>();
+
+    /**
+     * 本节点排队中和构建中的任务，jobId -> buildToken
+     */
+    private final Map<String, String> activeBuilds = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        for (ExcelReportProvider provider : providers) {
+            providersByName.put(provider.getName(), provider);
+        }
+        AtomicInteger index = new AtomicInteger();
+        executor = new ThreadPoolExecutor(properties.getWorkers(), properties.getWorkers(), 60L, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()), r -> {
+            Thread thread = new Thread(r, "excel-export-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public Set<String> getReportNames() {
+        return providersByName.keySet();
+    }
+
+    /**
+     * 提交导出任务，已有相同任务在排队、构建中或已完成时直接返回该任务的状态
+     *
+     * @param report 报表名称
+     * @param params 报表参数
+     * @return 任务状态
+     */
+    public ExportJobStatus submit(String report, Map<String, String> params) {
+        ExcelReportProvider provider = providersByName.get(report);
+        if (provider == null) {
+            throw new IllegalArgumentException("报表不存在:" + report);
+        }
+        Map<String, String> sortedParams = new TreeMap<>(params);
+        String jobId = DigestUtils.sha1Hex(report + sortedParams);
+        String statusKey = statusKey(jobId);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            long now = System.currentTimeMillis();
+            String buildToken = UUID.randomUUID().toString();
+            long staleBefore = now - TimeUnit.SECONDS.toMillis(properties.getStaleAfterSeconds());
+            Long claimed = stringRedisTemplate.execute(CLAIM_SCRIPT, Collections.singletonList(statusKey),
+                    buildToken, String.valueOf(now), String.valueOf(staleBefore), report,
+                    String.valueOf(properties.getChunkSize()), String.valueOf(properties.getTtlSeconds()));
+            if (claimed != null && claimed == 1L) {
+                activeBuilds.put(jobId, buildToken);
+                try {
+                    executor.execute(() -> build(jobId, buildToken, provider, sortedParams));
+                } catch (RejectedExecutionException e) {
+                    activeBuilds.remove(jobId, buildToken);
+                    updateStatus(jobId, buildToken, ExportJobStatus.FAILED, "error", "导出任务已满");
+                    throw new IllegalStateException("导出任务已满，请稍后再试");
+                }
+                return getStatus(jobId);
+            }
+            ExportJobStatus existing = getStatus(jobId);
+            if (existing != null) {
+                return existing;
+            }
+            // 状态刚好过期，重新抢占
+        }
+        throw new IllegalStateException("导出任务提交冲突，请稍后再试");
+    }
+
+    public ExportJobStatus getStatus(String jobId) {
+        HashOperations<String, String, String> hashOps = stringRedisTemplate.opsForHash();
+        Map<String, String> fields = hashOps.entries(statusKey(jobId));
+        if (fields.isEmpty() || fields.get("status") == null) {
+            return null;
+        }
+        ExportJobStatus status = new ExportJobStatus();
+        status.setJobId(jobId);
+        status.setReport(fields.get("report"));
+        status.setStatus(fields.get("status"));
+        status.setFileName(fields.get("fileName"));
+        status.setSize(NumberUtils.toLong(fields.get("size")));
+        status.setChunks(NumberUtils.toInt(fields.get("chunks")));
+        status.setChunkSize(NumberUtils.toInt(fields.get("chunkSize")));
+        status.setCreatedAt(NumberUtils.toLong(fields.get("createdAt")));
+        status.setUpdatedAt(NumberUtils.toLong(fields.get("updatedAt")));
+        status.setHeartbeatAt(NumberUtils.toLong(fields.get("heartbeatAt")));
+        status.setBuildToken(fields.get("buildToken"));
+        status.setError(fields.get("error"));
+        return status;
+    }
+
+    /**
+     * 把已完成任务的 [start, end] 字节区间写到输出流，逐块从redis读取，内存中只保留一个块
+     *
+     * @param status 已完成的任务状态
+     * @param start  起始字节，包含
+     * @param end    结束字节，包含
+     * @param out    输出流
+     * @throws IOException
+     */
+    public void writeRange(ExportJobStatus status, long start, long end, OutputStream out) throws IOException {
+        int chunkSize = status.getChunkSize();
+        String chunkPrefix = chunkKeyPrefix(status.getJobId(), status.getBuildToken());
+        int first = (int) (start / chunkSize);
+        int last = (int) (end / chunkSize);
+        for (int i = first; i <= last; i++) {
+            byte[] key = RedisChunkOutputStream.chunkKey(chunkPrefix, i).getBytes(StandardCharsets.UTF_8);
+            byte[] chunk = stringRedisTemplate.execute((RedisCallback<byte[]>) connection -> connection.get(key));
+            if (chunk == null) {
+                throw new IOException("导出结果已过期:" + status.getJobId());
+            }
+            long chunkStart = (long) i * chunkSize;
+            int from = (int) Math.max(0, start - chunkStart);
+            int to = (int) Math.min(chunk.length, end - chunkStart + 1);
+            out.write(chunk, from, to - from);
+        }
+    }
+
+    /**
+     * 为本节点排队中和构建中的任务续写心跳，任务已被其它节点重新提交时停止续写
+     */
+    @Scheduled(fixedDelayString = "${excel.export.heartbeat-millis:10000}")
+    public void heartbeat() {
+        for (Map.Entry<String, String> entry : activeBuilds.entrySet()) {
+            try {
+                if (!updateStatus(entry.getKey(), entry.getValue())) {
+                    activeBuilds.remove(entry.getKey(), entry.getValue());
+                }
+            } catch (Exception e) {
+                log.warn("导出任务{}心跳失败:{}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    private void build(String jobId, String buildToken, ExcelReportProvider provider, Map<String, String> params) {
+        if (!updateStatus(jobId, buildToken, ExportJobStatus.RUNNING)) {
+            activeBuilds.remove(jobId, buildToken);
+            log.info("导出任务{}排队期间已被重新提交，放弃本次构建", jobId);
+            return;
+        }
+        long start = System.currentTimeMillis();
+        String chunkPrefix = chunkKeyPrefix(jobId, buildToken);
+        RedisChunkOutputStream out = new RedisChunkOutputStream(stringRedisTemplate, chunkPrefix,
+                properties.getChunkSize(), properties.getTtlSeconds(), size -> {
+            if (!updateStatus(jobId, buildToken, ExportJobStatus.RUNNING, "size", String.valueOf(size))) {
+                throw new IllegalStateException("导出任务已被重新提交，停止本次构建");
+            }
+        });
+        SXSSFWorkbook workbook = null;
+        try (CloseableIterator<String[]> rows = provider.rows(params)) {
+            workbook = ExcelFileUtil.exportStreaming(provider.getName(), provider.getTitles(params), rows);
+            workbook.write(out);
+            out.close();
+
+            List<String> keys = new ArrayList<>(out.getChunks() + 1);
+            keys.add(statusKey(jobId));
+            keys.addAll(chunkKeys(chunkPrefix, out.getChunks()));
+            Long completed = stringRedisTemplate.execute(COMPLETE_SCRIPT, keys, buildToken,
+                    String.valueOf(properties.getTtlSeconds()), String.valueOf(System.currentTimeMillis()),
+                    "fileName", provider.getName() + "-" + jobId.substring(0, 8) + ".xlsx",
+                    "size", String.valueOf(out.getSize()),
+                    "chunks", String.valueOf(out.getChunks()));
+            if (completed == null || completed == 0L) {
+                throw new IllegalStateException("导出任务已被重新提交，丢弃本次结果");
+            }
+            if (completed < 0) {
+                throw new IllegalStateException("构建耗时超过结果过期时间，部分块已过期");
+            }
+            log.info("导出任务{}完成，报表:{}，大小:{}字节，{}块，耗时:{}ms", jobId, provider.getName(),
+                    out.getSize(), out.getChunks(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("导出任务{}失败", jobId, e);
+            updateStatus(jobId, buildToken, ExportJobStatus.FAILED,
+                    "error", StringUtils.defaultString(e.getMessage(), e.getClass().getName()));
+            stringRedisTemplate.delete(chunkKeys(chunkPrefix, out.getChunks()));
+        } finally {
+            activeBuilds.remove(jobId, buildToken);
+            if (workbook != null) {
+                workbook.dispose();
+            }
+        }
+    }
+
+    /**
+     * 只有状态中的buildToken仍是本次构建时才更新，同时续写心跳和状态的过期时间
+     *
+     * @param status      新状态，为null时只续写心跳
+     * @param fieldValues 其它要更新的字段，按字段名、值交替排列
+     * @return 是否更新成功，失败说明任务已过期或被重新提交
+     */
+    private boolean updateStatus(String jobId, String buildToken, String status, String... fieldValues) {
+        List<String> args = new ArrayList<>(fieldValues.length + 7);
+        args.add(buildToken);
+        args.add(String.valueOf(properties.getTtlSeconds()));
+        String now = String.valueOf(System.currentTimeMillis());
+        args.add("heartbeatAt");
+        args.add(now);
+        if (status != null) {
+            args.add("status");
+            args.add(status);
+            args.add("updatedAt");
+            args.add(now);
+        }
+        args.addAll(Arrays.asList(fieldValues));
+        Long updated = stringRedisTemplate.execute(UPDATE_SCRIPT, Collections.singletonList(statusKey(jobId)),
+                args.toArray());
+        return updated != null && updated == 1L;
+    }
+
+    private boolean updateStatus(String jobId, String buildToken) {
+        return updateStatus(jobId, buildToken, null);
+    }
+
+    private static List<String> chunkKeys(String chunkPrefix, int chunks) {
+        List<String> keys = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            keys.add(RedisChunkOutputStream.chunkKey(chunkPrefix, i));
+        }
+        return keys;
+    }
+
+    private static String statusKey(String jobId) {
+        return STATUS_KEY_PREFIX + jobId;
+    }
+
+    /**
+     * 每次构建的块放在各自的buildToken下，被重新提交的旧构建写出的块不会和新构建混在一起
+     */
+    private static String chunkKeyPrefix(String jobId, String buildToken) {
+        return STATUS_KEY_PREFIX + jobId + ":" + buildToken + CHUNK_KEY_SUFFIX;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,504 @@
+package com.zb.redis.redisdemo.service.excel;
+
+import com.zb.redis.redisdemo.config.ExcelImportProperties;
+import com.zb.redis.redisdemo.utils.ExcelFileUtil;
+import io.lettuce.core.*;
+import io.lettuce.core.api.async.RedisStreamAsyncCommands;
+import io.lettuce.core.models.stream.PendingMessage;
+import io.lettuce.core.models.stream.PendingParser;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * @description: 基于redis stream的excel异步导入队列
+ * 上传的文件按块存入redis，任务状态写入hash，再把任务id追加到stream；每个节点按配置启动若干消费线程，
+ * 同一个消费组内每条消息只投递给一个消费者，处理成功后XACK；
+ * 各节点定时用XCLAIM为自己处理中的消息续期，并认领超时未确认(处理节点宕机或处理失败)的消息重新处理，
+ * 投递次数超过上限的任务转入死信stream；文件存放在redis中，任务可以在任意节点处理，导入吞吐随节点数增加
+ * @author: zhangbing
+ * @create: 2026-10-20 16:30
+ **/
+@Log4j2
+@Service
+public class ExcelImportQueue implements DisposableBean {
+
+    private static final String STATUS_KEY_PREFIX = "excel:import:";
+    private static final String CHUNK_KEY_SUFFIX = ":chunk:";
+    private static final String JOB_ID = "jobId";
+
+    /**
+     * 单条stream命令的超时时间，单位秒
+     */
+    private static final long COMMAND_TIMEOUT_SECONDS = 10;
+
+    /**
+     * 单次检查的待确认消息数
+     */
+    private static final int CLAIM_BATCH_SIZE = 100;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ExcelImportProperties properties;
+
+    /**
+     * 节点标识，消费者名称为 节点标识-序号
+     */
+    private final String node = ManagementFactory.getRuntimeMXBean().getName();
+
+    /**
+     * 本节点认领到的消息，消费线程优先处理
+     */
+    private final BlockingQueue<Delivery> claimedDeliveries = new LinkedBlockingQueue<>();
+
+    /**
+     * 本节点处理中或已认领待处理的消息，按消息id索引，定时续期
+     */
+    private final ConcurrentHashMap<String, Delivery> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+
+    private volatile boolean running = true;
+    private volatile boolean groupReady;
+    private ExecutorService workers;
+
+    @PostConstruct
+    public void init() {
+        ensureGroup();
+        if (properties.getWorkers() <= 0) {
+            return;
+        }
+        workers = Executors.newFixedThreadPool(properties.getWorkers(), new ThreadFactory() {
+            private int index;
+
+            @Override
+            public synchronized Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "excel-import-" + (++index));
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        for (int i = 1; i <= properties.getWorkers(); i++) {
+            String consumer = node + "-" + i;
+            workers.execute(() -> consume(consumer));
+        }
+    }
+
+    /**
+     * 保存上传文件并提交导入任务
+     *
+     * @param file      xlsx文件
+     * @param keyPrefix key前缀，每行的key为keyPrefix + 行下标
+     * @param mode      HASH或STRING
+     * @param batchSize 每个pipeline批次的行数
+     * @return 任务状态
+     * @throws IOException
+     */
+    public ImportJobStatus submit(MultipartFile file, String keyPrefix, RedisRowSink.Mode mode, int batchSize)
+            throws IOException {
+        String jobId = UUID.randomUUID().toString().replace("-", "");
+        String statusKey = statusKey(jobId);
+        RedisChunkOutputStream out = new RedisChunkOutputStream(stringRedisTemplate, chunkKeyPrefix(jobId),
+                properties.getChunkSize(), properties.getTtlSeconds(), size -> {
+        });
+        try (InputStream in = file.getInputStream()) {
+            StreamUtils.copy(in, out);
+        }
+        out.close();
+
+        long now = System.currentTimeMillis();
+        Map<String, String> fields = new HashMap<>();
+        fields.put("fileName", StringUtils.defaultString(file.getOriginalFilename()));
+        fields.put("keyPrefix", keyPrefix);
+        fields.put("mode", mode.name());
+        fields.put("batchSize", String.valueOf(batchSize));
+        fields.put("status", ImportJobStatus.QUEUED);
+        fields.put("size", String.valueOf(out.getSize()));
+        fields.put("chunks", String.valueOf(out.getChunks()));
+        fields.put("attempts", "0");
+        fields.put("createdAt", String.valueOf(now));
+        fields.put("updatedAt", String.valueOf(now));
+        stringRedisTemplate.opsForHash().putAll(statusKey, fields);
+        stringRedisTemplate.expire(statusKey, properties.getTtlSeconds(), TimeUnit.SECONDS);
+
+        Map<byte[], byte[]> body = Collections.singletonMap(bytes(JOB_ID), bytes(jobId));
+        String messageId = execute(commands -> commands.xadd(bytes(properties.getStream()),
+                new XAddArgs().maxlen(properties.getMaxStreamLength()).approximateTrimming(), body));
+        stringRedisTemplate.opsForHash().put(statusKey, "messageId", messageId);
+        if (!groupReady) {
+            ensureGroup();
+        }
+        log.info("excel导入任务{}已提交，文件:{}，大小:{}字节，消息id:{}", jobId, file.getOriginalFilename(),
+                out.getSize(), messageId);
+        return getStatus(jobId);
+    }
+
+    public ImportJobStatus getStatus(String jobId) {
+        HashOperations<String, String, String> hashOps = stringRedisTemplate.opsForHash();
+        Map<String, String> fields = hashOps.entries(statusKey(jobId));
+        if (fields.isEmpty() || fields.get("status") == null) {
+            return null;
+        }
+        ImportJobStatus status = new ImportJobStatus();
+        status.setJobId(jobId);
+        status.setMessageId(fields.get("messageId"));
+        status.setFileName(fields.get("fileName"));
+        status.setKeyPrefix(fields.get("keyPrefix"));
+        status.setMode(fields.get("mode"));
+        status.setBatchSize(NumberUtils.toInt(fields.get("batchSize")));
+        status.setStatus(fields.get("status"));
+        status.setSize(NumberUtils.toLong(fields.get("size")));
+        status.setChunks(NumberUtils.toInt(fields.get("chunks")));
+        status.setAttempts(NumberUtils.toInt(fields.get("attempts")));
+        status.setWorker(fields.get("worker"));
+        status.setRows(NumberUtils.toLong(fields.get("rows")));
+        status.setBatches(NumberUtils.toLong(fields.get("batches")));
+        status.setElapsedMillis(NumberUtils.toLong(fields.get("elapsedMillis")));
+        status.setRowsPerSecond(NumberUtils.toDouble(fields.get("rowsPerSecond")));
+        status.setCreatedAt(NumberUtils.toLong(fields.get("createdAt")));
+        status.setUpdatedAt(NumberUtils.toLong(fields.get("updatedAt")));
+        status.setError(fields.get("error"));
+        return status;
+    }
+
+    public ImportQueueStats getStats() {
+        ImportQueueStats stats = new ImportQueueStats();
+        stats.setStreamLength(execute(commands -> commands.xlen(bytes(properties.getStream()))));
+        stats.setDeadLetters(execute(commands -> commands.xlen(bytes(properties.getDeadLetterStream()))));
+        if (groupReady) {
+            List<Object> summary = execute(commands -> commands.xpending(bytes(properties.getStream()),
+                    bytes(properties.getGroup())));
+            //摘要的第一项是待确认总数，没有待确认消息时其余各项为空，PendingParser无法解析
+            stats.setPending(summary.isEmpty() ? 0 : (Long) summary.get(0));
+        }
+        stats.setNode(node);
+        stats.setWorkers(Math.max(0, properties.getWorkers()));
+        stats.setProcessing(inFlight.size());
+        stats.setProcessed(processed.get());
+        stats.setFailed(failed.get());
+        stats.setClaimed(claimed.get());
+        stats.setDeadLettered(deadLettered.get());
+        stats.setRows(rows.get());
+        return stats;
+    }
+
+    /**
+     * 为本节点处理中的消息续期，认领其它消费者超时未确认的消息
+     */
+    @Scheduled(fixedDelayString = "${excel.import.claim-interval-millis:10000}")
+    public void reclaim() {
+        if (!running || properties.getWorkers() <= 0 || !groupReady && !ensureGroup()) {
+            return;
+        }
+        byte[] stream = bytes(properties.getStream());
+        try {
+            for (Delivery delivery : inFlight.values()) {
+                //XCLAIM给自己会把空闲时间清零，指定投递次数避免续期被计为重新投递
+                execute(commands -> commands.xclaim(stream, delivery.consumer,
+                        new XClaimArgs().retryCount(delivery.deliveries), delivery.message.getId()));
+            }
+            List<Object> range = execute(commands -> commands.xpending(stream, bytes(properties.getGroup()),
+                    Range.unbounded(), Limit.from(CLAIM_BATCH_SIZE)));
+            Consumer<byte[]> reclaimer = consumer(node + "-reclaim");
+            for (PendingMessage pending : PendingParser.parseRange(decode(range))) {
+                if (pending.getMsSinceLastDelivery() < properties.getClaimIdleMillis()
+                        || inFlight.containsKey(pending.getId())) {
+                    continue;
+                }
+                List<StreamMessage<byte[], byte[]>> messages = execute(commands -> commands.xclaim(stream, reclaimer,
+                        new XClaimArgs().minIdleTime(properties.getClaimIdleMillis()), pending.getId()));
+                if (messages.isEmpty()) {
+                    //消息已被其它节点认领，或已从stream中裁掉只剩待确认记录
+                    if (pending.getMsSinceLastDelivery() >= properties.getClaimIdleMillis() * 2) {
+                        acknowledge(pending.getId());
+                    }
+                    continue;
+                }
+                claimed.incrementAndGet();
+                Delivery delivery = new Delivery(messages.get(0), reclaimer, pending.getRedeliveryCount() + 1);
+                log.info("认领excel导入消息{}，原消费者:{}，空闲:{}ms，第{}次投递", pending.getId(),
+                        pending.getConsumer(), pending.getMsSinceLastDelivery(), delivery.deliveries);
+                if (delivery.deliveries > properties.getMaxAttempts()) {
+                    deadLetter(delivery, jobId(delivery.message), "超过最大投递次数");
+                } else {
+                    inFlight.put(pending.getId(), delivery);
+                    claimedDeliveries.add(delivery);
+                }
+            }
+        } catch (Exception e) {
+            log.error("检查excel导入待确认消息失败:{}", e.getMessage());
+        }
+    }
+
+    private void consume(String consumerName) {
+        Consumer<byte[]> consumer = consumer(consumerName);
+        XReadArgs.StreamOffset<byte[]>[] offsets = offsets(XReadArgs.StreamOffset.lastConsumed(bytes(properties.getStream())));
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                Delivery delivery = claimedDeliveries.poll();
+                if (delivery == null) {
+                    List<StreamMessage<byte[], byte[]>> messages = groupReady ? execute(commands ->
+                            commands.xreadgroup(consumer, XReadArgs.Builder.count(1), offsets)) : null;
+                    if (messages == null || messages.isEmpty()) {
+                        if (!groupReady) {
+                            ensureGroup();
+                        }
+                        Thread.sleep(properties.getPollIntervalMillis());
+                        continue;
+                    }
+                    delivery = new Delivery(messages.get(0), consumer, 1);
+                    inFlight.put(delivery.message.getId(), delivery);
+                }
+                process(delivery, consumerName);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                if (e.getMessage() != null && e.getMessage().startsWith("NOGROUP")) {
+                    groupReady = false;
+                }
+                log.error("读取excel导入队列失败:{}", e.getMessage());
+                sleepQuietly(properties.getPollIntervalMillis());
+            }
+        }
+    }
+
+    private void process(Delivery delivery, String worker) {
+        String messageId = delivery.message.getId();
+        String jobId = jobId(delivery.message);
+        try {
+            ImportJobStatus job = jobId == null ? null : getStatus(jobId);
+            if (job == null || ImportJobStatus.DONE.equals(job.getStatus())
+                    || ImportJobStatus.DEAD.equals(job.getStatus())) {
+                //状态已过期或已处理完(确认前宕机导致重复投递)
+                acknowledge(messageId);
+                return;
+            }
+            String statusKey = statusKey(jobId);
+            HashOperations<String, String, String> hashOps = stringRedisTemplate.opsForHash();
+            Map<String, String> fields = new HashMap<>();
+            fields.put("status", ImportJobStatus.RUNNING);
+            fields.put("worker", worker);
+            fields.put("attempts", String.valueOf(delivery.deliveries));
+            fields.put("updatedAt", String.valueOf(System.currentTimeMillis()));
+            hashOps.putAll(statusKey, fields);
+
+            RedisRowSink sink = new RedisRowSink(stringRedisTemplate, job.getKeyPrefix(),
+                    RedisRowSink.Mode.valueOf(job.getMode()), job.getBatchSize());
+            long start = System.currentTimeMillis();
+            try (InputStream in = new RedisChunkInputStream(stringRedisTemplate, chunkKeyPrefix(jobId),
+                    job.getChunks())) {
+                ExcelFileUtil.readXLSX(in, sink);
+            }
+            ImportStats stats = ImportStats.of(job.getFileName(), sink.getRows(), sink.getBatches(),
+                    System.currentTimeMillis() - start);
+
+            fields.clear();
+            fields.put("status", ImportJobStatus.DONE);
+            fields.put("rows", String.valueOf(stats.getRows()));
+            fields.put("batches", String.valueOf(stats.getBatches()));
+            fields.put("elapsedMillis", String.valueOf(stats.getElapsedMillis()));
+            fields.put("rowsPerSecond", String.valueOf(stats.getRowsPerSecond()));
+            fields.put("updatedAt", String.valueOf(System.currentTimeMillis()));
+            hashOps.putAll(statusKey, fields);
+            hashOps.delete(statusKey, "error");
+            acknowledge(messageId);
+            deleteChunks(jobId, job.getChunks());
+            processed.incrementAndGet();
+            rows.addAndGet(stats.getRows());
+            log.info("excel导入任务{}完成，消费者:{}，{}", jobId, worker, stats);
+        } catch (Exception e) {
+            if (!running) {
+                //停机中断，消息保持未确认，由其它节点认领
+                return;
+            }
+            failed.incrementAndGet();
+            String error = StringUtils.defaultString(e.getMessage(), e.getClass().getName());
+            log.error("excel导入任务{}第{}次处理失败", jobId, delivery.deliveries, e);
+            if (delivery.deliveries >= properties.getMaxAttempts()) {
+                deadLetter(delivery, jobId, error);
+            } else if (jobId != null) {
+                Map<String, String> fields = new HashMap<>();
+                fields.put("status", ImportJobStatus.RETRYING);
+                fields.put("error", error);
+                fields.put("updatedAt", String.valueOf(System.currentTimeMillis()));
+                stringRedisTemplate.opsForHash().putAll(statusKey(jobId), fields);
+            }
+        } finally {
+            inFlight.remove(messageId);
+        }
+    }
+
+    private void deadLetter(Delivery delivery, String jobId, String error) {
+        try {
+            Map<byte[], byte[]> body = new HashMap<>();
+            body.put(bytes(JOB_ID), bytes(StringUtils.defaultString(jobId)));
+            body.put(bytes("messageId"), bytes(delivery.message.getId()));
+            body.put(bytes("attempts"), bytes(String.valueOf(delivery.deliveries)));
+            body.put(bytes("error"), bytes(error));
+            body.put(bytes("failedAt"), bytes(String.valueOf(System.currentTimeMillis())));
+            execute(commands -> commands.xadd(bytes(properties.getDeadLetterStream()),
+                    new XAddArgs().maxlen(properties.getMaxStreamLength()).approximateTrimming(), body));
+            if (jobId != null) {
+                Map<String, String> fields = new HashMap<>();
+                fields.put("status", ImportJobStatus.DEAD);
+                fields.put("error", error);
+                fields.put("updatedAt", String.valueOf(System.currentTimeMillis()));
+                stringRedisTemplate.opsForHash().putAll(statusKey(jobId), fields);
+            }
+            acknowledge(delivery.message.getId());
+            deadLettered.incrementAndGet();
+            log.warn("excel导入任务{}已转入死信，投递次数:{}，原因:{}", jobId, delivery.deliveries, error);
+        } catch (Exception e) {
+            log.error("excel导入任务{}转入死信失败:{}", jobId, e.getMessage());
+        } finally {
+            inFlight.remove(delivery.message.getId());
+        }
+    }
+
+    private void acknowledge(String messageId) {
+        execute(commands -> commands.xack(bytes(properties.getStream()), bytes(properties.getGroup()), messageId));
+    }
+
+    /**
+     * 创建消费组，从stream开头消费，stream不存在时等第一次提交后再创建
+     *
+     * @return 消费组是否已存在
+     */
+    private boolean ensureGroup() {
+        try {
+            execute(commands -> commands.xgroupCreate(XReadArgs.StreamOffset.from(bytes(properties.getStream()), "0"),
+                    bytes(properties.getGroup())));
+            groupReady = true;
+        } catch (RedisCommandExecutionException e) {
+            groupReady = e.getMessage() != null && e.getMessage().startsWith("BUSYGROUP");
+        } catch (Exception e) {
+            log.error("创建excel导入消费组失败:{}", e.getMessage());
+        }
+        return groupReady;
+    }
+
+    private void deleteChunks(String jobId, int chunks) {
+        List<String> keys = new ArrayList<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            keys.add(RedisChunkOutputStream.chunkKey(chunkKeyPrefix(jobId), i));
+        }
+        if (!keys.isEmpty()) {
+            stringRedisTemplate.delete(keys);
+        }
+    }
+
+    /**
+     * spring data redis 2.1没有stream命令，直接使用lettuce的异步命令
+     */
+    private <T> T execute(Function<RedisStreamAsyncCommands<byte[], byte[]>, RedisFuture<T>> command) {
+        return stringRedisTemplate.execute((RedisCallback<T>) connection -> {
+            @SuppressWarnings("unchecked")
+            RedisStreamAsyncCommands<byte[], byte[]> commands =
+                    (RedisStreamAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+            return LettuceFutures.awaitOrCancel(command.apply(commands), COMMAND_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        });
+    }
+
+    /**
+     * xreadgroup的StreamOffset是泛型可变参数，直接传入会产生unchecked警告，这里显式创建数组
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static XReadArgs.StreamOffset<byte[]>[] offsets(XReadArgs.StreamOffset<byte[]> offset) {
+        return new XReadArgs.StreamOffset[]{offset};
+    }
+
+    private Consumer<byte[]> consumer(String name) {
+        return Consumer.from(bytes(properties.getGroup()), bytes(name));
+    }
+
+    private static String jobId(StreamMessage<byte[], byte[]> message) {
+        for (Map.Entry<byte[], byte[]> entry : message.getBody().entrySet()) {
+            if (JOB_ID.equals(new String(entry.getKey(), StandardCharsets.UTF_8))) {
+                return new String(entry.getValue(), StandardCharsets.UTF_8);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * PendingParser要求id和消费者名称是字符串，byte[]编码的结果先转换
+     */
+    private static List<Object> decode(List<?> output) {
+        List<Object> decoded = new ArrayList<>(output.size());
+        for (Object item : output) {
+            if (item instanceof byte[]) {
+                decoded.add(new String((byte[]) item, StandardCharsets.UTF_8));
+            } else if (item instanceof List) {
+                decoded.add(decode((List<?>) item));
+            } else {
+                decoded.add(item);
+            }
+        }
+        return decoded;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String statusKey(String jobId) {
+        return STATUS_KEY_PREFIX + jobId;
+    }
+
+    private static String chunkKeyPrefix(String jobId) {
+        return STATUS_KEY_PREFIX + jobId + CHUNK_KEY_SUFFIX;
+    }
+
+    @Override
+    public void destroy() {
+        running = false;
+        if (workers != null) {
+            workers.shutdownNow();
+        }
+    }
+
+    private static final class Delivery {
+        final StreamMessage<byte[], byte[]> message;
+        final Consumer<byte[]> consumer;
+        final long deliveries;
+
+        Delivery(StreamMessage<byte[], byte[]> message, Consumer<byte[]> consumer, long deliveries) {
+            this.message = message;
+            this.consumer = consumer;
+            this.deliveries = deliveries;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.zb.redis.redisdemo.service.excel;
+
+import com.zb.redis.redisdemo.config.ExcelImportProperties;
+import com.zb.redis.redisdemo.utils.ExcelFileUtil;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @description: excel导入redis，边解析边按批次写入
+ * @author: zhangbing
+ * @create: 2026-10-19 10:20
+ **/
+@Log4j2
+@Service
+public class ExcelImportService implements DisposableBean {
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private ExcelImportProperties properties;
+
+    /**
+     * 多sheet导入共用的读取线程池，同时读取的sheet数不随并发导入的请求数增长
+     */
+    private ThreadPoolExecutor sheetExecutor;
+
+    /**
+     * 多sheet导入共用的行额度，每个sheet读取期间占用读取缓存和待写入批次的行数
+     */
+    private Semaphore sheetRowBudget;
+
+    @PostConstruct
+    public void init() {
+        int parallelism = Math.max(1, properties.getSheetParallelism());
+        AtomicInteger index = new AtomicInteger();
+        sheetExecutor = new ThreadPoolExecutor(parallelism, parallelism, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "excel-sheet-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        sheetRowBudget = new Semaphore(properties.getSheetRowBudget());
+    }
+
+    /**
+     * 把xlsx第一个sheet的数据行写入redis
+     *
+     * @param file      xlsx文件
+     * @param keyPrefix key前缀，每行的key为keyPrefix + 行下标
+     * @param mode      HASH或STRING
+     * @param batchSize 每个pipeline批次的行数
+     * @return 导入统计
+     * @throws IOException
+     */
+    public ImportStats importToRedis(MultipartFile file, String keyPrefix, RedisRowSink.Mode mode, int batchSize)
+            throws IOException {
+        RedisRowSink sink = new RedisRowSink(stringRedisTemplate, keyPrefix, mode, batchSize);
+        long start = System.currentTimeMillis();
+        try (InputStream in = file.getInputStream()) {
+            ExcelFileUtil.readXLSX(in, sink);
+        }
+        ImportStats stats = ImportStats.of(file.getOriginalFilename(), sink.getRows(), sink.getBatches(),
+                System.currentTimeMillis() - start);
+        log.info("excel导入redis完成:{}", stats);
+        return stats;
+    }
+
+    /**
+     * 解析excel第一个sheet，边读边把每行以JSON写入out，最后写出状态和行数，
+     * 读取中途失败时写出FAILED结尾，客户端断开时停止读取
+     * 每行的键与readExcel相同：xlsx以第一行为键；xls另有line行号、跳过全为空的行，并可删除第一行
+     *
+     * @param file        xlsx或xls文件
+     * @param format      NDJSON或JSON_ARRAY
+     * @param isDeleteOne 是否删除第一行，只对xls生效
+     * @param out         响应输出流
+     * @throws IOException
+     */
+    public void streamRows(MultipartFile file, JsonStreamRowSink.Format format, boolean isDeleteOne, OutputStream out)
+            throws IOException {
+        JsonStreamRowSink sink = new JsonStreamRowSink(out, format, properties.getStreamFlushRows(),
+                properties.getStreamFlushMillis());
+        String message = null;
+        try (InputStream in = file.getInputStream()) {
+            sink.open();
+            if (ExcelFileUtil.checkFile(file) == 1) {
+                ExcelFileUtil.readXLSX(in, sink);
+            } else {
+                ExcelFileUtil.readXLS(in, isDeleteOne, sink);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (sink.isBroken()) {
+                log.warn("excel流式解析中断，客户端已断开:{}，已输出{}行", file.getOriginalFilename(), sink.getRows());
+                return;
+            }
+            log.error("excel流式解析失败:{}", file.getOriginalFilename(), e);
+            message = "文件解析异常:" + e.getMessage();
+        }
+        ReadStreamTrailer trailer = sink.complete(file.getOriginalFilename(), message);
+        log.info("excel流式解析完成:{}，刷出{}次", trailer, sink.getFlushes());
+    }
+
+    /**
+     * 并行读取xlsx的多个sheet写入redis，每个sheet的key为keyPrefix + sheet名称 + ":" + 行下标
+     * 读取缓存和待写入的批次共用excel.import.sheet-row-budget行的进程内额度，每个sheet的份额为额度 / sheet-parallelism，
+     * 读取缓存和写入批次各占一半，batchSize超过写入份额时按份额写入
+     *
+     * @param file       xlsx文件
+     * @param sheetNames 要导入的sheet，为空时导入全部
+     * @param keyPrefix  key前缀
+     * @param mode       HASH或STRING
+     * @param batchSize  每个pipeline批次的行数
+     * @return sheet名称到该sheet的导入统计
+     * @throws IOException
+     */
+    public Map<String, ImportStats> importSheetsToRedis(MultipartFile file, Collection<String> sheetNames,
+                                                        String keyPrefix, RedisRowSink.Mode mode, int batchSize)
+            throws IOException {
+        int sheetRows = Math.max(2, properties.getSheetRowBudget() / Math.max(1, properties.getSheetParallelism()));
+        int rowCacheSize = sheetRows / 2;
+        int sheetBatchSize = Math.min(batchSize, sheetRows - rowCacheSize);
+        File tempFile = File.createTempFile("excel-import-", ".xlsx");
+        try {
+            file.transferTo(tempFile);
+            Map<String, RedisRowSink> sinks = new ConcurrentHashMap<>();
+            long start = System.currentTimeMillis();
+            Map<String, Long> rows = ExcelFileUtil.readXLSXSheets(tempFile, sheetNames, sheetExecutor, sheetRowBudget,
+                    rowCacheSize, Math.min(sheetRows, properties.getSheetRowBudget()), sheet -> sinks.computeIfAbsent(sheet,
+                            name -> new RedisRowSink(stringRedisTemplate, keyPrefix + name + ":", mode, sheetBatchSize)));
+            Map<String, ImportStats> result = new LinkedHashMap<>();
+            for (String sheet : rows.keySet()) {
+                RedisRowSink sink = sinks.get(sheet);
+                ImportStats stats = ImportStats.of(file.getOriginalFilename(), sink.getRows(), sink.getBatches(),
+                        sink.getElapsedMillis());
+                stats.setSheetName(sheet);
+                result.put(sheet, stats);
+            }
+            log.info("excel多sheet导入redis完成，文件:{}，sheet数:{}，耗时:{}ms", file.getOriginalFilename(),
+                    result.size(), System.currentTimeMillis() - start);
+            return result;
+        } finally {
+            if (!tempFile.delete()) {
+                log.warn("删除临时文件失败:{}", tempFile);
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        sheetExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,27 @@
+package com.zb.redis.redisdemo.service.excel;
+
+import org.springframework.data.util.CloseableIterator;
+
+import java.util.Map;
+
+/**
+ * @description: 可异步导出的报表，实现类注册为spring bean后即可通过名称提交导出任务
+ * @author: zhangbing
+ * @create: 2026-10-19 14:05
+ **/
+public interface ExcelReportProvider {
+
+    /**
+     * 报表名称，提交导出任务时使用
+     */
+    String getName();
+
+    String[] getTitles(Map<String, String> params);
+
+    /**
+     * 按需生成的行数据，导出完成或失败后会被关闭
+     *
+     * @param params 报表参数，相同名称和参数的报表只会构建一次
+     */
+    CloseableIterator<String[]> rows(Map<String, String> params);
+}
@@ -0,0 +1,42 @@
+package com.zb.redis.redisdemo.service.excel;
+
+import lombok.Data;
+
+/**
+ * @description: 异步导出任务状态，保存在redis hash中，任意节点都可以查询和下载
+ * @author: zhangbing
+ * @create: 2026-10-19 14:10
+ **/
+@Data
+public class ExportJobStatus {
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private String jobId;
+    private String report;
+    private String status;
+    private String fileName;
+
+    /**
+     * 已写出的字节数，完成后为文件总大小
+     */
+    private long size;
+    private int chunks;
+    private int chunkSize;
+    private long createdAt;
+    private long updatedAt;
+
+    /**
+     * 构建节点最近一次心跳的时间，排队中也会更新，超时未更新的任务允许重新提交
+     */
+    private long heartbeatAt;
+
+    /**
+     * 本次构建的标识，结果块存放在该标识下
+     */
+    private String buildToken;
+    private String error;
+}
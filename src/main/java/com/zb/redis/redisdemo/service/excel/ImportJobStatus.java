@@ -0,0 +1,45 @@
+package com.zb.redis.redisdemo.service.excel;
+
+import lombok.Data;
+
+/**
+ * @description: 异步导入任务状态，保存在redis hash中，任意节点都可以查询
+ * @author: zhangbing
+ * @create: 2026-10-20 16:15
+ **/
+@Data
+public class ImportJobStatus {
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+
+    /**
+     * 处理失败，等待超时后被重新认领
+     */
+    public static final String RETRYING = "RETRYING";
+    public static final String DONE = "DONE";
+
+    /**
+     * 超过最大投递次数，已转入死信stream
+     */
+    public static final String DEAD = "DEAD";
+
+    private String jobId;
+    private String messageId;
+    private String fileName;
+    private String keyPrefix;
+    private String mode;
+    private int batchSize;
+    private String status;
+    private long size;
+    private int chunks;
+    private int attempts;
+    private String worker;
+    private long rows;
+    private long batches;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private long createdAt;
+    private long updatedAt;
+    private String error;
+}
@@ -0,0 +1,29 @@
+package com.zb.redis.redisdemo.service.excel;
+
+import lombok.Data;
+
+/**
+ * @description: 导入队列统计，队列长度等为集群数据，其余为本节点数据
+ * @author: zhangbing
+ * @create: 2026-10-20 16:20
+ **/
+@Data
+public class ImportQueueStats {
+
+    private long streamLength;
+
+    /**
+     * 已投递未确认的消息数
+     */
+    private long pending;
+    private long deadLetters;
+
+    private String node;
+    private int workers;
+    private int processing;
+    private long processed;
+    private long failed;
+    private long claimed;
+    private long deadLettered;
+    private long rows;
+}
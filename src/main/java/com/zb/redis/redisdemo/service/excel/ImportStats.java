@@ -0,0 +1,33 @@
+package com.zb.redis.redisdemo.service.excel;
+
+import lombok.Data;
+
+/**
+ * @description: 单次excel导入的统计
+ * @author: zhangbing
+ * @create: 2026-10-19 09:50
+ **/
+@Data
+public class ImportStats {
+
+    private String fileName;
+
+    /**
+     * 多sheet导入时的sheet名称
+     */
+    private String sheetName;
+    private long rows;
+    private long batches;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+
+    public static ImportStats of(String fileName, long rows, long batches, long elapsedMillis) {
+        ImportStats stats = new ImportStats();
+        stats.setFileName(fileName);
+        stats.setRows(rows);
+        stats.setBatches(batches);
+        stats.setElapsedMillis(elapsedMillis);
+        stats.setRowsPerSecond(rows * 1000.0 / Math.max(1, elapsedMillis));
+        return stats;
+    }
+}
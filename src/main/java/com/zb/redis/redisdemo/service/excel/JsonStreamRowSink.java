@@ -0,0 +1,220 @@
+package com.zb.redis.redisdemo.service.excel;
+
+import com.alibaba.fastjson.JSON;
+import com.zb.redis.redisdemo.utils.CachedClock;
+import com.zb.redis.redisdemo.utils.ExcelRowSink;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * @description: 把excel行边解析边以JSON写入输出流，内存中只有缓冲区里未刷出的数据
+ * NDJSON模式每行一个JSON对象，最后一行为{"trailer":{...}}；JSON_ARRAY模式输出{"data":[...],"trailer":{...}}
+ * 累计flushRows行或距上次刷出超过flushMillis时刷出，客户端可以在解析过程中陆续收到数据
+ * @author: zhangbing
+ * @create: 2026-10-22 16:00
+ **/
+public class JsonStreamRowSink implements ExcelRowSink {
+
+    public enum Format {
+        NDJSON, JSON_ARRAY
+    }
+
+    private final OutputStream out;
+    private final Writer writer;
+    private final Format format;
+    private final int flushRows;
+    private final long flushMillis;
+
+    /**
+     * 转义好的"标题":，每行直接写入
+     */
+    private String[] keys = new String[0];
+    private long rows;
+    private long flushes;
+    private int unflushed;
+    private long startedAt;
+    private long lastFlushAt;
+
+    /**
+     * 写出失败(通常是客户端已断开)，之后不再写入
+     */
+    private boolean broken;
+
+    public JsonStreamRowSink(OutputStream out, Format format, int flushRows, long flushMillis) {
+        this.out = out;
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 8192);
+        this.format = format;
+        this.flushRows = flushRows;
+        this.flushMillis = flushMillis;
+    }
+
+    /**
+     * 读取前调用，JSON_ARRAY模式先写出开头并立即刷出
+     */
+    public void open() throws IOException {
+        startedAt = CachedClock.currentTimeMillis();
+        lastFlushAt = startedAt;
+        if (format == Format.JSON_ARRAY) {
+            write("{\"data\":[");
+            flush();
+        }
+    }
+
+    @Override
+    public void start(List<String> titles) {
+        keys = new String[titles.size()];
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            sb.setLength(0);
+            appendString(sb, String.valueOf(titles.get(i)));
+            keys[i] = sb.append(':').toString();
+        }
+    }
+
+    @Override
+    public void accept(int rowNum, String[] values) throws IOException {
+        try {
+            if (format == Format.JSON_ARRAY && rows > 0) {
+                writer.write(',');
+            }
+            writer.write('{');
+            for (int i = 0; i < keys.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(keys[i]);
+                writeString(values[i]);
+            }
+            writer.write('}');
+            if (format == Format.NDJSON) {
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            broken = true;
+            throw e;
+        }
+        rows++;
+        unflushed++;
+        if (unflushed >= flushRows || CachedClock.currentTimeMillis() - lastFlushAt >= flushMillis) {
+            flush();
+        }
+    }
+
+    /**
+     * 读取结束后写出结尾，代替Result返回状态和行数
+     *
+     * @param message 失败原因，成功时为null
+     */
+    public ReadStreamTrailer complete(String fileName, String message) throws IOException {
+        ReadStreamTrailer trailer = new ReadStreamTrailer();
+        trailer.setStatus(message == null ? ReadStreamTrailer.DONE : ReadStreamTrailer.FAILED);
+        trailer.setMessage(message);
+        trailer.setFileName(fileName);
+        trailer.setRows(rows);
+        trailer.setElapsedMillis(CachedClock.currentTimeMillis() - startedAt);
+        if (format == Format.JSON_ARRAY) {
+            write("],\"trailer\":" + JSON.toJSONString(trailer) + "}");
+        } else {
+            write("{\"trailer\":" + JSON.toJSONString(trailer) + "}\n");
+        }
+        flush();
+        return trailer;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getFlushes() {
+        return flushes;
+    }
+
+    public boolean isBroken() {
+        return broken;
+    }
+
+    private void write(String text) throws IOException {
+        try {
+            writer.write(text);
+        } catch (IOException e) {
+            broken = true;
+            throw e;
+        }
+    }
+
+    private void flush() throws IOException {
+        try {
+            writer.flush();
+            out.flush();
+        } catch (IOException e) {
+            broken = true;
+            throw e;
+        }
+        flushes++;
+        unflushed = 0;
+        lastFlushAt = CachedClock.currentTimeMillis();
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+            return;
+        }
+        writer.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            String escaped = escape(value.charAt(i));
+            if (escaped != null) {
+                writer.write(value, start, i - start);
+                writer.write(escaped);
+                start = i + 1;
+            }
+        }
+        writer.write(value, start, value.length() - start);
+        writer.write('"');
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String escaped = escape(c);
+            if (escaped != null) {
+                sb.append(escaped);
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * @return 需要转义的字符的转义形式，不需要转义时返回null
+     */
+    private static String escape(char c) {
+        switch (c) {
+            case '"':
+                return "\\\"";
+            case '\\':
+                return "\\\\";
+            case '\n':
+                return "\\n";
+            case '\r':
+                return "\\r";
+            case '\t':
+                return "\\t";
+            default:
+                //其它控制字符，以及JavaScript中视为换行的U+2028、U+2029
+                if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                    return String.format("\\u%04x", (int) c);
+                }
+                return null;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.zb.redis.redisdemo.service.excel;
+
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.util.CloseableIterator;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * @description: keyspace报表，用SCAN遍历匹配的key，每批key通过pipeline一次取回类型、剩余过期时间和字符串值
+ * 参数：pattern 匹配模式，默认*；limit 最多导出的key数量，默认100000
+ * @author: zhangbing
+ * @create: 2026-10-19 14:35
+ **/
+@Log4j2
+@Component
+public class KeyspaceReportProvider implements ExcelReportProvider {
+
+    public static final String NAME = "keyspace";
+
+    private static final int BATCH_SIZE = 500;
+    private static final long MAX_ROWS = 1_000_000;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public String[] getTitles(Map<String, String> params) {
+        return new String[]{"key", "type", "ttl(ms)", "value"};
+    }
+
+    @Override
+    public CloseableIterator<String[]> rows(Map<String, String> params) {
+        String pattern = params.getOrDefault("pattern", "*");
+        long limit = Math.min(MAX_ROWS, NumberUtils.toLong(params.get("limit"), 100000));
+        Cursor<byte[]> cursor = stringRedisTemplate.executeWithStickyConnection(
+                (RedisCallback<Cursor<byte[]>>) connection -> connection.scan(
+                        ScanOptions.scanOptions().match(pattern).count(1000).build()));
+        return new KeyspaceIterator(cursor, limit);
+    }
+
+    private final class KeyspaceIterator implements CloseableIterator<String[]> {
+        private final Cursor<byte[]> cursor;
+        private final long limit;
+        private final Deque<String[]> buffer = new ArrayDeque<>(BATCH_SIZE);
+        private long emitted;
+
+        KeyspaceIterator(Cursor<byte[]> cursor, long limit) {
+            this.cursor = cursor;
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (buffer.isEmpty() && emitted < limit) {
+                fill();
+            }
+            return !buffer.isEmpty();
+        }
+
+        @Override
+        public String[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            emitted++;
+            return buffer.poll();
+        }
+
+        private void fill() {
+            List<String> keys = new ArrayList<>(BATCH_SIZE);
+            while (keys.size() < BATCH_SIZE && keys.size() < limit - emitted && cursor.hasNext()) {
+                keys.add(new String(cursor.next(), StandardCharsets.UTF_8));
+            }
+            if (keys.isEmpty()) {
+                return;
+            }
+            List<Object> meta = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                StringRedisConnection conn = (StringRedisConnection) connection;
+                for (String key : keys) {
+                    conn.type(key);
+                    conn.pTtl(key);
+                }
+                return null;
+            });
+            List<String> stringKeys = new ArrayList<>();
+            for (int i = 0; i < keys.size(); i++) {
+                if (meta.get(2 * i) == DataType.STRING) {
+                    stringKeys.add(keys.get(i));
+                }
+            }
+            List<String> values = stringKeys.isEmpty() ? Collections.emptyList()
+                    : stringRedisTemplate.opsForValue().multiGet(stringKeys);
+            int valueIndex = 0;
+            for (int i = 0; i < keys.size(); i++) {
+                DataType type = (DataType) meta.get(2 * i);
+                String value = "";
+                if (type == DataType.STRING && values != null) {
+                    value = Objects.toString(values.get(valueIndex++), "");
+                }
+                buffer.add(new String[]{keys.get(i), type == null ? "" : type.code(),
+                        String.valueOf(meta.get(2 * i + 1)), value});
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                cursor.close();
+            } catch (IOException e) {
+                log.warn("关闭scan游标失败:{}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.zb.redis.redisdemo.service.excel;
+
+import lombok.Data;
+
+/**
+ * @description: 流式返回excel解析结果时最后输出的状态和行数
+ * @author: zhangbing
+ * @create: 2026-10-22 16:10
+ **/
+@Data
+public class ReadStreamTrailer {
+
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    /**
+     * DONE-全部读取完成，FAILED-读取中途失败，之前输出的行仍然有效
+     */
+    private String status;
+    private String message;
+    private String fileName;
+    private long rows;
+    private long elapsedMillis;
+}
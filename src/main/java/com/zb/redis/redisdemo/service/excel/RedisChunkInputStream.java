@@ -0,0 +1,67 @@
+package com.zb.redis.redisdemo.service.excel;
+
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @description: 按块顺序读取RedisChunkOutputStream写入的内容，内存中只保留当前块
+ * @author: zhangbing
+ * @create: 2026-10-20 16:10
+ **/
+public class RedisChunkInputStream extends InputStream {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String keyPrefix;
+    private final int chunks;
+    private int next;
+    private byte[] chunk;
+    private int position;
+
+    public RedisChunkInputStream(StringRedisTemplate stringRedisTemplate, String keyPrefix, int chunks) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.chunks = chunks;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureChunk()) {
+            return -1;
+        }
+        return chunk[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureChunk()) {
+            return -1;
+        }
+        int n = Math.min(len, chunk.length - position);
+        System.arraycopy(chunk, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    private boolean ensureChunk() throws IOException {
+        while (chunk == null || position == chunk.length) {
+            if (next >= chunks) {
+                return false;
+            }
+            byte[] key = RedisChunkOutputStream.chunkKey(keyPrefix, next).getBytes(StandardCharsets.UTF_8);
+            chunk = stringRedisTemplate.execute((RedisCallback<byte[]>) connection -> connection.get(key));
+            if (chunk == null) {
+                throw new IOException("文件块已过期:" + keyPrefix + next);
+            }
+            next++;
+            position = 0;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,104 @@
+package com.zb.redis.redisdemo.service.excel;
+
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * @description: 把写入的字节按固定大小切块，每满一块就以 keyPrefix + 块序号 写入redis并设置过期时间，
+ * 内存中只保留一个块
+ * @author: zhangbing
+ * @create: 2026-10-19 14:20
+ **/
+public class RedisChunkOutputStream extends OutputStream {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String keyPrefix;
+    private final long ttlSeconds;
+    private final LongConsumer progress;
+    private final byte[] buffer;
+    private int position;
+    private int chunks;
+    private long size;
+    private boolean closed;
+
+    /**
+     * @param keyPrefix  块key前缀
+     * @param chunkSize  块大小
+     * @param ttlSeconds 块的过期时间
+     * @param progress   每写入一块后回调，参数为已写入的总字节数
+     */
+    public RedisChunkOutputStream(StringRedisTemplate stringRedisTemplate, String keyPrefix, int chunkSize,
+                                  long ttlSeconds, LongConsumer progress) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.ttlSeconds = ttlSeconds;
+        this.progress = progress;
+        this.buffer = new byte[chunkSize];
+    }
+
+    public static String chunkKey(String keyPrefix, int index) {
+        return keyPrefix + index;
+    }
+
+    @Override
+    public void write(int b) {
+        buffer[position++] = (byte) b;
+        if (position == buffer.length) {
+            flushChunk();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        while (len > 0) {
+            int n = Math.min(len, buffer.length - position);
+            System.arraycopy(b, off, buffer, position, n);
+            position += n;
+            off += n;
+            len -= n;
+            if (position == buffer.length) {
+                flushChunk();
+            }
+        }
+    }
+
+    /**
+     * 写出最后一个不满的块
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            flushChunk();
+        }
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    private void flushChunk() {
+        if (position == 0) {
+            return;
+        }
+        byte[] key = chunkKey(keyPrefix, chunks).getBytes(StandardCharsets.UTF_8);
+        byte[] value = position == buffer.length ? buffer : Arrays.copyOf(buffer, position);
+        stringRedisTemplate.execute((RedisCallback<Boolean>) connection -> connection.set(key, value,
+                Expiration.seconds(ttlSeconds), RedisStringCommands.SetOption.upsert()));
+        chunks++;
+        size += position;
+        position = 0;
+        progress.accept(size);
+    }
+}
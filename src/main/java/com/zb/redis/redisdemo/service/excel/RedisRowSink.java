@@ -0,0 +1,127 @@
+package com.zb.redis.redisdemo.service.excel;
+
+import com.alibaba.fastjson.JSON;
+import com.zb.redis.redisdemo.utils.ExcelRowSink;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 把excel行按批次通过pipeline写入redis，每行一个key：keyPrefix + 行下标
+ * HASH模式用HSET写入标题到单元格值的映射，STRING模式用SET写入整行的JSON，
+ * 内存中最多缓存batchSize行
+ * @author: zhangbing
+ * @create: 2026-10-19 10:00
+ **/
+public class RedisRowSink implements ExcelRowSink {
+
+    public enum Mode {
+        HASH, STRING
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String keyPrefix;
+    private final Mode mode;
+    private final int batchSize;
+
+    private List<String> titles;
+    private final List<PendingRow> pending;
+    private long rows;
+    private long batches;
+    private long startedAt;
+    private long elapsedMillis;
+
+    public RedisRowSink(StringRedisTemplate stringRedisTemplate, String keyPrefix, Mode mode, int batchSize) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.keyPrefix = keyPrefix;
+        this.mode = mode;
+        this.batchSize = batchSize;
+        this.pending = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void start(List<String> titles) {
+        this.titles = new ArrayList<>(titles);
+        this.startedAt = System.currentTimeMillis();
+    }
+
+    @Override
+    public void accept(int rowNum, String[] values) {
+        pending.add(new PendingRow(keyPrefix + rowNum, values));
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void finish() {
+        flush();
+        if (startedAt > 0) {
+            elapsedMillis = System.currentTimeMillis() - startedAt;
+        }
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    /**
+     * 从读到标题行到写完最后一批的耗时
+     */
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            StringRedisConnection conn = (StringRedisConnection) connection;
+            for (PendingRow row : pending) {
+                Map<String, String> fields = toMap(row.values);
+                if (mode == Mode.STRING) {
+                    conn.set(row.key, JSON.toJSONString(fields));
+                } else if (!fields.isEmpty()) {
+                    conn.hMSet(row.key, fields);
+                }
+            }
+            return null;
+        });
+        rows += pending.size();
+        batches++;
+        pending.clear();
+    }
+
+    /**
+     * 空单元格不写入，hash中没有该字段
+     */
+    private Map<String, String> toMap(String[] values) {
+        Map<String, String> map = new HashMap<>(titles.size() * 2);
+        for (int i = 0; i < values.length && i < titles.size(); i++) {
+            if (values[i] != null) {
+                map.put(titles.get(i), values[i]);
+            }
+        }
+        return map;
+    }
+
+    private static final class PendingRow {
+        final String key;
+        final String[] values;
+
+        PendingRow(String key, String[] values) {
+            this.key = key;
+            this.values = values;
+        }
+    }
+}
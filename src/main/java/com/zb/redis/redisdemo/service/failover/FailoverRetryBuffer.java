@@ -0,0 +1,272 @@
+package com.zb.redis.redisdemo.service.failover;
+
+import com.zb.redis.redisdemo.config.RedisFailoverProperties;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 主从切换期间的写命令重试缓冲区
+ * 写命令正常情况下直接执行；切换中或执行时遇到连接失败/超时/READONLY错误时放入有界队列，
+ * 由单个重放线程按提交顺序在新主节点上重放，并记录写不可用窗口的时长；
+ * 是否排队的判断与入队、重放时的出队在同一把锁内完成，缓冲区有命令时后来的写命令一定排在其后
+ * @author: zhangbing
+ * @create: 2026-10-18 11:15
+ **/
+@Log4j2
+@Component
+public class FailoverRetryBuffer implements InitializingBean, DisposableBean {
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RedisFailoverProperties properties;
+
+    private BlockingQueue<PendingWrite> buffer;
+
+    /**
+     * 保护"判断缓冲区是否为空再入队"与重放线程的出队，命令本身的执行不在锁内
+     */
+    private final Object queueLock = new Object();
+
+    private final ScheduledExecutorService replayer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "redis-failover-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean replayScheduled = new AtomicBoolean();
+    private final AtomicLong unavailableSince = new AtomicLong();
+    private volatile long failoverStartedAt;
+    private volatile String currentMaster;
+
+    private final AtomicLong bufferedTotal = new AtomicLong();
+    private final AtomicLong replayedTotal = new AtomicLong();
+    private final AtomicLong rejectedTotal = new AtomicLong();
+    private final AtomicLong unavailableWindows = new AtomicLong();
+    private final AtomicLong masterSwitches = new AtomicLong();
+    private volatile long lastUnavailableMillis;
+    private volatile long maxUnavailableMillis;
+
+    @Override
+    public void afterPropertiesSet() {
+        buffer = new ArrayBlockingQueue<>(properties.getBufferSize());
+    }
+
+    public CompletableFuture<Void> set(String key, String value) {
+        return write(template -> template.opsForValue().set(key, value));
+    }
+
+    public CompletableFuture<Void> set(String key, String value, Duration timeout) {
+        return write(template -> template.opsForValue().set(key, value, timeout.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    public CompletableFuture<Void> delete(String key) {
+        return write(template -> template.delete(key));
+    }
+
+    /**
+     * 执行写命令，切换期间命令进入缓冲区，返回的future在命令真正写入后完成
+     *
+     * @param command 幂等的写命令
+     * @return 写入结果，缓冲区已满或遇到非切换类错误时异常完成，本方法不抛出异常
+     */
+    public CompletableFuture<Void> write(RedisWriteCommand command) {
+        //切换中或缓冲区还有未重放的命令时直接排队，避免阻塞到超时并保证写入顺序
+        synchronized (queueLock) {
+            if (isFailoverInProgress() || !buffer.isEmpty()) {
+                return enqueue(command);
+            }
+        }
+        try {
+            command.execute(stringRedisTemplate);
+            markAvailable();
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            if (!isFailoverError(e)) {
+                return failed(e);
+            }
+            log.warn("写命令失败，放入重试缓冲区:{}", e.getMessage());
+            markUnavailable();
+            synchronized (queueLock) {
+                return enqueue(command);
+            }
+        }
+    }
+
+    /**
+     * 哨兵判定主节点客观下线或开始故障转移
+     */
+    public void failoverStarted() {
+        failoverStartedAt = System.currentTimeMillis();
+        markUnavailable();
+    }
+
+    /**
+     * 哨兵完成主节点切换，连接已指向新主节点，立即开始重放
+     */
+    public void masterSwitched(String newMaster) {
+        currentMaster = newMaster;
+        failoverStartedAt = 0;
+        masterSwitches.incrementAndGet();
+        scheduleReplay(0);
+    }
+
+    public void setCurrentMaster(String currentMaster) {
+        this.currentMaster = currentMaster;
+    }
+
+    public FailoverStats getStats() {
+        FailoverStats stats = new FailoverStats();
+        stats.setCurrentMaster(currentMaster);
+        stats.setFailoverInProgress(isFailoverInProgress());
+        stats.setUnavailableSince(unavailableSince.get());
+        stats.setLastUnavailableMillis(lastUnavailableMillis);
+        stats.setMaxUnavailableMillis(maxUnavailableMillis);
+        stats.setUnavailableWindows(unavailableWindows.get());
+        stats.setMasterSwitches(masterSwitches.get());
+        stats.setBuffered(buffer.size());
+        stats.setBufferedTotal(bufferedTotal.get());
+        stats.setReplayedTotal(replayedTotal.get());
+        stats.setRejectedTotal(rejectedTotal.get());
+        return stats;
+    }
+
+    //调用方持有queueLock
+    private CompletableFuture<Void> enqueue(RedisWriteCommand command) {
+        PendingWrite pending = new PendingWrite(command);
+        if (!buffer.offer(pending)) {
+            rejectedTotal.incrementAndGet();
+            return failed(new DataAccessResourceFailureException("redis主从切换中，重试缓冲区已满"));
+        }
+        bufferedTotal.incrementAndGet();
+        scheduleReplay(isFailoverInProgress() ? properties.getReplayIntervalMillis() : 0);
+        return pending.future;
+    }
+
+    private void scheduleReplay(long delayMillis) {
+        if (replayScheduled.compareAndSet(false, true)) {
+            try {
+                replayer.schedule(this::replay, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                replayScheduled.set(false);
+            }
+        }
+    }
+
+    private void replay() {
+        try {
+            PendingWrite pending;
+            while (!isFailoverInProgress() && (pending = buffer.peek()) != null) {
+                try {
+                    pending.command.execute(stringRedisTemplate);
+                } catch (RuntimeException e) {
+                    if (isFailoverError(e)) {
+                        //新主节点仍不可写，稍后再试
+                        break;
+                    }
+                    dequeue();
+                    pending.future.completeExceptionally(e);
+                    continue;
+                }
+                dequeue();
+                replayedTotal.incrementAndGet();
+                markAvailable();
+                pending.future.complete(null);
+            }
+        } finally {
+            synchronized (queueLock) {
+                replayScheduled.set(false);
+                if (!buffer.isEmpty()) {
+                    scheduleReplay(properties.getReplayIntervalMillis());
+                }
+            }
+        }
+    }
+
+    //只有重放线程出队，队首就是刚执行的命令
+    private void dequeue() {
+        synchronized (queueLock) {
+            buffer.poll();
+        }
+    }
+
+    private static CompletableFuture<Void> failed(Throwable e) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+    private boolean isFailoverInProgress() {
+        long startedAt = failoverStartedAt;
+        return startedAt > 0 && System.currentTimeMillis() - startedAt < properties.getMaxFailoverMillis();
+    }
+
+    /**
+     * 连接失败、命令超时以及旧主节点降级为从节点后返回的READONLY错误都视为切换引起的错误
+     */
+    private static boolean isFailoverError(RuntimeException e) {
+        if (!(e instanceof DataAccessException)) {
+            return false;
+        }
+        if (e instanceof DataAccessResourceFailureException || e instanceof QueryTimeoutException) {
+            return true;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && (message.startsWith("READONLY") || message.startsWith("LOADING"))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void markUnavailable() {
+        unavailableSince.compareAndSet(0, System.currentTimeMillis());
+    }
+
+    private void markAvailable() {
+        long since = unavailableSince.get();
+        if (since > 0 && unavailableSince.compareAndSet(since, 0)) {
+            long window = System.currentTimeMillis() - since;
+            lastUnavailableMillis = window;
+            maxUnavailableMillis = Math.max(maxUnavailableMillis, window);
+            unavailableWindows.incrementAndGet();
+            log.info("redis写入恢复，本次不可用窗口{}ms", window);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        replayer.shutdownNow();
+        List<PendingWrite> remaining = new ArrayList<>();
+        synchronized (queueLock) {
+            buffer.drainTo(remaining);
+        }
+        remaining.forEach(pending -> pending.future.completeExceptionally(
+                new DataAccessResourceFailureException("应用关闭，写命令未重放")));
+    }
+
+    private static final class PendingWrite {
+        final RedisWriteCommand command;
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        PendingWrite(RedisWriteCommand command) {
+            this.command = command;
+        }
+    }
+}
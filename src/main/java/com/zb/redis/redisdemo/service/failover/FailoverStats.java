@@ -0,0 +1,39 @@
+package com.zb.redis.redisdemo.service.failover;
+
+import lombok.Data;
+
+/**
+ * @description: 主从切换期间的写不可用窗口与重试缓冲区统计
+ * @author: zhangbing
+ * @create: 2026-10-18 11:10
+ **/
+@Data
+public class FailoverStats {
+
+    /**
+     * 当前主节点 ip:port
+     */
+    private String currentMaster;
+    private boolean failoverInProgress;
+
+    /**
+     * 当前不可用窗口的开始时间，0表示可写
+     */
+    private long unavailableSince;
+
+    /**
+     * 最近一次/历史最长的写不可用窗口，单位毫秒
+     */
+    private long lastUnavailableMillis;
+    private long maxUnavailableMillis;
+    private long unavailableWindows;
+    private long masterSwitches;
+
+    /**
+     * 缓冲区当前大小及累计缓存、重放、拒绝的写命令数
+     */
+    private int buffered;
+    private long bufferedTotal;
+    private long replayedTotal;
+    private long rejectedTotal;
+}
@@ -0,0 +1,14 @@
+package com.zb.redis.redisdemo.service.failover;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * @description: 可重放的写命令，切换期间会被缓存并在新主节点上再次执行，因此必须是幂等的
+ * @author: zhangbing
+ * @create: 2026-10-18 11:08
+ **/
+@FunctionalInterface
+public interface RedisWriteCommand {
+
+    void execute(StringRedisTemplate template);
+}
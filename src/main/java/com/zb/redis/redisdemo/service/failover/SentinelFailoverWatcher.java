@@ -0,0 +1,156 @@
+package com.zb.redis.redisdemo.service.failover;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisException;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.sentinel.api.StatefulRedisSentinelConnection;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * @description: 订阅所有哨兵的切换事件
+ * +odown/+try-failover时通知重试缓冲区进入切换状态，+switch-master时立即丢弃共享连接和连接池中的连接，
+ * 新连接经哨兵解析到新主节点，而不是等旧连接超时或READONLY报错后才重连；
+ * 连接工厂和客户端不重建，切换期间其他线程仍可正常借连接
+ * @author: zhangbing
+ * @create: 2026-10-18 11:30
+ **/
+@Log4j2
+@Component
+@ConditionalOnProperty(prefix = "spring.redis.sentinel", name = "master")
+public class SentinelFailoverWatcher implements InitializingBean, DisposableBean {
+
+    public static final String SWITCH_MASTER = "+switch-master";
+    public static final String ODOWN = "+odown";
+    public static final String TRY_FAILOVER = "+try-failover";
+
+    @Autowired
+    private RedisProperties redisProperties;
+
+    @Autowired
+    private ClientResources clientResources;
+
+    @Autowired
+    private LettuceConnectionFactory connectionFactory;
+
+    @Autowired
+    private FailoverRetryBuffer retryBuffer;
+
+    private RedisClient sentinelClient;
+
+    private final List<StatefulRedisPubSubConnection<String, String>> connections = new CopyOnWriteArrayList<>();
+
+    /**
+     * 重置连接需要关闭连接并查询哨兵，会阻塞，不能放在lettuce的事件线程里执行
+     */
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "redis-topology-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile String currentMaster;
+
+    @Override
+    public void afterPropertiesSet() {
+        String masterName = redisProperties.getSentinel().getMaster();
+        sentinelClient = RedisClient.create(clientResources);
+        for (String node : redisProperties.getSentinel().getNodes()) {
+            RedisURI uri = toRedisURI(node);
+            try {
+                if (currentMaster == null) {
+                    currentMaster = lookupMaster(uri, masterName);
+                    retryBuffer.setCurrentMaster(currentMaster);
+                }
+                StatefulRedisPubSubConnection<String, String> connection = sentinelClient.connectPubSub(uri);
+                connection.addListener(new RedisPubSubAdapter<String, String>() {
+                    @Override
+                    public void message(String channel, String message) {
+                        onSentinelEvent(masterName, channel, message);
+                    }
+                });
+                connection.sync().subscribe(SWITCH_MASTER, ODOWN, TRY_FAILOVER);
+                connections.add(connection);
+            } catch (RedisException e) {
+                log.warn("订阅哨兵{}失败:{}", node, e.getMessage());
+            }
+        }
+        log.info("已订阅{}个哨兵的切换事件，当前主节点{}", connections.size(), currentMaster);
+    }
+
+    /**
+     * 哨兵事件格式：
+     * +switch-master: master-name old-ip old-port new-ip new-port
+     * +odown/+try-failover: master master-name ip port ...
+     */
+    private void onSentinelEvent(String masterName, String channel, String message) {
+        String[] parts = message.split(" ");
+        if (SWITCH_MASTER.equals(channel)) {
+            if (parts.length >= 5 && masterName.equals(parts[0])) {
+                String newMaster = parts[3] + ":" + parts[4];
+                refresher.execute(() -> refreshTopology(newMaster));
+            }
+        } else if (parts.length >= 2 && "master".equals(parts[0]) && masterName.equals(parts[1])) {
+            log.warn("哨兵事件{} {}，主节点切换开始", channel, message);
+            retryBuffer.failoverStarted();
+        }
+    }
+
+    /**
+     * 每个哨兵都会发布同一个+switch-master事件，只处理第一次
+     */
+    private synchronized void refreshTopology(String newMaster) {
+        if (newMaster.equals(currentMaster)) {
+            return;
+        }
+        log.warn("redis主节点切换 {} -> {}，重置连接", currentMaster, newMaster);
+        currentMaster = newMaster;
+        connectionFactory.resetConnection();
+        retryBuffer.masterSwitched(newMaster);
+    }
+
+    private String lookupMaster(RedisURI uri, String masterName) {
+        try (StatefulRedisSentinelConnection<String, String> connection = sentinelClient.connectSentinel(uri)) {
+            SocketAddress address = connection.sync().getMasterAddrByName(masterName);
+            if (address instanceof InetSocketAddress) {
+                InetSocketAddress inet = (InetSocketAddress) address;
+                return inet.getHostString() + ":" + inet.getPort();
+            }
+            return null;
+        }
+    }
+
+    private RedisURI toRedisURI(String node) {
+        int index = node.lastIndexOf(':');
+        RedisURI uri = RedisURI.create(node.substring(0, index).trim(), Integer.parseInt(node.substring(index + 1).trim()));
+        if (redisProperties.getTimeout() != null) {
+            uri.setTimeout(redisProperties.getTimeout());
+        }
+        return uri;
+    }
+
+    @Override
+    public void destroy() {
+        refresher.shutdownNow();
+        connections.forEach(StatefulRedisPubSubConnection::close);
+        if (sentinelClient != null) {
+            sentinelClient.shutdown();
+        }
+    }
+}
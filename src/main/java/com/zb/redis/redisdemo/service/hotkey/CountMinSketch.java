@@ -0,0 +1,63 @@
+package com.zb.redis.redisdemo.service.hotkey;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @description: 线程安全的count-min sketch，只会高估不会低估，每行用双重哈希定位计数器
+ * @author: zhangbing
+ * @create: 2026-10-19 20:35
+ **/
+public class CountMinSketch {
+
+    private final int depth;
+    private final int width;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param depth 行数
+     * @param width 每行计数器数，向上取2的幂
+     */
+    public CountMinSketch(int depth, int width) {
+        this.depth = depth;
+        this.width = Integer.highestOneBit(Math.max(2, width - 1)) << 1;
+        this.mask = this.width - 1;
+        this.counters = new AtomicLongArray(depth * this.width);
+    }
+
+    /**
+     * 计数并返回累加后的估计值
+     */
+    public long add(String key, long count) {
+        int h1 = mix(key.hashCode());
+        int h2 = mix(h1 ^ 0x9E3779B9) | 1;
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            int index = i * width + ((h1 + i * h2) & mask);
+            min = Math.min(min, counters.addAndGet(index, count));
+        }
+        return min;
+    }
+
+    public long estimate(String key) {
+        int h1 = mix(key.hashCode());
+        int h2 = mix(h1 ^ 0x9E3779B9) | 1;
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < depth; i++) {
+            min = Math.min(min, counters.get(i * width + ((h1 + i * h2) & mask)));
+        }
+        return min;
+    }
+
+    /**
+     * murmur3的fmix32，打散String.hashCode的低位
+     */
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
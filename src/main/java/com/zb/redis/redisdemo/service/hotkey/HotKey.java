@@ -0,0 +1,18 @@
+package com.zb.redis.redisdemo.service.hotkey;
+
+import lombok.Data;
+
+/**
+ * @description: 单个热点key在统计窗口内的估算读写次数和速率(已按采样率放大)
+ * @author: zhangbing
+ * @create: 2026-10-19 20:40
+ **/
+@Data
+public class HotKey {
+
+    private String key;
+    private long reads;
+    private long writes;
+    private double readsPerSecond;
+    private double writesPerSecond;
+}
@@ -0,0 +1,100 @@
+package com.zb.redis.redisdemo.service.hotkey;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * @description: 被采样的操作使用的连接代理，按方法名识别带key的读写命令，把第一个参数中的key交给探测器，
+ * pipeline中的每条命令都会被记录；未识别的方法(eval、publish、scan等)直接透传
+ * @author: zhangbing
+ * @create: 2026-10-19 21:05
+ **/
+public final class HotKeyConnectionDecorator implements InvocationHandler {
+
+    /**
+     * 多key命令最多记录的key数
+     */
+    private static final int MAX_KEYS_PER_COMMAND = 16;
+
+    /**
+     * 方法名 -> 是否写命令
+     */
+    private static final Map<String, Boolean> KEY_COMMANDS = new HashMap<>();
+
+    static {
+        for (String read : new String[]{"get", "mGet", "getRange", "strLen", "getBit", "bitCount", "exists", "type",
+                "ttl", "pTtl", "dump", "hGet", "hMGet", "hGetAll", "hKeys", "hVals", "hLen", "hExists", "hStrLen",
+                "hScan", "lRange", "lIndex", "lLen", "sMembers", "sIsMember", "sCard", "sRandMember", "sScan",
+                "sInter", "sUnion", "sDiff", "zRange", "zRangeWithScores", "zRevRange", "zRevRangeWithScores",
+                "zRangeByScore", "zRangeByScoreWithScores", "zRevRangeByScore", "zRevRangeByScoreWithScores",
+                "zRangeByLex", "zScore", "zCard", "zCount", "zRank", "zRevRank", "zScan", "pfCount", "geoPos",
+                "geoDist", "geoHash", "geoRadius", "geoRadiusByMember"}) {
+            KEY_COMMANDS.put(read, false);
+        }
+        for (String write : new String[]{"set", "setEx", "pSetEx", "setNX", "mSet", "mSetNX", "getSet", "append",
+                "setRange", "setBit", "incr", "incrBy", "decr", "decrBy", "del", "unlink", "expire", "pExpire",
+                "expireAt", "pExpireAt", "persist", "rename", "renameNX", "restore", "hSet", "hSetNX", "hMSet",
+                "hIncrBy", "hDel", "lPush", "rPush", "lPushX", "rPushX", "lPop", "rPop", "lSet", "lRem", "lTrim",
+                "lInsert", "rPopLPush", "sAdd", "sRem", "sPop", "sMove", "zAdd", "zRem", "zIncrBy", "zRemRange",
+                "zRemRangeByScore", "pfAdd", "geoAdd"}) {
+            KEY_COMMANDS.put(write, true);
+        }
+    }
+
+    private final RedisConnection target;
+    private final HotKeyDetector detector;
+
+    private HotKeyConnectionDecorator(RedisConnection target, HotKeyDetector detector) {
+        this.target = target;
+        this.detector = detector;
+    }
+
+    /**
+     * 返回实现了target全部接口(包括StringRedisConnection)的代理
+     */
+    public static RedisConnection decorate(RedisConnection target, HotKeyDetector detector) {
+        Class<?>[] interfaces = ClassUtils.getAllInterfaces(target);
+        return (RedisConnection) Proxy.newProxyInstance(HotKeyConnectionDecorator.class.getClassLoader(), interfaces,
+                new HotKeyConnectionDecorator(target, detector));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (args != null && args.length > 0) {
+            Boolean write = KEY_COMMANDS.get(method.getName());
+            if (write != null) {
+                recordKeys(args[0], write);
+            }
+        }
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void recordKeys(Object arg, boolean write) {
+        if (arg instanceof String) {
+            detector.record((String) arg, write);
+        } else if (arg instanceof byte[]) {
+            detector.record(new String((byte[]) arg, StandardCharsets.UTF_8), write);
+        } else if (arg instanceof Object[]) {
+            Object[] keys = (Object[]) arg;
+            for (int i = 0; i < keys.length && i < MAX_KEYS_PER_COMMAND; i++) {
+                recordKeys(keys[i], write);
+            }
+        } else if (arg instanceof Map) {
+            Iterator<?> keys = ((Map<?, ?>) arg).keySet().iterator();
+            for (int i = 0; keys.hasNext() && i < MAX_KEYS_PER_COMMAND; i++) {
+                recordKeys(keys.next(), write);
+            }
+        }
+    }
+}
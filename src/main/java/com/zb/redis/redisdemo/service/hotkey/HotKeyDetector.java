@@ -0,0 +1,191 @@
+package com.zb.redis.redisdemo.service.hotkey;
+
+import com.zb.redis.redisdemo.config.HotKeyProperties;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: 热点key探测
+ * 每次template操作先按采样率决定是否记录，未采样的操作只有一次计数和一次随机数的开销；
+ * 采样到的key计入当前窗口的读、写两个count-min sketch，估计值进入前topK的key保留在候选集合中，
+ * 窗口结束时按采样率放大为估算次数和速率生成报告，然后换一个新窗口重新计数
+ * @author: zhangbing
+ * @create: 2026-10-19 20:50
+ **/
+@Log4j2
+public class HotKeyDetector {
+
+    /**
+     * 超长key只保留前缀，避免候选集合占用过多内存
+     */
+    private static final int MAX_KEY_LENGTH = 256;
+
+    private final HotKeyProperties properties;
+    private final int sampleRate;
+
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder sampledOperations = new LongAdder();
+    private final LongAdder recordedKeys = new LongAdder();
+    private final LongAdder recordNanos = new LongAdder();
+
+    private volatile Window current;
+    private volatile HotKeyReport lastReport;
+
+    public HotKeyDetector(HotKeyProperties properties) {
+        this.properties = properties;
+        this.sampleRate = Math.max(1, properties.getSampleRate());
+        this.current = new Window();
+        this.lastReport = emptyReport(current.start);
+    }
+
+    /**
+     * 是否采样本次操作
+     */
+    public boolean sample() {
+        operations.increment();
+        if (sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0) {
+            sampledOperations.increment();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 记录采样到的key
+     *
+     * @param write 是否写命令
+     */
+    public void record(String key, boolean write) {
+        long start = System.nanoTime();
+        if (key.length() > MAX_KEY_LENGTH) {
+            key = key.substring(0, MAX_KEY_LENGTH);
+        }
+        current.record(key, write);
+        recordedKeys.increment();
+        recordNanos.add(System.nanoTime() - start);
+    }
+
+    /**
+     * 最近一个完整窗口的报告
+     */
+    public HotKeyReport getReport() {
+        return lastReport;
+    }
+
+    @Scheduled(fixedDelayString = "${redis.hot-key.window-millis:10000}")
+    public void rotate() {
+        Window finished = current;
+        current = new Window();
+        HotKeyReport report = finished.toReport(current.start);
+        lastReport = report;
+        if (!report.getKeys().isEmpty()) {
+            HotKey top = report.getKeys().get(0);
+            log.debug("热点key窗口结束，最热key:{} 读{}/s 写{}/s", top.getKey(), top.getReadsPerSecond(),
+                    top.getWritesPerSecond());
+        }
+    }
+
+    private HotKeyReport emptyReport(long now) {
+        HotKeyReport report = new HotKeyReport();
+        report.setWindowStart(now);
+        report.setWindowEnd(now);
+        report.setSampleRate(sampleRate);
+        return report;
+    }
+
+    private final class Window {
+        final long start = System.currentTimeMillis();
+        final CountMinSketch reads = new CountMinSketch(properties.getSketchDepth(), properties.getSketchWidth());
+        final CountMinSketch writes = new CountMinSketch(properties.getSketchDepth(), properties.getSketchWidth());
+        final Map<String, long[]> candidates = new HashMap<>();
+        volatile long minTotal;
+        String minKey;
+
+        void record(String key, boolean write) {
+            long r;
+            long w;
+            if (write) {
+                w = writes.add(key, 1);
+                r = reads.estimate(key);
+            } else {
+                r = reads.add(key, 1);
+                w = writes.estimate(key);
+            }
+            // 候选集合已满且估计值不超过最小值时不加锁直接返回，绝大多数冷key走这里
+            if (r + w <= minTotal) {
+                return;
+            }
+            offer(key, r, w);
+        }
+
+        synchronized void offer(String key, long r, long w) {
+            long[] counts = candidates.get(key);
+            if (counts != null) {
+                counts[0] = r;
+                counts[1] = w;
+                if (key.equals(minKey)) {
+                    refreshMin();
+                }
+                return;
+            }
+            if (candidates.size() < properties.getTopK()) {
+                candidates.put(key, new long[]{r, w});
+                if (candidates.size() == properties.getTopK()) {
+                    refreshMin();
+                }
+                return;
+            }
+            if (r + w > minTotal) {
+                candidates.remove(minKey);
+                candidates.put(key, new long[]{r, w});
+                refreshMin();
+            }
+        }
+
+        private void refreshMin() {
+            long min = Long.MAX_VALUE;
+            String minCandidate = null;
+            for (Map.Entry<String, long[]> entry : candidates.entrySet()) {
+                long total = entry.getValue()[0] + entry.getValue()[1];
+                if (total < min) {
+                    min = total;
+                    minCandidate = entry.getKey();
+                }
+            }
+            minKey = minCandidate;
+            minTotal = candidates.size() < properties.getTopK() ? 0 : min;
+        }
+
+        synchronized HotKeyReport toReport(long end) {
+            HotKeyReport report = emptyReport(start);
+            report.setWindowEnd(end);
+            double seconds = Math.max(1, end - start) / 1000.0;
+            List<HotKey> keys = new ArrayList<>(candidates.size());
+            for (Map.Entry<String, long[]> entry : candidates.entrySet()) {
+                HotKey hotKey = new HotKey();
+                hotKey.setKey(entry.getKey());
+                hotKey.setReads(entry.getValue()[0] * sampleRate);
+                hotKey.setWrites(entry.getValue()[1] * sampleRate);
+                hotKey.setReadsPerSecond(hotKey.getReads() / seconds);
+                hotKey.setWritesPerSecond(hotKey.getWrites() / seconds);
+                keys.add(hotKey);
+            }
+            keys.sort(Comparator.comparingLong((HotKey k) -> k.getReads() + k.getWrites()).reversed());
+            report.setKeys(keys);
+
+            long ops = operations.sumThenReset();
+            long recorded = recordedKeys.sumThenReset();
+            long nanos = recordNanos.sumThenReset();
+            report.setOperations(ops);
+            report.setSampledOperations(sampledOperations.sumThenReset());
+            report.setRecordedKeys(recorded);
+            report.setNanosPerRecordedKey(recorded == 0 ? 0 : (double) nanos / recorded);
+            report.setNanosPerOperation(ops == 0 ? 0 : (double) nanos / ops);
+            return report;
+        }
+    }
+}
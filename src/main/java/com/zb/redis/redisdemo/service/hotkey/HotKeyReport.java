@@ -0,0 +1,33 @@
+package com.zb.redis.redisdemo.service.hotkey;
+
+import lombok.Data;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @description: 最近一个完整统计窗口的热点key，以及探测本身的开销
+ * @author: zhangbing
+ * @create: 2026-10-19 20:42
+ **/
+@Data
+public class HotKeyReport {
+
+    private long windowStart;
+    private long windowEnd;
+    private int sampleRate;
+    private List<HotKey> keys = Collections.emptyList();
+
+    /**
+     * 累计经过探测器的template操作数、被采样的操作数、记录的key数
+     */
+    private long operations;
+    private long sampledOperations;
+    private long recordedKeys;
+
+    /**
+     * 记录单个key的平均耗时，以及摊到每次操作上的平均耗时(含未采样操作)，单位纳秒
+     */
+    private double nanosPerRecordedKey;
+    private double nanosPerOperation;
+}
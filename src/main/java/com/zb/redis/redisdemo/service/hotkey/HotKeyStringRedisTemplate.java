@@ -0,0 +1,27 @@
+package com.zb.redis.redisdemo.service.hotkey;
+
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * @description: 带热点key采样的StringRedisTemplate，每次execute(包括opsForXxx、executePipelined)
+ * 按采样率决定本次使用的连接是否经过HotKeyConnectionDecorator
+ * @author: zhangbing
+ * @create: 2026-10-19 21:15
+ **/
+public class HotKeyStringRedisTemplate extends StringRedisTemplate {
+
+    private final HotKeyDetector detector;
+
+    public HotKeyStringRedisTemplate(RedisConnectionFactory connectionFactory, HotKeyDetector detector) {
+        super(connectionFactory);
+        this.detector = detector;
+    }
+
+    @Override
+    protected RedisConnection preProcessConnection(RedisConnection connection, boolean existingConnection) {
+        RedisConnection processed = super.preProcessConnection(connection, existingConnection);
+        return detector.sample() ? HotKeyConnectionDecorator.decorate(processed, detector) : processed;
+    }
+}
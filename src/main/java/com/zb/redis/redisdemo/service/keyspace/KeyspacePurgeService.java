@@ -0,0 +1,406 @@
+package com.zb.redis.redisdemo.service.keyspace;
+
+import com.zb.redis.redisdemo.config.KeyspacePurgeProperties;
+import com.zb.redis.redisdemo.service.routing.ReadRouting;
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.api.async.RedisKeyAsyncCommands;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * @description: 批量清理匹配的key
+ * 用SCAN游标分页遍历，每页的key拆成多条UNLINK在一个pipeline里删除，value在redis后台线程释放，不会像KEYS/DEL那样长时间阻塞；
+ * 每页结束后记录游标和进度，根据SCAN、UNLINK的耗时调节两页之间的间隔，服务端变慢时自动放慢；
+ * 任务暂停、失败或执行节点宕机后可以在任意节点从保存的游标处继续，已删除的key不会重复计数；
+ * 每次提交或继续都生成新的owner，排队和执行期间定时写心跳，开始执行及之后的每次写入都校验owner，
+ * 被其它节点接管或已完成的任务不会再执行
+ * @author: zhangbing
+ * @create: 2026-10-20 11:20
+ **/
+@Log4j2
+@Service
+public class KeyspacePurgeService implements DisposableBean {
+
+    private static final String STATUS_KEY_PREFIX = "keyspace:purge:";
+
+    /**
+     * 单次SCAN的超时时间，单位秒
+     */
+    private static final long SCAN_TIMEOUT_SECONDS = 60;
+
+    /**
+     * 暂停、失败或心跳超时的任务改为PENDING并写入新的owner，返回1表示由调用方继续执行
+     * ARGV: 心跳早于该时间视为超时, now, owner
+     */
+    private static final RedisScript<Long> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "local status = redis.call('hget', KEYS[1], 'status') " +
+            "if not status then return 0 end " +
+            "local heartbeat = tonumber(redis.call('hget', KEYS[1], 'heartbeatAt')) " +
+            "  or tonumber(redis.call('hget', KEYS[1], 'updatedAt')) or 0 " +
+            "if status == 'PAUSED' or status == 'FAILED' " +
+            "  or ((status == 'RUNNING' or status == 'PENDING') and heartbeat < tonumber(ARGV[1])) then " +
+            "  redis.call('hmset', KEYS[1], 'status', 'PENDING', 'owner', ARGV[3], 'updatedAt', ARGV[2], " +
+            "    'heartbeatAt', ARGV[2], 'pauseRequested', '0') " +
+            "  redis.call('hdel', KEYS[1], 'error') " +
+            "  return 1 " +
+            "end return 0", Long.class);
+
+    /**
+     * 排队中的任务开始执行，owner不一致或状态不是PENDING(如已完成)时返回0
+     * ARGV: owner, now
+     */
+    private static final RedisScript<Long> START_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('hget', KEYS[1], 'owner') ~= ARGV[1] " +
+            "  or redis.call('hget', KEYS[1], 'status') ~= 'PENDING' then return 0 end " +
+            "redis.call('hmset', KEYS[1], 'status', 'RUNNING', 'updatedAt', ARGV[2], 'heartbeatAt', ARGV[2]) " +
+            "return 1", Long.class);
+
+    /**
+     * owner一致时写入字段并续期，返回是否有暂停请求(1/0)，owner不一致返回-1
+     * ARGV: owner, ttl, 字段, 值, ...
+     */
+    private static final RedisScript<Long> PROGRESS_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('hget', KEYS[1], 'owner') ~= ARGV[1] then return -1 end " +
+            "redis.call('hmset', KEYS[1], unpack(ARGV, 3)) " +
+            "redis.call('expire', KEYS[1], ARGV[2]) " +
+            "if redis.call('hget', KEYS[1], 'pauseRequested') == '1' then return 1 end " +
+            "return 0", Long.class);
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private KeyspacePurgeProperties properties;
+
+    /**
+     * 同一时间只执行一个清理任务，多个任务并发只会让服务端更忙
+     */
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "keyspace-purge");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 本节点排队中和执行中的任务，jobId -> owner
+     */
+    private final Map<String, String> activeJobs = new ConcurrentHashMap<>();
+
+    /**
+     * 提交清理任务
+     *
+     * @param pattern   SCAN的MATCH参数，必须以普通字符开头，例如 zhangbing*
+     * @param scanCount SCAN的COUNT参数，小于等于0时使用默认值
+     * @param dryRun    只统计匹配的key数量，不删除
+     * @return 任务状态
+     */
+    public PurgeJobStatus submit(String pattern, int scanCount, boolean dryRun) {
+        if (StringUtils.isBlank(pattern) || !hasLiteralPrefix(pattern)) {
+            throw new IllegalArgumentException("不允许清理全部key，匹配模式需要以普通字符开头，例如 zhangbing*");
+        }
+        String jobId = UUID.randomUUID().toString().replace("-", "");
+        String owner = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        Map<String, String> fields = new HashMap<>();
+        fields.put("pattern", pattern);
+        fields.put("scanCount", String.valueOf(scanCount > 0 ? scanCount : properties.getScanCount()));
+        fields.put("dryRun", String.valueOf(dryRun));
+        fields.put("status", PurgeJobStatus.PENDING);
+        fields.put("cursor", ScanCursor.INITIAL.getCursor());
+        fields.put("createdAt", String.valueOf(now));
+        fields.put("updatedAt", String.valueOf(now));
+        fields.put("heartbeatAt", String.valueOf(now));
+        fields.put("owner", owner);
+        stringRedisTemplate.opsForHash().putAll(statusKey(jobId), fields);
+        stringRedisTemplate.expire(statusKey(jobId), properties.getStateTtlSeconds(), TimeUnit.SECONDS);
+        enqueue(jobId, owner);
+        return getStatus(jobId);
+    }
+
+    /**
+     * 从保存的游标处继续执行暂停、失败或执行节点已宕机的任务
+     *
+     * @return 任务状态，任务不存在时返回null
+     */
+    public PurgeJobStatus resume(String jobId) {
+        long now = System.currentTimeMillis();
+        long staleBefore = now - TimeUnit.SECONDS.toMillis(properties.getStaleAfterSeconds());
+        String owner = UUID.randomUUID().toString();
+        Long claimed = stringRedisTemplate.execute(CLAIM_SCRIPT, Collections.singletonList(statusKey(jobId)),
+                String.valueOf(staleBefore), String.valueOf(now), owner);
+        if (claimed != null && claimed == 1L) {
+            log.info("清理任务{}从游标处继续", jobId);
+            enqueue(jobId, owner);
+        }
+        return getStatus(jobId);
+    }
+
+    /**
+     * 为本节点排队中和执行中的任务写心跳，任务已被其它节点接管时停止
+     */
+    @Scheduled(fixedDelayString = "${redis.purge.heartbeat-millis:10000}")
+    public void heartbeat() {
+        for (Map.Entry<String, String> entry : activeJobs.entrySet()) {
+            try {
+                if (writeStatus(entry.getKey(), entry.getValue(), Collections.emptyMap()) < 0) {
+                    activeJobs.remove(entry.getKey(), entry.getValue());
+                }
+            } catch (Exception e) {
+                log.warn("清理任务{}心跳失败:{}", entry.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 请求暂停，执行节点处理完当前页后停止并保存游标
+     */
+    public PurgeJobStatus pause(String jobId) {
+        PurgeJobStatus status = getStatus(jobId);
+        if (status != null && !PurgeJobStatus.DONE.equals(status.getStatus())) {
+            stringRedisTemplate.opsForHash().put(statusKey(jobId), "pauseRequested", "1");
+        }
+        return status;
+    }
+
+    public PurgeJobStatus getStatus(String jobId) {
+        HashOperations<String, String, String> hashOps = stringRedisTemplate.opsForHash();
+        Map<String, String> fields = hashOps.entries(statusKey(jobId));
+        if (fields.isEmpty() || fields.get("status") == null) {
+            return null;
+        }
+        PurgeJobStatus status = new PurgeJobStatus();
+        status.setJobId(jobId);
+        status.setPattern(fields.get("pattern"));
+        status.setScanCount(NumberUtils.toInt(fields.get("scanCount"), properties.getScanCount()));
+        status.setDryRun(Boolean.parseBoolean(fields.get("dryRun")));
+        status.setStatus(fields.get("status"));
+        status.setCursor(StringUtils.defaultString(fields.get("cursor"), ScanCursor.INITIAL.getCursor()));
+        status.setScanCalls(NumberUtils.toLong(fields.get("scanCalls")));
+        status.setMatched(NumberUtils.toLong(fields.get("matched")));
+        status.setDeleted(NumberUtils.toLong(fields.get("deleted")));
+        status.setDelayMillis(NumberUtils.toLong(fields.get("delayMillis")));
+        status.setLastLatencyMillis(NumberUtils.toLong(fields.get("lastLatencyMillis")));
+        status.setCreatedAt(NumberUtils.toLong(fields.get("createdAt")));
+        status.setUpdatedAt(NumberUtils.toLong(fields.get("updatedAt")));
+        status.setHeartbeatAt(NumberUtils.toLong(fields.get("heartbeatAt")));
+        status.setOwner(fields.get("owner"));
+        status.setError(fields.get("error"));
+        return status;
+    }
+
+    private void enqueue(String jobId, String owner) {
+        activeJobs.put(jobId, owner);
+        executor.execute(() -> {
+            try {
+                run(jobId, owner);
+            } finally {
+                activeJobs.remove(jobId, owner);
+            }
+        });
+    }
+
+    private void run(String jobId, String owner) {
+        String statusKey = statusKey(jobId);
+        Long started = stringRedisTemplate.execute(START_SCRIPT, Collections.singletonList(statusKey),
+                owner, String.valueOf(System.currentTimeMillis()));
+        if (started == null || started != 1L) {
+            log.info("清理任务{}已完成或已被其它节点接管，跳过", jobId);
+            return;
+        }
+        PurgeJobStatus job = getStatus(jobId);
+        if (job == null) {
+            return;
+        }
+        ScanArgs scanArgs = ScanArgs.Builder.limit(job.getScanCount()).match(job.getPattern());
+        String cursor = job.getCursor();
+        long delay = job.getDelayMillis();
+        long start = System.currentTimeMillis();
+        try {
+            while (true) {
+                long pageStart = System.nanoTime();
+                KeyScanCursor<byte[]> page = scan(cursor, scanArgs);
+                long scanMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pageStart);
+                List<byte[]> keys = page.getKeys();
+                long unlinkMillis = 0;
+                long deleted = 0;
+                if (!job.isDryRun() && !keys.isEmpty()) {
+                    long unlinkStart = System.nanoTime();
+                    deleted = unlink(keys);
+                    unlinkMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - unlinkStart);
+                }
+                cursor = page.getCursor();
+                long latency = Math.max(scanMillis, unlinkMillis);
+                long pageMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pageStart);
+                delay = pace(delay, latency, job.isDryRun() ? keys.size() : deleted, pageMillis);
+
+                job.setScanCalls(job.getScanCalls() + 1);
+                job.setMatched(job.getMatched() + keys.size());
+                job.setDeleted(job.getDeleted() + deleted);
+                job.setCursor(cursor);
+                job.setDelayMillis(delay);
+                job.setLastLatencyMillis(latency);
+                long saved = saveProgress(jobId, owner, job, page.isFinished() ? PurgeJobStatus.DONE : null);
+                if (saved < 0) {
+                    log.warn("清理任务{}已被其它节点接管，停止执行，游标:{}", jobId, cursor);
+                    return;
+                }
+                if (page.isFinished()) {
+                    log.info("清理任务{}完成，模式:{}，匹配:{}，删除:{}，SCAN次数:{}，耗时:{}ms", jobId, job.getPattern(),
+                            job.getMatched(), job.getDeleted(), job.getScanCalls(), System.currentTimeMillis() - start);
+                    return;
+                }
+                if (saved == 1L) {
+                    saveProgress(jobId, owner, job, PurgeJobStatus.PAUSED);
+                    log.info("清理任务{}已暂停，游标:{}", jobId, cursor);
+                    return;
+                }
+                if (delay > 0) {
+                    Thread.sleep(delay);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            saveProgress(jobId, owner, job, PurgeJobStatus.PAUSED);
+            log.info("清理任务{}被中断，游标:{}", jobId, cursor);
+        } catch (Exception e) {
+            log.error("清理任务{}失败，游标:{}", jobId, cursor, e);
+            Map<String, String> fields = new HashMap<>();
+            fields.put("status", PurgeJobStatus.FAILED);
+            fields.put("error", StringUtils.defaultString(e.getMessage(), e.getClass().getName()));
+            fields.put("updatedAt", String.valueOf(System.currentTimeMillis()));
+            writeStatus(jobId, owner, fields);
+        }
+    }
+
+    /**
+     * 以*、?或[开头的模式可能匹配任意key，反斜杠转义的字符算普通字符
+     */
+    private static boolean hasLiteralPrefix(String pattern) {
+        switch (pattern.charAt(0)) {
+            case '*':
+            case '?':
+            case '[':
+                return false;
+            case '\\':
+                return pattern.length() > 1;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 游标只在扫描它的节点上有效，开启从节点读路由时SCAN也固定走主节点，
+     * 否则各页可能落在不同节点，之后的UNLINK也在主节点执行
+     */
+    private KeyScanCursor<byte[]> scan(String cursor, ScanArgs scanArgs) {
+        RedisCallback<KeyScanCursor<byte[]>> callback = connection -> {
+            //spring的Cursor不能从指定游标开始，这里直接用lettuce的SCAN
+            @SuppressWarnings("unchecked")
+            RedisKeyAsyncCommands<byte[], byte[]> commands =
+                    (RedisKeyAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+            return LettuceFutures.awaitOrCancel(commands.scan(ScanCursor.of(cursor), scanArgs),
+                    SCAN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        };
+        return ReadRouting.onMaster(() -> stringRedisTemplate.execute(callback));
+    }
+
+    private long unlink(List<byte[]> keys) {
+        int batchSize = Math.max(1, properties.getUnlinkBatchSize());
+        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < keys.size(); i += batchSize) {
+                List<byte[]> batch = keys.subList(i, Math.min(keys.size(), i + batchSize));
+                connection.unlink(batch.toArray(new byte[0][]));
+            }
+            return null;
+        });
+        long deleted = 0;
+        for (Object result : results) {
+            if (result instanceof Long) {
+                deleted += (Long) result;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * 命令耗时超过目标值时间隔翻倍，否则减半；设置了每秒删除上限时间隔不小于按上限折算的时间
+     */
+    private long pace(long delay, long latencyMillis, long keys, long pageMillis) {
+        if (latencyMillis > properties.getTargetLatencyMillis()) {
+            delay = Math.min(properties.getMaxDelayMillis(), Math.max(1, delay * 2));
+        } else {
+            delay = delay / 2;
+        }
+        if (properties.getMaxKeysPerSecond() > 0 && keys > 0) {
+            long minDelay = keys * 1000 / properties.getMaxKeysPerSecond() - pageMillis;
+            delay = Math.max(delay, minDelay);
+        }
+        return delay;
+    }
+
+    /**
+     * 保存游标及进度，同时读取暂停标记
+     *
+     * @param status 需要同时更新的状态，为null时不更新
+     * @return 1表示有暂停请求，0表示没有，-1表示任务已被其它节点接管
+     */
+    private long saveProgress(String jobId, String owner, PurgeJobStatus job, String status) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put("cursor", job.getCursor());
+        fields.put("scanCalls", String.valueOf(job.getScanCalls()));
+        fields.put("matched", String.valueOf(job.getMatched()));
+        fields.put("deleted", String.valueOf(job.getDeleted()));
+        fields.put("delayMillis", String.valueOf(job.getDelayMillis()));
+        fields.put("lastLatencyMillis", String.valueOf(job.getLastLatencyMillis()));
+        fields.put("updatedAt", String.valueOf(System.currentTimeMillis()));
+        if (status != null) {
+            fields.put("status", status);
+        }
+        return writeStatus(jobId, owner, fields);
+    }
+
+    /**
+     * owner一致时写入字段、心跳时间并续期
+     *
+     * @return 1表示有暂停请求，0表示没有，-1表示任务已被其它节点接管
+     */
+    private long writeStatus(String jobId, String owner, Map<String, String> fields) {
+        List<Object> args = new ArrayList<>(fields.size() * 2 + 4);
+        args.add(owner);
+        args.add(String.valueOf(properties.getStateTtlSeconds()));
+        args.add("heartbeatAt");
+        args.add(String.valueOf(System.currentTimeMillis()));
+        fields.forEach((field, value) -> {
+            args.add(field);
+            args.add(value);
+        });
+        Long result = stringRedisTemplate.execute(PROGRESS_SCRIPT, Collections.singletonList(statusKey(jobId)),
+                args.toArray());
+        return result == null ? -1 : result;
+    }
+
+    private static String statusKey(String jobId) {
+        return STATUS_KEY_PREFIX + jobId;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
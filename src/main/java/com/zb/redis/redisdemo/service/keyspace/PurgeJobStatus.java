@@ -0,0 +1,55 @@
+package com.zb.redis.redisdemo.service.keyspace;
+
+import lombok.Data;
+
+/**
+ * @description: 批量清理任务状态，保存在redis hash中，游标每处理完一页更新一次，任务中断后可以从游标处继续
+ * @author: zhangbing
+ * @create: 2026-10-20 11:05
+ **/
+@Data
+public class PurgeJobStatus {
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String PAUSED = "PAUSED";
+    public static final String DONE = "DONE";
+    public static final String FAILED = "FAILED";
+
+    private String jobId;
+    private String pattern;
+    private int scanCount;
+
+    /**
+     * 只统计匹配的key，不删除
+     */
+    private boolean dryRun;
+    private String status;
+
+    /**
+     * 下一次SCAN的游标，0且状态为DONE时表示已遍历完整个keyspace
+     */
+    private String cursor;
+    private long scanCalls;
+    private long matched;
+    private long deleted;
+
+    /**
+     * 当前两页之间的间隔及最近一页的命令耗时，单位毫秒
+     */
+    private long delayMillis;
+    private long lastLatencyMillis;
+    private long createdAt;
+    private long updatedAt;
+
+    /**
+     * 执行节点最近一次心跳的时间，排队中也会更新，超时未更新的任务允许在其它节点继续
+     */
+    private long heartbeatAt;
+
+    /**
+     * 最近一次提交或继续时生成的标识，只有持有该标识的执行才能更新状态
+     */
+    private String owner;
+    private String error;
+}
@@ -0,0 +1,364 @@
+package com.zb.redis.redisdemo.service.lock;
+
+import com.zb.redis.redisdemo.config.DistributedLockProperties;
+import lombok.extern.log4j.Log4j2;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * @description: 本机合并竞争的分布式锁
+ * 每个key先获取本机的公平锁，同一个JVM里只有拿到本机锁的线程才去redis抢锁；
+ * 释放时如果本机还有线程在等同一个key，redis锁不释放而是直接交给下一个本机线程，省掉一次解锁和一次加锁的往返；
+ * redis锁的值是本JVM的标识而不是线程，所有持有中的锁由一个定时任务用一条lua脚本批量续期，
+ * 续期发现锁已过期或被其它节点持有时，通过获取锁时传入的回调通知本机的当前持有者
+ * @author: zhangbing
+ * @create: 2026-10-18 17:10
+ **/
+@Log4j2
+@Service
+public class CoalescingLockService implements InitializingBean, DisposableBean {
+
+    private static final String LOCK_SCRIPT =
+            "if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then return 1 end " +
+            "if redis.call('get', KEYS[1]) == ARGV[1] then redis.call('pexpire', KEYS[1], ARGV[2]) return 1 end " +
+            "return 0";
+
+    private static final String UNLOCK_SCRIPT =
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0";
+
+    private static final String RENEW_SCRIPT =
+            "local result = {} " +
+            "for i, key in ipairs(KEYS) do " +
+            "  if redis.call('get', key) == ARGV[1] then redis.call('pexpire', key, ARGV[2]) result[i] = 1 " +
+            "  else result[i] = 0 end " +
+            "end return result";
+
+    /**
+     * 单次续期脚本最多携带的key数量
+     */
+    private static final int RENEW_BATCH_SIZE = 500;
+
+    @Lazy
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private DistributedLockProperties properties;
+
+    private final String token = UUID.randomUUID().toString();
+
+    private final ConcurrentHashMap<String, LockEntry> entries = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "redis-lock-renewal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong contendedAcquisitions = new AtomicLong();
+    private final AtomicLong localHandoffs = new AtomicLong();
+    private final AtomicLong remoteAcquisitions = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong remoteRoundTrips = new AtomicLong();
+    private final AtomicLong renewalBatches = new AtomicLong();
+    private final AtomicLong renewedLocks = new AtomicLong();
+    private final AtomicLong lostLocks = new AtomicLong();
+
+    @Override
+    public void afterPropertiesSet() {
+        long interval = properties.getRenewIntervalMillis();
+        renewer.scheduleWithFixedDelay(this::renewHeldLocks, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 在等待时间内获取锁，支持同一线程重入
+     *
+     * @param key      锁名称
+     * @param waitTime 最长等待时间
+     * @param unit     时间单位
+     * @return 是否获取成功
+     */
+    public boolean tryLock(String key, long waitTime, TimeUnit unit) throws InterruptedException {
+        return tryLock(key, waitTime, unit, null);
+    }
+
+    /**
+     * 在等待时间内获取锁，支持同一线程重入，重入时沿用最外层的回调
+     *
+     * @param key      锁名称
+     * @param waitTime 最长等待时间
+     * @param unit     时间单位
+     * @param onLost   持有期间redis锁丢失时在续期线程中调用，需要尽快返回，可以为null
+     * @return 是否获取成功
+     */
+    public boolean tryLock(String key, long waitTime, TimeUnit unit, Runnable onLost) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(waitTime);
+        LockEntry entry = retain(key);
+        boolean acquired = false;
+        try {
+            if (entry.local.isHeldByCurrentThread()) {
+                entry.local.lock();
+                acquired = true;
+                return true;
+            }
+            if (entry.local.isLocked()) {
+                contendedAcquisitions.incrementAndGet();
+            }
+            if (!entry.local.tryLock(waitTime, unit)) {
+                timeouts.incrementAndGet();
+                return false;
+            }
+            if (entry.remoteHeld) {
+                //上一个本机持有者把redis锁交接过来了
+                localHandoffs.incrementAndGet();
+                entry.onLost = onLost;
+                acquired = true;
+            } else if (acquireRemote(entry, deadline)) {
+                remoteAcquisitions.incrementAndGet();
+                entry.onLost = onLost;
+                acquired = true;
+            } else {
+                timeouts.incrementAndGet();
+            }
+            return acquired;
+        } finally {
+            if (acquired) {
+                acquisitions.incrementAndGet();
+            } else {
+                //redis加锁超时或抛出异常时放掉已拿到的本机锁，否则之后同一个key的线程都会一直等待
+                if (entry.local.isHeldByCurrentThread() && !entry.remoteHeld) {
+                    entry.local.unlock();
+                }
+                //先处理无人持有的redis锁再减引用，否则引用归零时remoteHeld仍为true，条目不会被移除
+                releaseOrphanedRemote(entry);
+                release(entry);
+            }
+        }
+    }
+
+    public void unlock(String key) {
+        LockEntry entry = entries.get(key);
+        if (entry == null || !entry.local.isHeldByCurrentThread()) {
+            throw new IllegalMonitorStateException("当前线程未持有锁:" + key);
+        }
+        boolean handedOff = false;
+        try {
+            if (entry.local.getHoldCount() == 1) {
+                entry.onLost = null;
+                if (entry.remoteHeld && entry.local.hasQueuedThreads()
+                        && entry.handoffs < properties.getMaxLocalHandoffs()) {
+                    entry.handoffs++;
+                    handedOff = true;
+                } else {
+                    entry.handoffs = 0;
+                    releaseRemote(entry);
+                }
+            }
+        } finally {
+            entry.local.unlock();
+            if (handedOff) {
+                //等待的线程可能在本机锁释放前就已超时或被中断，它当时拿不到本机锁，没有释放redis锁，这里再检查一次
+                releaseOrphanedRemote(entry);
+            }
+            release(entry);
+        }
+    }
+
+    /**
+     * 持锁执行，获取失败时抛出异常
+     */
+    public <T> T executeWithLock(String key, long waitTime, TimeUnit unit, Supplier<T> action) throws InterruptedException {
+        return executeWithLock(key, waitTime, unit, null, action);
+    }
+
+    /**
+     * 持锁执行，获取失败时抛出异常，执行期间redis锁丢失时调用onLost
+     */
+    public <T> T executeWithLock(String key, long waitTime, TimeUnit unit, Runnable onLost,
+                                 Supplier<T> action) throws InterruptedException {
+        if (!tryLock(key, waitTime, unit, onLost)) {
+            throw new IllegalStateException("获取锁超时:" + key);
+        }
+        try {
+            return action.get();
+        } finally {
+            unlock(key);
+        }
+    }
+
+    public LockStats getStats() {
+        LockStats stats = new LockStats();
+        stats.setHeldLocks((int) entries.values().stream().filter(e -> e.remoteHeld).count());
+        stats.setAcquisitions(acquisitions.get());
+        stats.setContendedAcquisitions(contendedAcquisitions.get());
+        stats.setLocalHandoffs(localHandoffs.get());
+        stats.setRemoteAcquisitions(remoteAcquisitions.get());
+        stats.setTimeouts(timeouts.get());
+        stats.setRemoteRoundTrips(remoteRoundTrips.get());
+        stats.setRoundTripsSaved(localHandoffs.get() * 2);
+        stats.setRenewalBatches(renewalBatches.get());
+        stats.setRenewedLocks(renewedLocks.get());
+        stats.setLostLocks(lostLocks.get());
+        return stats;
+    }
+
+    private boolean acquireRemote(LockEntry entry, long deadline) throws InterruptedException {
+        List<Object> keys = Collections.singletonList(properties.getKeyPrefix() + entry.key);
+        while (true) {
+            remoteRoundTrips.incrementAndGet();
+            Long result = redissonClient.getScript().eval(RScript.Mode.READ_WRITE, StringCodec.INSTANCE,
+                    LOCK_SCRIPT, RScript.ReturnType.INTEGER, keys, token, String.valueOf(properties.getLeaseMillis()));
+            if (result != null && result == 1L) {
+                entry.remoteHeld = true;
+                return true;
+            }
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                return false;
+            }
+            Thread.sleep(Math.min(remaining, properties.getRetryIntervalMillis()));
+        }
+    }
+
+    private void releaseRemote(LockEntry entry) {
+        entry.remoteHeld = false;
+        try {
+            remoteRoundTrips.incrementAndGet();
+            redissonClient.getScript().eval(RScript.Mode.READ_WRITE, StringCodec.INSTANCE, UNLOCK_SCRIPT,
+                    RScript.ReturnType.INTEGER, Collections.singletonList(properties.getKeyPrefix() + entry.key), token);
+        } catch (Exception e) {
+            //释放失败时等待租期到期
+            log.error("释放redis锁{}失败:{}", entry.key, e.getMessage());
+        }
+    }
+
+    /**
+     * 持有者决定交接后等待的线程恰好超时放弃，redis锁会无人持有，由放弃的线程和交接的持有者各检查一次，
+     * 拿得到本机锁且没有其它线程在等时释放
+     */
+    private void releaseOrphanedRemote(LockEntry entry) {
+        if (entry.remoteHeld && entry.local.tryLock()) {
+            try {
+                if (entry.remoteHeld && !entry.local.hasQueuedThreads()) {
+                    entry.handoffs = 0;
+                    releaseRemote(entry);
+                }
+            } finally {
+                entry.local.unlock();
+            }
+        }
+    }
+
+    private void renewHeldLocks() {
+        List<LockEntry> held = new ArrayList<>();
+        for (LockEntry entry : entries.values()) {
+            if (entry.remoteHeld) {
+                held.add(entry);
+            }
+        }
+        for (int from = 0; from < held.size(); from += RENEW_BATCH_SIZE) {
+            List<LockEntry> batch = held.subList(from, Math.min(from + RENEW_BATCH_SIZE, held.size()));
+            List<Object> keys = new ArrayList<>(batch.size());
+            for (LockEntry entry : batch) {
+                keys.add(properties.getKeyPrefix() + entry.key);
+            }
+            try {
+                remoteRoundTrips.incrementAndGet();
+                List<Long> result = redissonClient.getScript().eval(RScript.Mode.READ_WRITE, StringCodec.INSTANCE,
+                        RENEW_SCRIPT, RScript.ReturnType.MULTI, keys, token, String.valueOf(properties.getLeaseMillis()));
+                renewalBatches.incrementAndGet();
+                for (int i = 0; i < batch.size(); i++) {
+                    if (result != null && i < result.size() && result.get(i) == 1L) {
+                        renewedLocks.incrementAndGet();
+                    } else if (batch.get(i).remoteHeld) {
+                        lockLost(batch.get(i));
+                    }
+                }
+            } catch (Exception e) {
+                log.error("批量续期{}个redis锁失败:{}", batch.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void lockLost(LockEntry entry) {
+        lostLocks.incrementAndGet();
+        entry.remoteHeld = false;
+        log.error("redis锁{}已过期或被其它节点持有，续期失败", entry.key);
+        Runnable onLost = entry.onLost;
+        if (onLost != null) {
+            try {
+                onLost.run();
+            } catch (Exception e) {
+                log.error("通知redis锁{}的持有者失败:{}", entry.key, e.getMessage());
+            }
+        }
+        //交接途中无人引用的条目此时才满足移除条件
+        entries.computeIfPresent(entry.key, (k, current) -> current == entry && current.refs == 0 ? null : current);
+    }
+
+    private LockEntry retain(String key) {
+        return entries.compute(key, (k, entry) -> {
+            if (entry == null) {
+                entry = new LockEntry(k);
+            }
+            entry.refs++;
+            return entry;
+        });
+    }
+
+    private void release(LockEntry entry) {
+        entries.computeIfPresent(entry.key, (k, current) -> {
+            if (current != entry) {
+                return current;
+            }
+            return --current.refs == 0 && !current.remoteHeld ? null : current;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        renewer.shutdownNow();
+    }
+
+    private static final class LockEntry {
+        final String key;
+        final ReentrantLock local = new ReentrantLock(true);
+
+        /**
+         * 引用计数，由entries.compute保护，归零且未持有redis锁时从map中移除
+         */
+        int refs;
+
+        /**
+         * 本JVM当前是否持有redis锁
+         */
+        volatile boolean remoteHeld;
+
+        /**
+         * 连续本机交接次数，只在持有本机锁时读写
+         */
+        int handoffs;
+
+        /**
+         * 当前持有者的锁丢失回调，持有者在本机锁内写入，续期线程读取
+         */
+        volatile Runnable onLost;
+
+        LockEntry(String key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.zb.redis.redisdemo.service.lock;
+
+import lombok.Data;
+
+/**
+ * @description: 分布式锁竞争及redis往返统计
+ * @author: zhangbing
+ * @create: 2026-10-18 17:00
+ **/
+@Data
+public class LockStats {
+
+    /**
+     * 当前持有redis锁的key数量
+     */
+    private int heldLocks;
+
+    private long acquisitions;
+
+    /**
+     * 获取时本机已有其它线程持有或等待同一个key
+     */
+    private long contendedAcquisitions;
+
+    /**
+     * 直接从本机上一个持有者手里接过redis锁的次数，每次都省掉了加锁和解锁两次往返
+     */
+    private long localHandoffs;
+    private long remoteAcquisitions;
+    private long timeouts;
+
+    /**
+     * 实际发生的redis往返次数及节省的往返次数
+     */
+    private long remoteRoundTrips;
+    private long roundTripsSaved;
+
+    private long renewalBatches;
+    private long renewedLocks;
+    private long lostLocks;
+}
@@ -0,0 +1,117 @@
+package com.zb.redis.redisdemo.service.metrics;
+
+import io.lettuce.core.AbstractRedisClient;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.codec.ByteArrayCodec;
+import io.lettuce.core.codec.RedisCodec;
+import io.lettuce.core.sentinel.api.StatefulRedisSentinelConnection;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.data.redis.connection.RedisSentinelConfiguration;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionProvider;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * @description: 连接池带指标的LettuceConnectionFactory
+ * 父类只接受非池化的客户端配置，连接池由本类按池化配置自行创建(InstrumentedPoolingConnectionProvider)，
+ * 以便拿到GenericObjectPool实例注册指标；主从切换后resetConnection会替换连接池，新池按新的主节点重新注册
+ * @author: zhangbing
+ * @create: 2026-10-19 19:30
+ **/
+@Log4j2
+public class InstrumentedLettuceConnectionFactory extends LettuceConnectionFactory {
+
+    public static final String STANDALONE = "standalone";
+
+    private final GenericObjectPoolConfig<?> poolConfig;
+    private final MeterRegistry registry;
+
+    /**
+     * 本工厂创建的连接池，阻塞和响应式各一个
+     */
+    private final List<InstrumentedPoolingConnectionProvider> providers = new CopyOnWriteArrayList<>();
+
+    /**
+     * @param clientConfiguration 不带连接池的客户端配置
+     * @param poolConfig          连接池配置
+     */
+    public InstrumentedLettuceConnectionFactory(RedisStandaloneConfiguration standaloneConfiguration,
+                                                LettuceClientConfiguration clientConfiguration,
+                                                GenericObjectPoolConfig<?> poolConfig, MeterRegistry registry) {
+        super(standaloneConfiguration, clientConfiguration);
+        this.poolConfig = poolConfig;
+        this.registry = registry;
+    }
+
+    /**
+     * @param clientConfiguration 不带连接池的客户端配置
+     * @param poolConfig          连接池配置
+     */
+    public InstrumentedLettuceConnectionFactory(RedisSentinelConfiguration sentinelConfiguration,
+                                                LettuceClientConfiguration clientConfiguration,
+                                                GenericObjectPoolConfig<?> poolConfig, MeterRegistry registry) {
+        super(sentinelConfiguration, clientConfiguration);
+        this.poolConfig = poolConfig;
+        this.registry = registry;
+    }
+
+    @Override
+    protected LettuceConnectionProvider doCreateConnectionProvider(AbstractRedisClient client, RedisCodec<?, ?> codec) {
+        LettuceConnectionProvider provider = super.doCreateConnectionProvider(client, codec);
+        String clientType = codec instanceof ByteArrayCodec ? "blocking" : "reactive";
+        InstrumentedPoolingConnectionProvider pooling = new InstrumentedPoolingConnectionProvider(provider, poolConfig,
+                registry, () -> Tags.of("master", masterName(), "node", currentNode(client), "client", clientType));
+        providers.add(pooling);
+        return pooling;
+    }
+
+    /**
+     * 除了共享连接，连接池也一并替换，不关闭客户端，其他线程可以继续借连接
+     */
+    @Override
+    public void resetConnection() {
+        super.resetConnection();
+        providers.forEach(InstrumentedPoolingConnectionProvider::resetPools);
+    }
+
+    @Override
+    public void destroy() {
+        super.destroy();
+        providers.clear();
+    }
+
+    public String masterName() {
+        return isRedisSentinelAware() ? getSentinelConfiguration().getMaster().getName() : STANDALONE;
+    }
+
+    /**
+     * 当前连接的节点，哨兵模式下直接用客户端连接哨兵查询当前主节点地址，
+     * 不能走getSentinelConnection，它会从连接池借连接
+     */
+    private String currentNode(AbstractRedisClient client) {
+        if (!isRedisSentinelAware()) {
+            return getHostName() + ":" + getPort();
+        }
+        String master = masterName();
+        if (client instanceof RedisClient) {
+            try (StatefulRedisSentinelConnection<String, String> sentinel = ((RedisClient) client).connectSentinel()) {
+                SocketAddress address = sentinel.sync().getMasterAddrByName(master);
+                if (address instanceof InetSocketAddress) {
+                    return ((InetSocketAddress) address).getHostString() + ":" + ((InetSocketAddress) address).getPort();
+                }
+            } catch (Exception e) {
+                log.warn("查询哨兵主节点{}地址失败:{}", master, e.getMessage());
+            }
+        }
+        return "unknown";
+    }
+}
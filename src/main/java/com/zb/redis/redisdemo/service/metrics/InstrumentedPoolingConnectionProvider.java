@@ -0,0 +1,166 @@
+package com.zb.redis.redisdemo.service.metrics;
+
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.support.ConnectionPoolSupport;
+import io.micrometer.core.instrument.*;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.PoolException;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @description: 带指标的连接池，行为与spring-data-redis的LettucePoolingConnectionProvider一致，
+ * 每种连接类型一个GenericObjectPool，池创建时注册以下指标，标签为master、node、client、type：
+ * redis.pool.active/idle/waiting/max.active/max.idle 当前连接数，
+ * redis.pool.created/destroyed 累计创建、销毁的物理连接数，max-idle过小时两者会持续增长，
+ * redis.pool.borrow 借连接的等待时间直方图，redis.pool.borrow.failures 借连接失败(等待超时)次数
+ * @author: zhangbing
+ * @create: 2026-10-19 19:10
+ **/
+@Log4j2
+public class InstrumentedPoolingConnectionProvider implements LettuceConnectionProvider, DisposableBean {
+
+    private final LettuceConnectionProvider connectionProvider;
+    private final GenericObjectPoolConfig<?> poolConfig;
+    private final MeterRegistry registry;
+    private final Supplier<Tags> tagsSupplier;
+
+    private final Map<StatefulConnection<?, ?>, GenericObjectPool<StatefulConnection<?, ?>>> poolRef =
+            new ConcurrentHashMap<>(32);
+    private final Map<Class<?>, InstrumentedPool> pools = new ConcurrentHashMap<>(8);
+
+    /**
+     * @param connectionProvider 创建物理连接的provider
+     * @param tagsSupplier       池创建时调用，返回master、node、client标签
+     */
+    public InstrumentedPoolingConnectionProvider(LettuceConnectionProvider connectionProvider,
+                                                 GenericObjectPoolConfig<?> poolConfig, MeterRegistry registry,
+                                                 Supplier<Tags> tagsSupplier) {
+        this.connectionProvider = connectionProvider;
+        this.poolConfig = poolConfig;
+        this.registry = registry;
+        this.tagsSupplier = tagsSupplier;
+    }
+
+    @Override
+    public <T extends StatefulConnection<?, ?>> T getConnection(Class<T> connectionType) {
+        while (true) {
+            InstrumentedPool pool = pools.get(connectionType);
+            if (pool == null) {
+                // 标签可能需要查询哨兵，放在computeIfAbsent外面
+                Tags tags = tagsSupplier.get().and("type", connectionType.getSimpleName());
+                pool = pools.computeIfAbsent(connectionType, type -> createPool(type, tags));
+            }
+            long start = System.nanoTime();
+            try {
+                StatefulConnection<?, ?> connection = pool.pool.borrowObject();
+                poolRef.put(connection, pool.pool);
+                return connectionType.cast(connection);
+            } catch (Exception e) {
+                if (pool.pool.isClosed()) {
+                    //池刚被resetPools替换，到新池重新借
+                    continue;
+                }
+                pool.borrowFailures.increment();
+                throw new PoolException("Could not get a resource from the pool", e);
+            } finally {
+                pool.borrowTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    /**
+     * 主从切换后替换所有连接池：旧池立即关闭并销毁空闲连接，借出中的连接归还时销毁，
+     * 之后借连接时按新的主节点标签创建新池，新连接经哨兵解析到新主节点；借出中的连接不受影响
+     */
+    public void resetPools() {
+        for (Class<?> type : new ArrayList<>(pools.keySet())) {
+            InstrumentedPool pool = pools.remove(type);
+            if (pool != null) {
+                pool.close();
+                log.info("redis连接池已替换，类型:{}", type.getSimpleName());
+            }
+        }
+    }
+
+    @Override
+    public void release(StatefulConnection<?, ?> connection) {
+        GenericObjectPool<StatefulConnection<?, ?>> pool = poolRef.remove(connection);
+        if (pool == null) {
+            throw new PoolException("Returned connection " + connection
+                    + " was either previously returned or does not belong to this connection provider");
+        }
+        pool.returnObject(connection);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        poolRef.forEach((connection, pool) -> pool.returnObject(connection));
+        poolRef.clear();
+        pools.forEach((type, pool) -> pool.close());
+        pools.clear();
+        if (connectionProvider instanceof DisposableBean) {
+            ((DisposableBean) connectionProvider).destroy();
+        }
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private InstrumentedPool createPool(Class<?> connectionType, Tags tags) {
+        GenericObjectPool<StatefulConnection<?, ?>> pool = ConnectionPoolSupport.createGenericObjectPool(
+                () -> connectionProvider.getConnection((Class) connectionType), poolConfig, false);
+        log.info("redis连接池已创建，标签:{}", tags);
+        return new InstrumentedPool(pool, registry, tags);
+    }
+
+    private static final class InstrumentedPool {
+        final GenericObjectPool<StatefulConnection<?, ?>> pool;
+        final Timer borrowTimer;
+        final Counter borrowFailures;
+        final MeterRegistry registry;
+        final List<Meter> meters = new ArrayList<>();
+
+        InstrumentedPool(GenericObjectPool<StatefulConnection<?, ?>> pool, MeterRegistry registry, Tags tags) {
+            this.pool = pool;
+            this.registry = registry;
+            meters.add(Gauge.builder("redis.pool.active", pool, GenericObjectPool::getNumActive)
+                    .description("借出中的连接数").tags(tags).register(registry));
+            meters.add(Gauge.builder("redis.pool.idle", pool, GenericObjectPool::getNumIdle)
+                    .description("空闲连接数").tags(tags).register(registry));
+            meters.add(Gauge.builder("redis.pool.waiting", pool, GenericObjectPool::getNumWaiters)
+                    .description("等待借连接的线程数").tags(tags).register(registry));
+            meters.add(Gauge.builder("redis.pool.max.active", pool, GenericObjectPool::getMaxTotal)
+                    .tags(tags).register(registry));
+            meters.add(Gauge.builder("redis.pool.max.idle", pool, GenericObjectPool::getMaxIdle)
+                    .tags(tags).register(registry));
+            meters.add(FunctionCounter.builder("redis.pool.created", pool, GenericObjectPool::getCreatedCount)
+                    .description("累计创建的物理连接数").tags(tags).register(registry));
+            meters.add(FunctionCounter.builder("redis.pool.destroyed", pool, GenericObjectPool::getDestroyedCount)
+                    .description("累计销毁的物理连接数").tags(tags).register(registry));
+            borrowTimer = Timer.builder("redis.pool.borrow")
+                    .description("借连接的等待时间，包含新建连接的耗时")
+                    .tags(tags)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .publishPercentileHistogram()
+                    .register(registry);
+            borrowFailures = Counter.builder("redis.pool.borrow.failures")
+                    .description("借连接失败次数，通常是等待超过max-wait")
+                    .tags(tags).register(registry);
+            meters.add(borrowTimer);
+            meters.add(borrowFailures);
+        }
+
+        void close() {
+            pool.close();
+            meters.forEach(registry::remove);
+        }
+    }
+}
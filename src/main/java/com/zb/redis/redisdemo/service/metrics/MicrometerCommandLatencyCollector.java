@@ -0,0 +1,99 @@
+package com.zb.redis.redisdemo.service.metrics;
+
+import io.lettuce.core.metrics.CommandLatencyCollector;
+import io.lettuce.core.metrics.CommandLatencyId;
+import io.lettuce.core.metrics.CommandMetrics;
+import io.lettuce.core.protocol.ProtocolKeyword;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 把lettuce的命令耗时记录到micrometer，指标redis.commands，标签为master、node(命令实际发往的节点)和command，
+ * 耗时从命令写出到收到完整响应；需要分位数时配置 management.metrics.distribution.percentiles-histogram.redis.commands=true
+ * @author: zhangbing
+ * @create: 2026-10-19 19:50
+ **/
+public class MicrometerCommandLatencyCollector implements CommandLatencyCollector {
+
+    private final MeterRegistry registry;
+    private final String master;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public MicrometerCommandLatencyCollector(MeterRegistry registry, String master) {
+        this.registry = registry;
+        this.master = master;
+    }
+
+    @Override
+    public void recordCommandLatency(SocketAddress local, SocketAddress remote, ProtocolKeyword commandType,
+                                     long firstResponseLatency, long completionLatency) {
+        TimerKey key = new TimerKey(remote, commandType.name());
+        Timer timer = timers.get(key);
+        if (timer == null) {
+            timer = timers.computeIfAbsent(key, k -> Timer.builder("redis.commands")
+                    .description("redis命令耗时")
+                    .tags("master", master, "node", node(k.remote), "command", k.command)
+                    .register(registry));
+        }
+        timer.record(completionLatency, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public Map<CommandLatencyId, CommandMetrics> retrieveMetrics() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public void shutdown() {
+        timers.values().forEach(registry::remove);
+        timers.clear();
+    }
+
+    private static String node(SocketAddress address) {
+        if (address instanceof InetSocketAddress) {
+            InetSocketAddress inet = (InetSocketAddress) address;
+            return inet.getHostString() + ":" + inet.getPort();
+        }
+        return String.valueOf(address);
+    }
+
+    private static final class TimerKey {
+        final SocketAddress remote;
+        final String command;
+
+        TimerKey(SocketAddress remote, String command) {
+            this.remote = remote;
+            this.command = command;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TimerKey)) {
+                return false;
+            }
+            TimerKey other = (TimerKey) o;
+            return Objects.equals(remote, other.remote) && command.equals(other.command);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Objects.hashCode(remote) + command.hashCode();
+        }
+    }
+}
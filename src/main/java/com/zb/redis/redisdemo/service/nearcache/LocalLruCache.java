@@ -0,0 +1,151 @@
+package com.zb.redis.redisdemo.service.nearcache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 按条目数和估算字节数双重限制的LRU缓存
+ * 基于访问顺序的LinkedHashMap，读写都在同一把锁内完成，读命中只需要一次链表调整
+ * @author: zhangbing
+ * @create: 2026-10-18 13:20
+ **/
+public class LocalLruCache {
+
+    /**
+     * 每个条目的固定开销估算：map节点、两个String对象头、数组头及过期时间
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    private final long expireAfterWriteMillis;
+    private final LinkedHashMap<String, Entry> map;
+    private long bytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public LocalLruCache(int maxEntries, long maxBytes, long expireAfterWriteMillis) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+        this.map = new LinkedHashMap<>(Math.min(maxEntries, 1 << 16), 0.75f, true);
+    }
+
+    public String get(String key) {
+        synchronized (map) {
+            Entry entry = map.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.expireAt > 0 && entry.expireAt < System.currentTimeMillis()) {
+                removeEntry(key, entry);
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.value;
+        }
+    }
+
+    public void put(String key, String value) {
+        putIfUnchanged(key, value, null, 0);
+    }
+
+    /**
+     * version仍等于expected时才写入，判断和写入在同一把锁内完成；
+     * 失效方先递增version再调用invalidate，两者之间不会有旧值写进来
+     *
+     * @param version 为null时直接写入
+     */
+    public void putIfUnchanged(String key, String value, AtomicLong version, long expected) {
+        int size = sizeOf(key, value);
+        if (size > maxBytes) {
+            return;
+        }
+        long expireAt = expireAfterWriteMillis > 0 ? System.currentTimeMillis() + expireAfterWriteMillis : 0;
+        synchronized (map) {
+            if (version != null && version.get() != expected) {
+                return;
+            }
+            Entry previous = map.put(key, new Entry(value, size, expireAt));
+            if (previous != null) {
+                bytes -= previous.size;
+            }
+            bytes += size;
+            evictIfNecessary();
+        }
+    }
+
+    public void invalidate(String key) {
+        synchronized (map) {
+            Entry entry = map.get(key);
+            if (entry != null) {
+                removeEntry(key, entry);
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (map) {
+            invalidations.addAndGet(map.size());
+            map.clear();
+            bytes = 0;
+        }
+    }
+
+    public NearCacheStats stats() {
+        NearCacheStats stats = new NearCacheStats();
+        synchronized (map) {
+            stats.setEntries(map.size());
+            stats.setBytes(bytes);
+        }
+        stats.setMaxEntries(maxEntries);
+        stats.setMaxBytes(maxBytes);
+        stats.setHits(hits.get());
+        stats.setMisses(misses.get());
+        stats.setEvictions(evictions.get());
+        stats.setExpirations(expirations.get());
+        stats.setInvalidations(invalidations.get());
+        return stats;
+    }
+
+    private void evictIfNecessary() {
+        Iterator<Map.Entry<String, Entry>> iterator = map.entrySet().iterator();
+        while ((map.size() > maxEntries || bytes > maxBytes) && iterator.hasNext()) {
+            Entry eldest = iterator.next().getValue();
+            iterator.remove();
+            bytes -= eldest.size;
+            evictions.incrementAndGet();
+        }
+    }
+
+    private void removeEntry(String key, Entry entry) {
+        map.remove(key);
+        bytes -= entry.size;
+    }
+
+    private static int sizeOf(String key, String value) {
+        return ENTRY_OVERHEAD + 2 * (key.length() + value.length());
+    }
+
+    private static final class Entry {
+        final String value;
+        final int size;
+        final long expireAt;
+
+        Entry(String value, int size, long expireAt) {
+            this.value = value;
+            this.size = size;
+            this.expireAt = expireAt;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.zb.redis.redisdemo.service.nearcache;
+
+import lombok.Data;
+
+/**
+ * @description: 近端缓存命中率与容量统计
+ * @author: zhangbing
+ * @create: 2026-10-18 13:12
+ **/
+@Data
+public class NearCacheStats {
+
+    private int entries;
+    private long bytes;
+    private int maxEntries;
+    private long maxBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long expirations;
+    private long invalidations;
+
+    /**
+     * 失效订阅是否已通过心跳确认，为false时读取不经过本地缓存
+     */
+    private boolean subscribed;
+
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
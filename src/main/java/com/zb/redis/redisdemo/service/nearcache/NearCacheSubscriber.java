@@ -0,0 +1,99 @@
+package com.zb.redis.redisdemo.service.nearcache;
+
+import io.lettuce.core.RedisChannelHandler;
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisConnectionStateAdapter;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.pubsub.RedisPubSubAdapter;
+import io.lettuce.core.pubsub.StatefulRedisPubSubConnection;
+import io.lettuce.core.resource.ClientResources;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.util.StringUtils;
+
+/**
+ * @description: 近端缓存失效消息的订阅
+ * 使用独立的lettuce订阅连接，而不是RedisMessageListenerContainer：lettuce断线后会自动重连并重新订阅，
+ * 只有在连接层才能知道中间断开过，断开时通知NearCachedValueOperations清空并暂停本地缓存，
+ * 重新订阅后由下一个心跳恢复
+ * @author: zhangbing
+ * @create: 2026-10-18 14:10
+ **/
+@Log4j2
+public class NearCacheSubscriber implements InitializingBean, DisposableBean {
+
+    private final RedisProperties redisProperties;
+    private final ClientResources clientResources;
+    private final NearCachedValueOperations nearCachedValueOperations;
+    private final String channel;
+
+    private RedisClient client;
+    private StatefulRedisPubSubConnection<String, String> connection;
+
+    public NearCacheSubscriber(RedisProperties redisProperties, ClientResources clientResources,
+                               NearCachedValueOperations nearCachedValueOperations, String channel) {
+        this.redisProperties = redisProperties;
+        this.clientResources = clientResources;
+        this.nearCachedValueOperations = nearCachedValueOperations;
+        this.channel = channel;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        client = RedisClient.create(clientResources);
+        client.addListener(new RedisConnectionStateAdapter() {
+            @Override
+            public void onRedisDisconnected(RedisChannelHandler<?, ?> handler) {
+                nearCachedValueOperations.subscriptionLost("订阅连接断开");
+            }
+        });
+        connection = client.connectPubSub(toRedisURI());
+        connection.addListener(new RedisPubSubAdapter<String, String>() {
+            @Override
+            public void message(String channel, String message) {
+                nearCachedValueOperations.onMessage(message);
+            }
+        });
+        connection.sync().subscribe(channel);
+        log.info("近端缓存已订阅失效频道{}", channel);
+    }
+
+    /**
+     * 配置了哨兵时经哨兵解析主节点，主从切换后重连到新主节点
+     */
+    private RedisURI toRedisURI() {
+        RedisProperties.Sentinel sentinel = redisProperties.getSentinel();
+        RedisURI.Builder builder;
+        if (sentinel != null && sentinel.getMaster() != null) {
+            builder = null;
+            for (String node : sentinel.getNodes()) {
+                int index = node.lastIndexOf(':');
+                String host = node.substring(0, index).trim();
+                int port = Integer.parseInt(node.substring(index + 1).trim());
+                builder = builder == null ? RedisURI.Builder.sentinel(host, port, sentinel.getMaster())
+                        : builder.withSentinel(host, port);
+            }
+        } else {
+            builder = RedisURI.Builder.redis(redisProperties.getHost(), redisProperties.getPort());
+        }
+        if (StringUtils.hasText(redisProperties.getPassword())) {
+            builder.withPassword(redisProperties.getPassword());
+        }
+        if (redisProperties.getTimeout() != null) {
+            builder.withTimeout(redisProperties.getTimeout());
+        }
+        return builder.withDatabase(redisProperties.getDatabase()).build();
+    }
+
+    @Override
+    public void destroy() {
+        if (connection != null) {
+            connection.close();
+        }
+        if (client != null) {
+            client.shutdown();
+        }
+    }
+}
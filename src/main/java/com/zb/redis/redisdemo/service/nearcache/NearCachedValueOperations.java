@@ -0,0 +1,176 @@
+package com.zb.redis.redisdemo.service.nearcache;
+
+import com.zb.redis.redisdemo.config.NearCacheProperties;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 带本地近端缓存的opsForValue读写
+ * 读先查本地LRU，未命中再读redis并回填；写和删除先写redis，再清本地并通过pub/sub通知其它节点清除同一个key。
+ * 只适合读多写少、能接受极短暂旧值的key，写入必须经过本类才能触发跨节点失效；
+ * 订阅连接断开时(NearCacheSubscriber通知)或超时收不到自己的心跳时，清空本地缓存并暂停回填；
+ * lettuce重连并自动重新订阅后，收到下一个心跳才恢复使用本地缓存，恢复前再清空一次，丢弃断开期间可能漏掉的失效
+ * @author: zhangbing
+ * @create: 2026-10-18 13:35
+ **/
+@Log4j2
+public class NearCachedValueOperations {
+
+    private static final char SEPARATOR = '|';
+    private static final String HEARTBEAT = "!heartbeat:";
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final LocalLruCache cache;
+    private final String channel;
+
+    /**
+     * 节点标识，忽略自己发出的失效消息
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * 每次失效先加一再清本地，读redis期间发生过失效则不回填，避免把旧值写回本地；
+     * 回填时在LocalLruCache的锁内比较，比较通过后到写入前不会插入失效
+     */
+    private final AtomicLong invalidationSeq = new AtomicLong();
+
+    /**
+     * 本节点的心跳消息为heartbeatPrefix + 序号，不含SEPARATOR，其它节点按格式不符忽略
+     */
+    private final String heartbeatPrefix = nodeId + HEARTBEAT;
+    private final AtomicLong heartbeatSeq = new AtomicLong();
+    private final long heartbeatTimeoutMillis;
+    private volatile long lastHeartbeatAt = System.currentTimeMillis();
+    private volatile long lastHeartbeatSeq;
+
+    /**
+     * 收到过自己的心跳且没有超时，为false时不使用本地缓存；启动时订阅尚未确认，也为false
+     */
+    private volatile boolean subscribed;
+
+    public NearCachedValueOperations(StringRedisTemplate stringRedisTemplate, NearCacheProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cache = new LocalLruCache(properties.getMaxEntries(), properties.getMaxBytes(),
+                properties.getExpireAfterWriteMillis());
+        this.channel = properties.getChannel();
+        this.heartbeatTimeoutMillis = properties.getHeartbeatTimeoutMillis();
+    }
+
+    public String get(String key) {
+        String value = cache.get(key);
+        if (value != null) {
+            return value;
+        }
+        long seq = invalidationSeq.get();
+        value = stringRedisTemplate.opsForValue().get(key);
+        if (value != null && subscribed) {
+            cache.putIfUnchanged(key, value, invalidationSeq, seq);
+        }
+        return value;
+    }
+
+    public void set(String key, String value) {
+        stringRedisTemplate.opsForValue().set(key, value);
+        invalidate(key);
+    }
+
+    public void set(String key, String value, long timeout, TimeUnit unit) {
+        stringRedisTemplate.opsForValue().set(key, value, timeout, unit);
+        invalidate(key);
+    }
+
+    public Boolean delete(String key) {
+        Boolean deleted = stringRedisTemplate.delete(key);
+        invalidate(key);
+        return deleted;
+    }
+
+    public NearCacheStats stats() {
+        NearCacheStats stats = cache.stats();
+        stats.setSubscribed(subscribed);
+        return stats;
+    }
+
+    /**
+     * 发送心跳，并检查上一次收到自己的心跳是否已超时
+     */
+    @Scheduled(fixedDelayString = "${redis.near-cache.heartbeat-millis:1000}")
+    public void heartbeat() {
+        long silence = System.currentTimeMillis() - lastHeartbeatAt;
+        if (silence > heartbeatTimeoutMillis) {
+            subscriptionLost(silence + "ms未收到心跳");
+        }
+        try {
+            stringRedisTemplate.convertAndSend(channel, heartbeatPrefix + heartbeatSeq.incrementAndGet());
+        } catch (Exception e) {
+            log.warn("发送近端缓存心跳失败:{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 订阅连接断开，清空本地缓存并暂停回填，直到重新订阅后收到心跳
+     *
+     * @param reason 日志中的原因
+     */
+    public synchronized void subscriptionLost(String reason) {
+        if (subscribed) {
+            subscribed = false;
+            clear();
+            log.warn("近端缓存失效订阅中断({})，清空本地缓存并暂停回填", reason);
+        }
+    }
+
+    /**
+     * 收到其它节点的失效消息，格式为 nodeId|key；以及自己的心跳
+     */
+    public void onMessage(String body) {
+        if (body.startsWith(heartbeatPrefix)) {
+            onHeartbeat(Long.parseLong(body.substring(heartbeatPrefix.length())));
+            return;
+        }
+        int index = body.indexOf(SEPARATOR);
+        if (index < 0 || body.regionMatches(0, nodeId, 0, index) && index == nodeId.length()) {
+            return;
+        }
+        invalidationSeq.incrementAndGet();
+        cache.invalidate(body.substring(index + 1));
+    }
+
+    private synchronized void onHeartbeat(long seq) {
+        lastHeartbeatAt = System.currentTimeMillis();
+        if (!subscribed) {
+            //断开期间的失效消息已经丢失，恢复前再清空一次
+            clear();
+            subscribed = true;
+            log.info("近端缓存失效订阅已确认，开始使用本地缓存");
+        } else if (seq != lastHeartbeatSeq + 1) {
+            //心跳丢失说明期间的失效消息也可能丢失
+            clear();
+            log.warn("近端缓存心跳序号不连续({} -> {})，清空本地缓存", lastHeartbeatSeq, seq);
+        }
+        lastHeartbeatSeq = seq;
+    }
+
+    /**
+     * 清空本地缓存，订阅中断、恢复或心跳不连续时调用，正在进行的读取不会再回填
+     */
+    public void clear() {
+        invalidationSeq.incrementAndGet();
+        cache.clear();
+    }
+
+    private void invalidate(String key) {
+        invalidationSeq.incrementAndGet();
+        cache.invalidate(key);
+        try {
+            stringRedisTemplate.convertAndSend(channel, nodeId + SEPARATOR + key);
+        } catch (Exception e) {
+            log.error("发布近端缓存失效消息失败，key={}:{}", key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.zb.redis.redisdemo.service.ratelimit;
+
+import java.lang.annotation.*;
+
+/**
+ * @description: 接口限流，标注在controller的类或方法上，同一个key在所有节点共享额度，超过时返回429
+ * @author: zhangbing
+ * @create: 2026-10-20 09:20
+ **/
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RateLimit {
+
+    /**
+     * 限流key，为空时使用 类名.方法名
+     */
+    String key() default "";
+
+    /**
+     * 每个周期的许可数
+     */
+    long permits();
+
+    /**
+     * 周期，单位毫秒
+     */
+    long periodMillis() default 1000;
+
+    /**
+     * 令牌桶容量，即允许的突发数，0表示等于permits，滑动窗口忽略该值
+     */
+    long burst() default 0;
+
+    RateLimitAlgorithm algorithm() default RateLimitAlgorithm.TOKEN_BUCKET;
+}
@@ -0,0 +1,58 @@
+package com.zb.redis.redisdemo.service.ratelimit;
+
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * @description: 限流算法，每种算法是一条原子执行的lua脚本，按请求的数量尽量发放许可，返回实际发放数
+ * 脚本参数：ARGV[1] 周期内许可数，ARGV[2] 周期毫秒数，ARGV[3] 令牌桶容量，ARGV[4] 请求的许可数；
+ * 时间取redis服务端的TIME，各节点时钟不一致不影响限流
+ * @author: zhangbing
+ * @create: 2026-10-20 09:15
+ **/
+public enum RateLimitAlgorithm {
+
+    /**
+     * 令牌桶：按速率连续补充令牌，最多累积到容量，允许容量以内的突发
+     */
+    TOKEN_BUCKET("redis.replicate_commands() " +
+            "local rate = tonumber(ARGV[1]) / tonumber(ARGV[2]) " +
+            "local capacity = tonumber(ARGV[3]) " +
+            "local t = redis.call('time') " +
+            "local now = t[1] * 1000 + math.floor(t[2] / 1000) " +
+            "local state = redis.call('hmget', KEYS[1], 'tokens', 'ts') " +
+            "local tokens = tonumber(state[1]) or capacity " +
+            "local ts = tonumber(state[2]) or now " +
+            "if now > ts then tokens = math.min(capacity, tokens + (now - ts) * rate) end " +
+            "local granted = math.min(tonumber(ARGV[4]), math.floor(tokens)) " +
+            "redis.call('hmset', KEYS[1], 'tokens', tostring(tokens - granted), 'ts', now) " +
+            "redis.call('pexpire', KEYS[1], math.ceil(capacity / rate) + 1000) " +
+            "return granted"),
+
+    /**
+     * 滑动窗口计数：当前固定窗口计数加上一窗口按剩余比例折算的计数，不超过周期内许可数
+     */
+    SLIDING_WINDOW("redis.replicate_commands() " +
+            "local limit = tonumber(ARGV[1]) " +
+            "local window = tonumber(ARGV[2]) " +
+            "local t = redis.call('time') " +
+            "local now = t[1] * 1000 + math.floor(t[2] / 1000) " +
+            "local current = math.floor(now / window) " +
+            "local counts = redis.call('hmget', KEYS[1], current, current - 1) " +
+            "local used = (tonumber(counts[2]) or 0) * (1 - (now % window) / window) + (tonumber(counts[1]) or 0) " +
+            "local granted = math.max(0, math.min(tonumber(ARGV[4]), math.floor(limit - used))) " +
+            "if granted > 0 then redis.call('hincrby', KEYS[1], current, granted) end " +
+            "redis.call('hdel', KEYS[1], current - 2) " +
+            "redis.call('pexpire', KEYS[1], window * 2) " +
+            "return granted");
+
+    private final RedisScript<Long> script;
+
+    RateLimitAlgorithm(String script) {
+        this.script = new DefaultRedisScript<>(script, Long.class);
+    }
+
+    public RedisScript<Long> script() {
+        return script;
+    }
+}
@@ -0,0 +1,81 @@
+package com.zb.redis.redisdemo.service.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zb.redis.redisdemo.utils.Result;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @description: 按controller上的@RateLimit限流，方法上的注解优先于类上的注解，超限返回429
+ * @author: zhangbing
+ * @create: 2026-10-20 09:45
+ **/
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final RedisRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 方法 -> 注解及限流key，避免每次请求都解析注解
+     */
+    private final ConcurrentHashMap<Method, Optional<ResolvedLimit>> limits = new ConcurrentHashMap<>();
+
+    public RateLimitInterceptor(RedisRateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        Optional<ResolvedLimit> limit = limits.computeIfAbsent(((HandlerMethod) handler).getMethod(), this::resolve);
+        if (!limit.isPresent()) {
+            return true;
+        }
+        RateLimit rateLimit = limit.get().rateLimit;
+        if (rateLimiter.tryAcquire(limit.get().key, rateLimit.algorithm(), rateLimit.permits(),
+                rateLimit.periodMillis(), rateLimit.burst())) {
+            return true;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.APPLICATION_JSON_UTF8_VALUE);
+        response.getOutputStream().write(objectMapper.writeValueAsString(Result.failed("请求过于频繁，请稍后再试"))
+                .getBytes(StandardCharsets.UTF_8));
+        return false;
+    }
+
+    private Optional<ResolvedLimit> resolve(Method method) {
+        RateLimit rateLimit = AnnotatedElementUtils.findMergedAnnotation(method, RateLimit.class);
+        if (rateLimit == null) {
+            rateLimit = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), RateLimit.class);
+        }
+        if (rateLimit == null) {
+            return Optional.empty();
+        }
+        String key = rateLimit.key().isEmpty()
+                ? method.getDeclaringClass().getSimpleName() + "." + method.getName() : rateLimit.key();
+        return Optional.of(new ResolvedLimit(rateLimit, key));
+    }
+
+    private static final class ResolvedLimit {
+        final RateLimit rateLimit;
+        final String key;
+
+        ResolvedLimit(RateLimit rateLimit, String key) {
+            this.rateLimit = rateLimit;
+            this.key = key;
+        }
+    }
+}
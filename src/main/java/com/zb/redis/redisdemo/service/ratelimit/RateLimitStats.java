@@ -0,0 +1,60 @@
+package com.zb.redis.redisdemo.service.ratelimit;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * @description: 限流统计
+ * @author: zhangbing
+ * @create: 2026-10-20 09:25
+ **/
+@Data
+public class RateLimitStats {
+
+    private long requests;
+    private long rejected;
+
+    /**
+     * 被拒绝后在本地直接拒绝、没有访问redis的次数
+     */
+    private long localRejected;
+
+    /**
+     * 访问redis预取许可的次数及取到的许可总数
+     */
+    private long remoteFetches;
+    private long fetchedPermits;
+
+    /**
+     * 预取后过期未使用而丢弃的许可数
+     */
+    private long expiredPermits;
+    private long redisErrors;
+
+    /**
+     * 平均每次访问redis服务的请求数
+     */
+    private double requestsPerRemoteFetch;
+
+    private List<Limiter> limiters;
+
+    @Data
+    public static class Limiter {
+        private String key;
+        private RateLimitAlgorithm algorithm;
+        private long permits;
+        private long periodMillis;
+
+        /**
+         * 本机尚未使用的预取许可
+         */
+        private int localPermits;
+
+        /**
+         * 下一次预取的批量大小
+         */
+        private int batchSize;
+        private double observedRatePerSecond;
+    }
+}
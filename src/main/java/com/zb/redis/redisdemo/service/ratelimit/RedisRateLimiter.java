@@ -0,0 +1,200 @@
+package com.zb.redis.redisdemo.service.ratelimit;
+
+import com.zb.redis.redisdemo.config.RateLimitProperties;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 基于redis的分布式限流
+ * 额度保存在redis中由lua脚本原子扣减，每个节点一次预取一批许可在本地消费，本地用完才再访问redis；
+ * 批量大小按本机观测到的速率调整，低速时每次只取一个，不会囤积其它节点需要的许可；
+ * redis一个许可都不发放时，本机在预计补充出下一个许可之前直接拒绝，超限流量不会每次都打到redis
+ * @author: zhangbing
+ * @create: 2026-10-20 09:30
+ **/
+@Log4j2
+@Service
+public class RedisRateLimiter {
+
+    /**
+     * 速率的指数移动平均权重
+     */
+    private static final double RATE_SMOOTHING = 0.3;
+
+    /**
+     * 被拒绝后本地直接拒绝的最长时间，单位毫秒
+     */
+    private static final long MAX_REJECT_MILLIS = 1000;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private RateLimitProperties properties;
+
+    private final ConcurrentHashMap<String, LocalPermits> limiters = new ConcurrentHashMap<>();
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong localRejected = new AtomicLong();
+    private final AtomicLong remoteFetches = new AtomicLong();
+    private final AtomicLong fetchedPermits = new AtomicLong();
+    private final AtomicLong expiredPermits = new AtomicLong();
+    private final AtomicLong redisErrors = new AtomicLong();
+
+    /**
+     * 获取一个许可
+     *
+     * @param key          限流key，所有节点共享额度
+     * @param algorithm    限流算法
+     * @param permits      每个周期的许可数
+     * @param periodMillis 周期，单位毫秒
+     * @param burst        令牌桶容量，0表示等于permits
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire(String key, RateLimitAlgorithm algorithm, long permits, long periodMillis, long burst) {
+        if (permits <= 0 || periodMillis <= 0) {
+            throw new IllegalArgumentException("限流额度和周期必须大于0:" + key);
+        }
+        requests.incrementAndGet();
+        LocalPermits local = limiters.computeIfAbsent(key,
+                k -> new LocalPermits(k, algorithm, permits, periodMillis, burst > 0 ? burst : permits));
+        boolean acquired = local.tryAcquire();
+        if (!acquired) {
+            rejected.incrementAndGet();
+        }
+        return acquired;
+    }
+
+    public RateLimitStats getStats() {
+        RateLimitStats stats = new RateLimitStats();
+        stats.setRequests(requests.get());
+        stats.setRejected(rejected.get());
+        stats.setLocalRejected(localRejected.get());
+        stats.setRemoteFetches(remoteFetches.get());
+        stats.setFetchedPermits(fetchedPermits.get());
+        stats.setExpiredPermits(expiredPermits.get());
+        stats.setRedisErrors(redisErrors.get());
+        long remote = remoteFetches.get();
+        stats.setRequestsPerRemoteFetch(remote == 0 ? 0 : (double) requests.get() / remote);
+        List<RateLimitStats.Limiter> list = new ArrayList<>(limiters.size());
+        for (LocalPermits local : limiters.values()) {
+            list.add(local.snapshot());
+        }
+        stats.setLimiters(list);
+        return stats;
+    }
+
+    private final class LocalPermits {
+        final String key;
+        final String redisKey;
+        final RateLimitAlgorithm algorithm;
+        final long permits;
+        final long periodMillis;
+        final long capacity;
+        final int batchLimit;
+
+        int available;
+        long fetchedAt;
+        long rejectUntil;
+        int consumedSinceFetch;
+        double ratePerMilli;
+        int batchSize;
+
+        LocalPermits(String key, RateLimitAlgorithm algorithm, long permits, long periodMillis, long capacity) {
+            this.key = key;
+            this.redisKey = properties.getKeyPrefix() + key;
+            this.algorithm = algorithm;
+            this.permits = permits;
+            this.periodMillis = periodMillis;
+            this.capacity = capacity;
+            this.batchLimit = (int) Math.max(properties.getMinBatch(),
+                    Math.min(properties.getMaxBatch(), permits / 10));
+            this.batchSize = properties.getMinBatch();
+        }
+
+        /**
+         * 同一个key的本机请求在这里串行，本地许可用完时只有一个线程去redis取，其余线程拿到它取回的许可
+         */
+        synchronized boolean tryAcquire() {
+            long now = System.currentTimeMillis();
+            if (available > 0 && now - fetchedAt > properties.getPrefetchTtlMillis()) {
+                expiredPermits.addAndGet(available);
+                available = 0;
+            }
+            if (available > 0) {
+                available--;
+                consumedSinceFetch++;
+                return true;
+            }
+            if (now < rejectUntil) {
+                localRejected.incrementAndGet();
+                return false;
+            }
+            adaptBatchSize(now);
+            int granted = fetch(batchSize);
+            if (granted < 0) {
+                return properties.isFailOpen();
+            }
+            fetchedAt = now;
+            consumedSinceFetch = 0;
+            if (granted == 0) {
+                rejectUntil = now + Math.min(MAX_REJECT_MILLIS, Math.max(1, periodMillis / permits));
+                return false;
+            }
+            available = granted - 1;
+            consumedSinceFetch = 1;
+            return true;
+        }
+
+        private void adaptBatchSize(long now) {
+            if (fetchedAt > 0) {
+                double observed = consumedSinceFetch / (double) Math.max(1, now - fetchedAt);
+                ratePerMilli = ratePerMilli == 0 ? observed
+                        : RATE_SMOOTHING * observed + (1 - RATE_SMOOTHING) * ratePerMilli;
+            }
+            int target = (int) Math.ceil(ratePerMilli * properties.getBatchTargetMillis());
+            batchSize = Math.max(properties.getMinBatch(), Math.min(batchLimit, target));
+        }
+
+        /**
+         * @return 发放的许可数，redis异常时返回-1
+         */
+        private int fetch(int requested) {
+            remoteFetches.incrementAndGet();
+            try {
+                Long granted = stringRedisTemplate.execute(algorithm.script(), Collections.singletonList(redisKey),
+                        String.valueOf(permits), String.valueOf(periodMillis), String.valueOf(capacity),
+                        String.valueOf(requested));
+                int result = granted == null ? 0 : granted.intValue();
+                fetchedPermits.addAndGet(result);
+                return result;
+            } catch (Exception e) {
+                redisErrors.incrementAndGet();
+                log.error("限流脚本执行失败，key={}:{}", key, e.getMessage());
+                return -1;
+            }
+        }
+
+        synchronized RateLimitStats.Limiter snapshot() {
+            RateLimitStats.Limiter limiter = new RateLimitStats.Limiter();
+            limiter.setKey(key);
+            limiter.setAlgorithm(algorithm);
+            limiter.setPermits(permits);
+            limiter.setPeriodMillis(periodMillis);
+            limiter.setLocalPermits(available);
+            limiter.setBatchSize(batchSize);
+            limiter.setObservedRatePerSecond(ratePerMilli * TimeUnit.SECONDS.toMillis(1));
+            return limiter;
+        }
+    }
+}
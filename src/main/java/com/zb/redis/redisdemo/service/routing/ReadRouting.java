@@ -0,0 +1,39 @@
+package com.zb.redis.redisdemo.service.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * @description: 单次操作的读路由覆盖
+ * 写后立即读（read-your-writes）的代码放在onMaster里执行，期间当前线程发出的读命令只会路由到主节点。
+ * lettuce在调用线程上选择节点，因此只对同步调用和pipeline有效，对响应式调用无效
+ * @author: zhangbing
+ * @create: 2026-10-18 14:35
+ **/
+public class ReadRouting {
+
+    private static final ThreadLocal<int[]> MASTER_DEPTH = ThreadLocal.withInitial(() -> new int[1]);
+
+    private ReadRouting() {
+    }
+
+    public static <T> T onMaster(Supplier<T> action) {
+        int[] depth = MASTER_DEPTH.get();
+        depth[0]++;
+        try {
+            return action.get();
+        } finally {
+            depth[0]--;
+        }
+    }
+
+    public static void onMaster(Runnable action) {
+        onMaster(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static boolean isMasterForced() {
+        return MASTER_DEPTH.get()[0] > 0;
+    }
+}
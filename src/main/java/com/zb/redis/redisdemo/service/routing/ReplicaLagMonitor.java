@@ -0,0 +1,93 @@
+package com.zb.redis.redisdemo.service.routing;
+
+import com.zb.redis.redisdemo.config.ReadRoutingProperties;
+import lombok.Data;
+import lombok.extern.log4j.Log4j2;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.*;
+
+/**
+ * @description: 定期在主节点上执行INFO replication，计算每个从节点落后的复制偏移量，
+ * 超过阈值、状态不是online或长时间无交互的从节点会被移出读轮询，恢复后自动加回
+ * @author: zhangbing
+ * @create: 2026-10-18 14:55
+ **/
+@Log4j2
+public class ReplicaLagMonitor {
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final StalenessAwareReadFrom readFrom;
+    private final ReadRoutingProperties properties;
+
+    private volatile Map<String, Long> lastLagBytes = Collections.emptyMap();
+
+    public ReplicaLagMonitor(StringRedisTemplate stringRedisTemplate, StalenessAwareReadFrom readFrom,
+                             ReadRoutingProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.readFrom = readFrom;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${redis.read-routing.lag-check-interval-millis:1000}")
+    public void checkReplicationLag() {
+        Properties info;
+        try {
+            info = ReadRouting.onMaster(() -> stringRedisTemplate.execute(
+                    (RedisCallback<Properties>) connection -> connection.info("replication")));
+        } catch (Exception e) {
+            log.warn("获取主节点复制信息失败:{}", e.getMessage());
+            return;
+        }
+        if (info == null) {
+            return;
+        }
+        long masterOffset = NumberUtils.toLong(info.getProperty("master_repl_offset"), -1);
+        Map<String, Long> lagBytes = new HashMap<>();
+        Set<String> stale = new HashSet<>();
+        for (String name : info.stringPropertyNames()) {
+            if (!name.startsWith("slave") || !Character.isDigit(name.charAt(name.length() - 1))) {
+                continue;
+            }
+            //slave0:ip=10.0.0.2,port=6379,state=online,offset=1234,lag=0
+            Map<String, String> fields = new HashMap<>();
+            for (String pair : info.getProperty(name).split(",")) {
+                int index = pair.indexOf('=');
+                if (index > 0) {
+                    fields.put(pair.substring(0, index), pair.substring(index + 1));
+                }
+            }
+            String address = fields.get("ip") + ":" + fields.get("port");
+            long lag = masterOffset < 0 ? -1 : masterOffset - NumberUtils.toLong(fields.get("offset"), 0);
+            lagBytes.put(address, lag);
+            if (!"online".equals(fields.get("state"))
+                    || lag < 0 || lag > properties.getMaxLagBytes()
+                    || NumberUtils.toLong(fields.get("lag"), Long.MAX_VALUE) > properties.getMaxLagSeconds()) {
+                stale.add(address);
+            }
+        }
+        if (!stale.equals(readFrom.getStaleReplicas())) {
+            log.warn("从节点读轮询变化，移出的从节点:{}，复制延迟:{}", stale, lagBytes);
+        }
+        readFrom.setStaleReplicas(Collections.unmodifiableSet(stale));
+        lastLagBytes = Collections.unmodifiableMap(lagBytes);
+    }
+
+    public ReadRoutingStatus getStatus() {
+        ReadRoutingStatus status = new ReadRoutingStatus();
+        status.setMode(properties.getMode());
+        status.setLagBytes(lastLagBytes);
+        status.setStaleReplicas(readFrom.getStaleReplicas());
+        return status;
+    }
+
+    @Data
+    public static class ReadRoutingStatus {
+        private ReadRoutingProperties.Mode mode;
+        private Map<String, Long> lagBytes;
+        private Set<String> staleReplicas;
+    }
+}
@@ -0,0 +1,77 @@
+package com.zb.redis.redisdemo.service.routing;
+
+import com.zb.redis.redisdemo.config.ReadRoutingProperties;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.models.role.RedisNodeDescription;
+
+import java.util.*;
+
+/**
+ * @description: 过滤掉复制延迟超限的从节点后再按配置的模式选择读节点
+ * 当前线程处于ReadRouting.onMaster中时只返回主节点
+ * @author: zhangbing
+ * @create: 2026-10-18 14:40
+ **/
+public class StalenessAwareReadFrom extends ReadFrom {
+
+    private final ReadFrom delegate;
+
+    /**
+     * 被移出读轮询的从节点 host:port，由ReplicaLagMonitor定期整体替换
+     */
+    private volatile Set<String> staleReplicas = Collections.emptySet();
+
+    public StalenessAwareReadFrom(ReadRoutingProperties.Mode mode) {
+        switch (mode) {
+            case REPLICA_PREFERRED:
+                this.delegate = ReadFrom.SLAVE_PREFERRED;
+                break;
+            case NEAREST:
+                this.delegate = ReadFrom.NEAREST;
+                break;
+            default:
+                this.delegate = ReadFrom.MASTER;
+        }
+    }
+
+    @Override
+    public List<RedisNodeDescription> select(Nodes nodes) {
+        if (ReadRouting.isMasterForced()) {
+            return ReadFrom.MASTER.select(nodes);
+        }
+        Set<String> stale = staleReplicas;
+        if (stale.isEmpty()) {
+            return delegate.select(nodes);
+        }
+        List<RedisNodeDescription> fresh = new ArrayList<>(nodes.getNodes().size());
+        for (RedisNodeDescription node : nodes) {
+            if (node.getRole() != RedisNodeDescription.Role.SLAVE || !stale.contains(addressOf(node.getUri()))) {
+                fresh.add(node);
+            }
+        }
+        return delegate.select(new Nodes() {
+            @Override
+            public List<RedisNodeDescription> getNodes() {
+                return fresh;
+            }
+
+            @Override
+            public Iterator<RedisNodeDescription> iterator() {
+                return fresh.iterator();
+            }
+        });
+    }
+
+    public Set<String> getStaleReplicas() {
+        return staleReplicas;
+    }
+
+    public void setStaleReplicas(Set<String> staleReplicas) {
+        this.staleReplicas = staleReplicas;
+    }
+
+    public static String addressOf(RedisURI uri) {
+        return uri.getHost() + ":" + uri.getPort();
+    }
+}
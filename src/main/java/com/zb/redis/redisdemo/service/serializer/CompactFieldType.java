@@ -0,0 +1,144 @@
+package com.zb.redis.redisdemo.service.serializer;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * @description: 紧凑编码支持的字段类型，编码中不带类型标记，字段类型由注册的schema决定
+ * @author: zhangbing
+ * @create: 2026-10-19 16:15
+ **/
+public enum CompactFieldType {
+
+    INT {
+        @Override
+        void write(CompactOutput out, Object value) {
+            out.writeZigZag(((Number) value).intValue());
+        }
+
+        @Override
+        Object read(CompactInput in, Class<?> javaType) {
+            return (int) in.readZigZag();
+        }
+    },
+    LONG {
+        @Override
+        void write(CompactOutput out, Object value) {
+            out.writeZigZag(((Number) value).longValue());
+        }
+
+        @Override
+        Object read(CompactInput in, Class<?> javaType) {
+            return in.readZigZag();
+        }
+    },
+    DOUBLE {
+        @Override
+        void write(CompactOutput out, Object value) {
+            out.writeDouble(((Number) value).doubleValue());
+        }
+
+        @Override
+        Object read(CompactInput in, Class<?> javaType) {
+            return in.readDouble();
+        }
+    },
+    BOOLEAN {
+        @Override
+        void write(CompactOutput out, Object value) {
+            out.writeByte((Boolean) value ? 1 : 0);
+        }
+
+        @Override
+        Object read(CompactInput in, Class<?> javaType) {
+            return in.readByte() != 0;
+        }
+    },
+    STRING {
+        @Override
+        void write(CompactOutput out, Object value) {
+            out.writeString((String) value);
+        }
+
+        @Override
+        Object read(CompactInput in, Class<?> javaType) {
+            return in.readString();
+        }
+    },
+    /**
+     * 以毫秒时间戳存储
+     */
+    DATE {
+        @Override
+        void write(CompactOutput out, Object value) {
+            out.writeZigZag(((Date) value).getTime());
+        }
+
+        @Override
+        Object read(CompactInput in, Class<?> javaType) {
+            return new Date(in.readZigZag());
+        }
+    },
+    DECIMAL {
+        @Override
+        void write(CompactOutput out, Object value) {
+            out.writeString(((BigDecimal) value).toString());
+        }
+
+        @Override
+        Object read(CompactInput in, Class<?> javaType) {
+            return new BigDecimal(in.readString());
+        }
+    },
+    /**
+     * 以名称存储，调整枚举顺序不影响已有数据
+     */
+    ENUM {
+        @Override
+        void write(CompactOutput out, Object value) {
+            out.writeString(((Enum<?>) value).name());
+        }
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Object read(CompactInput in, Class<?> javaType) {
+            String name = in.readString();
+            return javaType == null ? name : Enum.valueOf((Class<? extends Enum>) javaType, name);
+        }
+    };
+
+    abstract void write(CompactOutput out, Object value);
+
+    /**
+     * @param javaType 字段的java类型，字段已从类中删除时为null
+     */
+    abstract Object read(CompactInput in, Class<?> javaType);
+
+    static CompactFieldType of(Class<?> type) {
+        if (type == int.class || type == Integer.class) {
+            return INT;
+        }
+        if (type == long.class || type == Long.class) {
+            return LONG;
+        }
+        if (type == double.class || type == Double.class) {
+            return DOUBLE;
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return BOOLEAN;
+        }
+        if (type == String.class) {
+            return STRING;
+        }
+        if (type == Date.class) {
+            return DATE;
+        }
+        if (type == BigDecimal.class) {
+            return DECIMAL;
+        }
+        if (type.isEnum()) {
+            return ENUM;
+        }
+        throw new IllegalArgumentException("不支持的字段类型:" + type.getName());
+    }
+}
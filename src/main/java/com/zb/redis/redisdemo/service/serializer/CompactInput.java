@@ -0,0 +1,66 @@
+package com.zb.redis.redisdemo.service.serializer;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @description: 紧凑编码的读缓冲，与CompactOutput对应
+ * @author: zhangbing
+ * @create: 2026-10-19 16:12
+ **/
+final class CompactInput {
+
+    private final byte[] buf;
+    private int pos;
+
+    CompactInput(byte[] buf, int pos) {
+        this.buf = buf;
+        this.pos = pos;
+    }
+
+    int readByte() {
+        check(1);
+        return buf[pos++] & 0xFF;
+    }
+
+    long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new SerializationException("变长整数格式错误");
+    }
+
+    long readZigZag() {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    double readDouble() {
+        check(8);
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits = (bits << 8) | (buf[pos++] & 0xFF);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    String readString() {
+        int length = (int) readVarLong();
+        check(length);
+        String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+        pos += length;
+        return value;
+    }
+
+    private void check(int n) {
+        if (n < 0 || pos + n > buf.length) {
+            throw new SerializationException("数据被截断，期望" + n + "字节，剩余" + (buf.length - pos) + "字节");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.zb.redis.redisdemo.service.serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * @description: 紧凑编码的写缓冲，整数使用zigzag变长编码
+ * @author: zhangbing
+ * @create: 2026-10-19 16:10
+ **/
+final class CompactOutput {
+
+    private byte[] buf;
+    private int pos;
+
+    CompactOutput(int initialCapacity) {
+        this.buf = new byte[initialCapacity];
+    }
+
+    void writeByte(int b) {
+        ensure(1);
+        buf[pos++] = (byte) b;
+    }
+
+    void writeBytes(byte[] b) {
+        ensure(b.length);
+        System.arraycopy(b, 0, buf, pos, b.length);
+        pos += b.length;
+    }
+
+    void writeVarLong(long value) {
+        ensure(10);
+        while ((value & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+    }
+
+    void writeZigZag(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeDouble(double value) {
+        long bits = Double.doubleToLongBits(value);
+        ensure(8);
+        for (int i = 56; i >= 0; i -= 8) {
+            buf[pos++] = (byte) (bits >>> i);
+        }
+    }
+
+    void writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length);
+        writeBytes(bytes);
+    }
+
+    /**
+     * 预留n字节，返回预留位置，之后用setByte回填
+     */
+    int reserve(int n) {
+        ensure(n);
+        int start = pos;
+        pos += n;
+        return start;
+    }
+
+    void setByte(int index, int b) {
+        buf[index] = (byte) b;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buf, pos);
+    }
+
+    private void ensure(int n) {
+        if (pos + n > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length << 1, pos + n));
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.zb.redis.redisdemo.service.serializer;
+
+import com.alibaba.fastjson.JSON;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * @description: 基于注册schema的紧凑二进制序列化，用于RedisTemplate<String, T>的value
+ * 数据以0xFF开头，该字节不会出现在合法的UTF-8文本中，因此迁移期间不以0xFF开头的旧值按JSON(或纯字符串)读取，
+ * 旧值被重新写入后自然转换为新格式
+ * @author: zhangbing
+ * @create: 2026-10-19 16:50
+ **/
+public class CompactRedisSerializer<T> implements RedisSerializer<T> {
+
+    static final int MAGIC = 0xFF;
+
+    private final CompactTypeRegistry registry;
+    private final Class<T> type;
+
+    public CompactRedisSerializer(CompactTypeRegistry registry, Class<T> type) {
+        this.registry = registry;
+        this.type = type;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(T value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        CompactSchema<T> schema = (CompactSchema<T>) registry.latest(value.getClass());
+        if (schema == null) {
+            throw new SerializationException(value.getClass().getName() + "未注册紧凑编码");
+        }
+        CompactOutput out = new CompactOutput(16 + schema.getFieldCount() * 8);
+        schema.write(value, out);
+        return out.toByteArray();
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if ((bytes[0] & 0xFF) != MAGIC) {
+            return readLegacy(bytes);
+        }
+        CompactInput in = new CompactInput(bytes, 1);
+        int typeId = (int) in.readVarLong();
+        int version = (int) in.readVarLong();
+        CompactSchema<?> schema = registry.schema(typeId, version);
+        if (schema == null) {
+            throw new SerializationException("未知的类型id" + typeId + "或版本" + version);
+        }
+        if (!type.isAssignableFrom(schema.getType())) {
+            throw new SerializationException("数据类型" + schema.getType().getName() + "与" + type.getName() + "不匹配");
+        }
+        return type.cast(schema.read(in));
+    }
+
+    private T readLegacy(byte[] bytes) {
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        if (type == String.class) {
+            return type.cast(text);
+        }
+        try {
+            return JSON.parseObject(text, type);
+        } catch (RuntimeException e) {
+            throw new SerializationException("无法按JSON读取旧数据", e);
+        }
+    }
+}
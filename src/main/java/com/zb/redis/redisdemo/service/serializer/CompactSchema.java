@@ -0,0 +1,170 @@
+package com.zb.redis.redisdemo.service.serializer;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @description: 某个类某个版本的字段布局
+ * 编码格式：魔数(1字节) + 类型id(varint) + 版本号(varint) + 空值位图 + 按注册顺序排列的非空字段值，
+ * 字段名和类型都不写入数据，由读写双方的schema约定
+ * @author: zhangbing
+ * @create: 2026-10-19 16:25
+ **/
+public final class CompactSchema<T> {
+
+    private final Class<T> type;
+    private final int typeId;
+    private final int version;
+    private final List<FieldSlot> fields;
+    private final Constructor<T> constructor;
+
+    CompactSchema(Class<T> type, int typeId, int version, List<String> fieldSpecs) {
+        this.type = type;
+        this.typeId = typeId;
+        this.version = version;
+        List<FieldSlot> slots = new ArrayList<>(fieldSpecs.size());
+        for (String spec : fieldSpecs) {
+            slots.add(FieldSlot.resolve(type, spec));
+        }
+        this.fields = Collections.unmodifiableList(slots);
+        try {
+            this.constructor = type.getDeclaredConstructor();
+            this.constructor.setAccessible(true);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(type.getName() + "缺少无参构造方法", e);
+        }
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public int getTypeId() {
+        return typeId;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int getFieldCount() {
+        return fields.size();
+    }
+
+    void write(T value, CompactOutput out) {
+        out.writeByte(CompactRedisSerializer.MAGIC);
+        out.writeVarLong(typeId);
+        out.writeVarLong(version);
+        Object[] values = new Object[fields.size()];
+        int bitmap = out.reserve((fields.size() + 7) >>> 3);
+        int bits = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            values[i] = fields.get(i).get(value);
+            if (values[i] == null) {
+                bits |= 1 << (i & 7);
+            }
+            if ((i & 7) == 7 || i == fields.size() - 1) {
+                out.setByte(bitmap + (i >>> 3), bits);
+                bits = 0;
+            }
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            if (values[i] != null) {
+                fields.get(i).fieldType.write(out, values[i]);
+            }
+        }
+    }
+
+    /**
+     * 读取魔数、类型id、版本号之后的部分，本版本中没有的字段保持无参构造后的默认值
+     */
+    T read(CompactInput in) {
+        T instance;
+        try {
+            instance = constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new SerializationException("无法创建" + type.getName(), e);
+        }
+        int bitmapBytes = (fields.size() + 7) >>> 3;
+        byte[] bitmap = new byte[bitmapBytes];
+        for (int i = 0; i < bitmapBytes; i++) {
+            bitmap[i] = (byte) in.readByte();
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            if ((bitmap[i >>> 3] & (1 << (i & 7))) != 0) {
+                continue;
+            }
+            FieldSlot slot = fields.get(i);
+            Object value = slot.fieldType.read(in, slot.field == null ? null : slot.field.getType());
+            slot.set(instance, value);
+        }
+        return instance;
+    }
+
+    private static final class FieldSlot {
+        /**
+         * 字段已从类中删除时为null，读取时跳过
+         */
+        private final Field field;
+        private final CompactFieldType fieldType;
+
+        private FieldSlot(Field field, CompactFieldType fieldType) {
+            this.field = field;
+            this.fieldType = fieldType;
+        }
+
+        /**
+         * @param spec 字段名，已删除的字段写作 字段名:类型，如 nickname:STRING
+         */
+        static FieldSlot resolve(Class<?> type, String spec) {
+            int colon = spec.indexOf(':');
+            String name = colon < 0 ? spec : spec.substring(0, colon);
+            Field field = findField(type, name);
+            if (field == null) {
+                if (colon < 0) {
+                    throw new IllegalArgumentException(type.getName() + "没有字段" + name + "，已删除的字段需要声明类型");
+                }
+                return new FieldSlot(null, CompactFieldType.valueOf(spec.substring(colon + 1)));
+            }
+            field.setAccessible(true);
+            return new FieldSlot(field, CompactFieldType.of(field.getType()));
+        }
+
+        private static Field findField(Class<?> type, String name) {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                try {
+                    return c.getDeclaredField(name);
+                } catch (NoSuchFieldException ignored) {
+                }
+            }
+            return null;
+        }
+
+        Object get(Object target) {
+            if (field == null) {
+                return null;
+            }
+            try {
+                return field.get(target);
+            } catch (IllegalAccessException e) {
+                throw new SerializationException("读取字段失败:" + field.getName(), e);
+            }
+        }
+
+        void set(Object target, Object value) {
+            if (field == null) {
+                return;
+            }
+            try {
+                field.set(target, value);
+            } catch (IllegalAccessException e) {
+                throw new SerializationException("写入字段失败:" + field.getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.zb.redis.redisdemo.service.serializer;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @description: 紧凑编码的类型注册表
+ * 每个类分配一个固定的类型id，字段布局按版本注册：新增字段时注册新版本并把字段追加到末尾，
+ * 旧版本保持不变，这样已写入redis的旧数据仍能按原布局读出，写入时总是使用最高版本
+ * @author: zhangbing
+ * @create: 2026-10-19 16:40
+ **/
+public class CompactTypeRegistry {
+
+    private final Map<Integer, Class<?>> typesById = new ConcurrentHashMap<>();
+    private final Map<Long, CompactSchema<?>> schemas = new ConcurrentHashMap<>();
+    private final Map<Class<?>, CompactSchema<?>> latest = new ConcurrentHashMap<>();
+
+    /**
+     * 注册一个版本的字段布局
+     *
+     * @param type    类，需要有无参构造方法
+     * @param typeId  类型id，注册后不能再变
+     * @param version 版本号，从1开始
+     * @param fields  按编码顺序排列的字段名，已从类中删除的字段写作 字段名:类型
+     * @return this
+     */
+    public synchronized <T> CompactTypeRegistry register(Class<T> type, int typeId, int version, String... fields) {
+        if (typeId < 0 || version <= 0) {
+            throw new IllegalArgumentException("typeId不能为负数，version必须大于0");
+        }
+        Class<?> existing = typesById.putIfAbsent(typeId, type);
+        if (existing != null && existing != type) {
+            throw new IllegalArgumentException("类型id" + typeId + "已被" + existing.getName() + "使用");
+        }
+        CompactSchema<T> schema = new CompactSchema<>(type, typeId, version, Arrays.asList(fields));
+        if (schemas.putIfAbsent(key(typeId, version), schema) != null) {
+            throw new IllegalArgumentException(type.getName() + "的版本" + version + "已注册");
+        }
+        CompactSchema<?> current = latest.get(type);
+        if (current == null || current.getVersion() < version) {
+            latest.put(type, schema);
+        }
+        return this;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompactSchema<T> latest(Class<T> type) {
+        return (CompactSchema<T>) latest.get(type);
+    }
+
+    public CompactSchema<?> schema(int typeId, int version) {
+        return schemas.get(key(typeId, version));
+    }
+
+    private static long key(int typeId, int version) {
+        return ((long) typeId << 32) | version;
+    }
+}
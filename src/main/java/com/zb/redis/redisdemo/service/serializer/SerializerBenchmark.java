@@ -0,0 +1,100 @@
+package com.zb.redis.redisdemo.service.serializer;
+
+import com.alibaba.fastjson.support.spring.FastJsonRedisSerializer;
+import com.zb.redis.redisdemo.service.LoadJobReport;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 用同一个压测报告对象对比紧凑编码、fastjson和jackson的序列化体积与编解码耗时，
+ * 每种方式先预热再计时，结果是粗略的单线程ns/op
+ * @author: zhangbing
+ * @create: 2026-10-19 17:15
+ **/
+@Log4j2
+@Service
+public class SerializerBenchmark {
+
+    @Autowired
+    private CompactTypeRegistry compactTypeRegistry;
+
+    public List<SerializerBenchmarkResult> compare(int iterations) {
+        LoadJobReport sample = sampleReport();
+        Map<String, RedisSerializer<LoadJobReport>> serializers = new LinkedHashMap<>();
+        serializers.put("compact", new CompactRedisSerializer<>(compactTypeRegistry, LoadJobReport.class));
+        serializers.put("fastjson", new FastJsonRedisSerializer<>(LoadJobReport.class));
+        serializers.put("jackson", new Jackson2JsonRedisSerializer<>(LoadJobReport.class));
+
+        List<SerializerBenchmarkResult> results = new ArrayList<>(serializers.size());
+        for (Map.Entry<String, RedisSerializer<LoadJobReport>> entry : serializers.entrySet()) {
+            results.add(measure(entry.getKey(), entry.getValue(), sample, iterations));
+        }
+        log.info("序列化对比结果:{}", results);
+        return results;
+    }
+
+    private SerializerBenchmarkResult measure(String name, RedisSerializer<LoadJobReport> serializer,
+                                              LoadJobReport sample, int iterations) {
+        byte[] bytes = serializer.serialize(sample);
+        if (!sample.equals(serializer.deserialize(bytes))) {
+            throw new IllegalStateException(name + "序列化往返结果不一致");
+        }
+        // 预热，让JIT编译编解码路径
+        int warmup = Math.min(iterations, 20000);
+        long sink = 0;
+        for (int i = 0; i < warmup; i++) {
+            sink += serializer.serialize(sample).length;
+            sink += serializer.deserialize(bytes).getKeyCount();
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += serializer.serialize(sample).length;
+        }
+        long encodeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += serializer.deserialize(bytes).getKeyCount();
+        }
+        long decodeNanos = System.nanoTime() - start;
+
+        SerializerBenchmarkResult result = new SerializerBenchmarkResult();
+        result.setSerializer(name);
+        result.setBytes(bytes.length);
+        result.setIterations(iterations);
+        result.setEncodeNanosPerOp((double) encodeNanos / iterations);
+        result.setDecodeNanosPerOp((double) decodeNanos / iterations);
+        log.debug("{} sink={}", name, sink);
+        return result;
+    }
+
+    private static LoadJobReport sampleReport() {
+        LoadJobReport report = new LoadJobReport();
+        report.setJobId("3f2a9c0e8d5b4e1a9f7c6b5d4e3a2f10");
+        report.setStatus(LoadJobReport.FINISHED);
+        report.setKeyPrefix("zhangbing");
+        report.setKeyCount(100000);
+        report.setValueSize(16);
+        report.setBatchSize(100);
+        report.setConcurrency(4);
+        report.setWritten(100000);
+        report.setFailedBatches(0);
+        report.setStartTime(1792300000000L);
+        report.setEndTime(1792300002345L);
+        report.setOpsPerSecond(42643.92);
+        report.setP50Micros(812);
+        report.setP90Micros(1530);
+        report.setP99Micros(4120);
+        report.setMaxMicros(18342);
+        return report;
+    }
+}
@@ -0,0 +1,22 @@
+package com.zb.redis.redisdemo.service.serializer;
+
+import lombok.Data;
+
+/**
+ * @description: 单个序列化方式的体积和编解码耗时
+ * @author: zhangbing
+ * @create: 2026-10-19 17:10
+ **/
+@Data
+public class SerializerBenchmarkResult {
+
+    private String serializer;
+
+    /**
+     * 序列化后的字节数，即写入redis的value大小
+     */
+    private int bytes;
+    private int iterations;
+    private double encodeNanosPerOp;
+    private double decodeNanosPerOp;
+}
@@ -0,0 +1,138 @@
+package com.zb.redis.redisdemo.utils;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 粗粒度的当前时间，后台线程按固定间隔刷新，进入新的一秒时预先格式化好常用格式的字符串
+ * 读取时只读一个volatile字段，不再每次格式化；结果最多落后一个刷新间隔(加上线程调度延迟)，未启动时调用方应自行计算
+ * @author: zhangbing
+ * @create: 2026-10-22 10:00
+ **/
+@Log4j2
+public final class CachedClock {
+
+    /**
+     * 当前这一秒的快照，不可变，整体替换
+     */
+    private static volatile Tick current;
+
+    private static ScheduledExecutorService ticker;
+
+    private CachedClock() {
+    }
+
+    /**
+     * 启动后台刷新，已启动时按新的间隔重启
+     *
+     * @param tickMillis 刷新间隔，即允许的最大延迟，单位毫秒
+     */
+    public static synchronized void start(long tickMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis必须大于0");
+        }
+        stop();
+        tick();
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cached-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(CachedClock::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        log.info("缓存时钟已启动，刷新间隔{}ms", tickMillis);
+    }
+
+    public static synchronized void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+            try {
+                //等正在执行的刷新结束，避免停止后又写入快照
+                ticker.awaitTermination(1, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ticker = null;
+        }
+        current = null;
+    }
+
+    public static boolean isRunning() {
+        return current != null;
+    }
+
+    /**
+     * 当前时间戳，未启动时返回System.currentTimeMillis()
+     */
+    public static long currentTimeMillis() {
+        Tick tick = current;
+        return tick == null ? System.currentTimeMillis() : tick.millis;
+    }
+
+    /**
+     * 当前时间，DEFAULT_DATE_FORMAT格式，未启动时返回null
+     */
+    public static String currentDefaultTime() {
+        Tick tick = current;
+        return tick == null ? null : tick.defaultTime;
+    }
+
+    /**
+     * 当前时间，NEW_DATE_FORMAT格式，未启动时返回null
+     */
+    public static String currentNewTime() {
+        Tick tick = current;
+        return tick == null ? null : tick.newTime;
+    }
+
+    /**
+     * 当前的秒级时间戳字符串，未启动时返回null
+     */
+    public static String currentTimestamp() {
+        Tick tick = current;
+        return tick == null ? null : tick.timestamp;
+    }
+
+    private static void tick() {
+        try {
+            long now = System.currentTimeMillis();
+            long second = Math.floorDiv(now, 1000L);
+            Tick previous = current;
+            if (previous != null && previous.second == second) {
+                //同一秒内字符串不变，只更新时间戳
+                current = new Tick(now, previous);
+            } else {
+                current = new Tick(now, second);
+            }
+        } catch (RuntimeException e) {
+            //抛出异常会让scheduleAtFixedRate停止后续执行
+            log.error("缓存时钟刷新失败", e);
+        }
+    }
+
+    private static final class Tick {
+        final long millis;
+        final long second;
+        final String defaultTime;
+        final String newTime;
+        final String timestamp;
+
+        Tick(long millis, long second) {
+            this.millis = millis;
+            this.second = second;
+            this.defaultTime = DateUtil.getTime(millis, DateUtil.DEFAULT_DATE_FORMAT);
+            this.newTime = DateUtil.getTime(millis, DateUtil.NEW_DATE_FORMAT);
+            this.timestamp = String.valueOf(second);
+        }
+
+        Tick(long millis, Tick sameSecond) {
+            this.millis = millis;
+            this.second = sameSecond.second;
+            this.defaultTime = sameSecond.defaultTime;
+            this.newTime = sameSecond.newTime;
+            this.timestamp = sameSecond.timestamp;
+        }
+    }
+}
@@ -4,8 +4,18 @@ import lombok.extern.log4j.Log4j2;
 import org.springframework.util.StringUtils;
 
 import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalQueries;
+import java.time.zone.ZoneOffsetTransition;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @description: 日期工具类
@@ -25,8 +35,23 @@ public class DateUtil {
     private DateUtil() {
     }
 
-    //使用ThreadLocal代替原来的new SimpleDateFormat 以防并发访问带来的数据转化问题
-    private static final ThreadLocal<SimpleDateFormat> dateFormatter = ThreadLocal.withInitial(() -> new SimpleDateFormat(DEFAULT_DATE_FORMAT));
+    //每个线程每种pattern一个SimpleDateFormat，不再对同一个对象反复applyPattern，交替使用不同pattern时互不影响
+    private static final ThreadLocal<Map<String, SimpleDateFormat>> dateFormatters = ThreadLocal.withInitial(HashMap::new);
+
+    //DateTimeFormatter不可变、线程安全，按pattern缓存，所有线程共用；pattern不被java.time支持时存NO_FORMATTER
+    private static final ConcurrentHashMap<String, DateTimeFormatter> dateTimeFormatters = new ConcurrentHashMap<>();
+    private static final DateTimeFormatter NO_FORMATTER = new DateTimeFormatterBuilder().toFormatter();
+
+    //字母在DateTimeFormatter和SimpleDateFormat中含义相同的pattern，只有这些走java.time；
+    //其它pattern的同一个字母可能含义不同(如S、u、D、F)，仍用SimpleDateFormat
+    private static final Set<String> JAVA_TIME_PATTERNS = new HashSet<>(Arrays.asList(
+            DEFAULT_DATE_FORMAT, DATE_FORMAT_DATE_MINUTE, DATE_FORMAT_DATE, NEW_DATE_FORMAT));
+
+    //1900-01-01T00:00:00Z
+    private static final long UTC_1900_MILLIS = -2208988800000L;
+
+    //java.time与SimpleDateFormat结果一致的起始时间，这之前仍用SimpleDateFormat，见javaTimeFromMillis
+    private static final long JAVA_TIME_FROM_MILLIS = javaTimeFromMillis(ZoneId.systemDefault());
 
     /**
      * 获取DEFAULT_DATE_FORMAT格式(yyyy-MM-dd HH:mm:ss)的SimpleDateFormat对象
@@ -65,15 +90,64 @@ public class DateUtil {
     }
 
     /**
-     * 设置SimpleDateFormat处理的日期格式
+     * 获取当前线程指定格式的SimpleDateFormat，同一线程同一pattern返回同一个对象
      *
-     * @param pattern
+     * @param pattern 为空时使用DEFAULT_DATE_FORMAT
      * @return
      */
     public static SimpleDateFormat getDateFormatByPattern(String pattern) {
-        SimpleDateFormat dateFormat = dateFormatter.get();
-        if (!StringUtils.isEmpty(pattern)) dateFormat.applyPattern(pattern);
-        return dateFormat;
+        String key = StringUtils.isEmpty(pattern) ? DEFAULT_DATE_FORMAT : pattern;
+        return dateFormatters.get().computeIfAbsent(key, SimpleDateFormat::new);
+    }
+
+    /**
+     * 获取指定格式的DateTimeFormatter，使用系统默认时区，解析规则与SimpleDateFormat一样宽松(如2月30日顺延到3月)，
+     * pattern中的字母按DateTimeFormatter的含义解释
+     *
+     * @param pattern 为空时使用DEFAULT_DATE_FORMAT
+     * @return pattern不能被DateTimeFormatter识别时返回null
+     */
+    public static DateTimeFormatter getDateTimeFormatter(String pattern) {
+        String key = StringUtils.isEmpty(pattern) ? DEFAULT_DATE_FORMAT : pattern;
+        DateTimeFormatter formatter = dateTimeFormatters.get(key);
+        if (formatter == null) {
+            formatter = dateTimeFormatters.computeIfAbsent(key, DateUtil::createFormatter);
+        }
+        return formatter == NO_FORMATTER ? null : formatter;
+    }
+
+    private static DateTimeFormatter createFormatter(String pattern) {
+        try {
+            return DateTimeFormatter.ofPattern(pattern)
+                    .withZone(ZoneId.systemDefault())
+                    .withResolverStyle(ResolverStyle.LENIENT);
+        } catch (IllegalArgumentException e) {
+            log.warn("日期格式{}不能用DateTimeFormatter处理，使用SimpleDateFormat:{}", pattern, e.getMessage());
+            return NO_FORMATTER;
+        }
+    }
+
+    /**
+     * 1582-10-15之前SimpleDateFormat按儒略历计算，java.time始终按公历；
+     * 时区的第一次切换之前java.time按当地平太阳时(LMT)计算偏移，TimeZone按标准时间，两者也不一致；
+     * TimeZone不保留1900年之前的切换，1900年之前按当前的标准偏移计算(如Asia/Kolkata、Australia/Lord_Howe)；
+     * 取其中最晚的一个，多留一天给时区偏移
+     */
+    private static long javaTimeFromMillis(ZoneId zone) {
+        long from = Math.max(new GregorianCalendar().getGregorianChange().getTime(), UTC_1900_MILLIS);
+        List<ZoneOffsetTransition> transitions = zone.getRules().getTransitions();
+        if (!transitions.isEmpty()) {
+            from = Math.max(from, transitions.get(0).getInstant().toEpochMilli());
+        }
+        return from + 24L * 60 * 60 * 1000;
+    }
+
+    /**
+     * getTime、parseDate内部使用的DateTimeFormatter，不在JAVA_TIME_PATTERNS中的pattern返回null，由SimpleDateFormat处理
+     */
+    private static DateTimeFormatter javaTimeFormatter(String pattern) {
+        String key = StringUtils.isEmpty(pattern) ? DEFAULT_DATE_FORMAT : pattern;
+        return JAVA_TIME_PATTERNS.contains(key) ? getDateTimeFormatter(key) : null;
     }
 
     public static Date parseDate(String dateStr) {
@@ -88,6 +162,36 @@ public class DateUtil {
      * @return Date
      */
     public static Date parseDate(String dateStr, String pattern) {
+        long millis = FixedDateParser.parse(dateStr, StringUtils.isEmpty(pattern) ? DEFAULT_DATE_FORMAT : pattern);
+        if (!FixedDateParser.isError(millis)) {
+            return new Date(millis);
+        }
+        //不是定长格式或不符合严格的定长规则，按原来的宽松规则解析
+        DateTimeFormatter formatter = javaTimeFormatter(pattern);
+        if (formatter != null && dateStr != null) {
+            try {
+                //和SimpleDateFormat一样只解析到pattern结束，忽略后面多余的内容
+                TemporalAccessor parsed = formatter.parse(dateStr, new ParsePosition(0));
+                LocalDate date = parsed.query(TemporalQueries.localDate());
+                if (date != null) {
+                    Instant instant;
+                    if (parsed.query(TemporalQueries.offset()) != null) {
+                        instant = Instant.from(parsed);
+                    } else {
+                        LocalTime time = parsed.query(TemporalQueries.localTime());
+                        //夏令时结束重复的那一小时，与SimpleDateFormat一样取标准时间
+                        instant = date.atTime(time == null ? LocalTime.MIDNIGHT : time)
+                                .atZone(formatter.getZone()).withLaterOffsetAtOverlap().toInstant();
+                    }
+                    if (instant.toEpochMilli() >= JAVA_TIME_FROM_MILLIS) {
+                        return Date.from(instant);
+                    }
+                }
+                //过早的日期交给SimpleDateFormat
+            } catch (DateTimeException e) {
+                //解析失败时交给SimpleDateFormat，由它决定是否按宽松规则接受并记录异常
+            }
+        }
         try {
             return getDateFormatByPattern(pattern).parse(dateStr);
         } catch (ParseException e) {
@@ -108,6 +212,10 @@ public class DateUtil {
      * @return
      */
     public static Long parseLong(String dateStr, String pattern) {
+        long millis = FixedDateParser.parse(dateStr, StringUtils.isEmpty(pattern) ? DEFAULT_DATE_FORMAT : pattern);
+        if (!FixedDateParser.isError(millis)) {
+            return millis;
+        }
         Date date = parseDate(dateStr, pattern);
         if (Objects.nonNull(date)) {
             return date.getTime();
@@ -116,21 +224,63 @@ public class DateUtil {
     }
 
     /**
-     * 获取当前日期
+     * 获取当前日期，缓存时钟启动后DEFAULT_DATE_FORMAT、NEW_DATE_FORMAT直接返回预先格式化的字符串
      *
      * @param pattern 日期格式
      * @return
      */
     public static String getNewTime(String pattern) {
-        return getTime(getCurrentTimeInLong(), pattern);
+        String cached = null;
+        if (DEFAULT_DATE_FORMAT.equals(pattern)) {
+            cached = CachedClock.currentDefaultTime();
+        } else if (NEW_DATE_FORMAT.equals(pattern)) {
+            cached = CachedClock.currentNewTime();
+        }
+        return cached != null ? cached : getTime(getCurrentTimeInLong(), pattern);
     }
 
+    /**
+     * 时间戳截断到秒，夏令时结束重复的那一小时与原来按字符串转换一样取标准时间
+     */
     public static Date longToDate(long timeInMillis) {
-        return longToDate(timeInMillis, DEFAULT_DATE_FORMAT);
+        if (timeInMillis < JAVA_TIME_FROM_MILLIS) {
+            return parseFormatted(timeInMillis, DEFAULT_DATE_FORMAT);
+        }
+        return Date.from(Instant.ofEpochMilli(timeInMillis).atZone(getDateTimeFormatter(DEFAULT_DATE_FORMAT).getZone())
+                .truncatedTo(ChronoUnit.SECONDS).withLaterOffsetAtOverlap().toInstant());
     }
 
+    /**
+     * 时间戳按pattern的精度截断，如yyyy-MM-dd截断到当天零点
+     *
+     * @param timeInMillis
+     * @param pattern      日期格式
+     * @return
+     */
     public static Date longToDate(long timeInMillis, String pattern) {
-        return parseDate(getTime(timeInMillis), pattern);
+        if (StringUtils.isEmpty(pattern) || DEFAULT_DATE_FORMAT.equals(pattern)) {
+            return longToDate(timeInMillis);
+        }
+        DateTimeFormatter formatter = getDateTimeFormatter(DEFAULT_DATE_FORMAT);
+        if ((DATE_FORMAT_DATE_MINUTE.equals(pattern) || DATE_FORMAT_DATE.equals(pattern))
+                && timeInMillis >= JAVA_TIME_FROM_MILLIS) {
+            ZonedDateTime time = Instant.ofEpochMilli(timeInMillis).atZone(formatter.getZone());
+            //零点正好在夏令时结束重复的时段内时(如America/Havana)，与SimpleDateFormat一样取标准时间
+            ZonedDateTime truncated = DATE_FORMAT_DATE.equals(pattern) ? time.toLocalDate().atStartOfDay(time.getZone())
+                    .withLaterOffsetAtOverlap() : time.truncatedTo(ChronoUnit.MINUTES).withLaterOffsetAtOverlap();
+            return Date.from(truncated.toInstant());
+        }
+        //其它pattern保持原来的做法：按默认格式输出后再按pattern解析
+        return parseFormatted(timeInMillis, pattern);
+    }
+
+    private static Date parseFormatted(long timeInMillis, String pattern) {
+        try {
+            return getDateFormatByPattern(pattern).parse(getTime(timeInMillis));
+        } catch (ParseException e) {
+            log.error("异常信息{}", e);
+            return null;
+        }
     }
 
     /**
@@ -141,7 +291,11 @@ public class DateUtil {
      * @return
      */
     public static String getTime(long timeInMillis, String pattern) {
-        return getDateFormatByPattern(pattern).format(new Date(timeInMillis));
+        DateTimeFormatter formatter = javaTimeFormatter(pattern);
+        if (formatter == null || timeInMillis < JAVA_TIME_FROM_MILLIS) {
+            return getDateFormatByPattern(pattern).format(new Date(timeInMillis));
+        }
+        return formatter.format(Instant.ofEpochMilli(timeInMillis));
     }
 
     /**
@@ -152,7 +306,7 @@ public class DateUtil {
      * @return
      */
     public static String getTime(Date date, String pattern) {
-        return getDateFormatByPattern(pattern).format(date);
+        return getTime(date.getTime(), pattern);
     }
 
     /**
@@ -190,7 +344,7 @@ public class DateUtil {
      * @return
      */
     public static String getCurrentTimeInString() {
-        return getTime(getCurrentTimeInLong());
+        return getNewTime(DEFAULT_DATE_FORMAT);
     }
 
 
@@ -200,10 +354,8 @@ public class DateUtil {
      * @return
      */
     public static String getTimestamp() {
-        String timeStamp = "";
-        long mils = System.currentTimeMillis() / 1000;
-        timeStamp = timeStamp + mils;
-        return timeStamp;
+        String timestamp = CachedClock.currentTimestamp();
+        return timestamp != null ? timestamp : String.valueOf(System.currentTimeMillis() / 1000);
     }
 
     /**
@@ -0,0 +1,231 @@
+package com.zb.redis.redisdemo.utils;
+
+import com.monitorjbl.xlsx.impl.StreamingCell;
+import org.apache.poi.hssf.usermodel.HSSFCell;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.xssf.usermodel.XSSFCell;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Field;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.TimeZone;
+
+/**
+ * @description: excel单元格数字、日期转字符串，结果与DecimalFormat("0.00")、DateUtil.DEFAULT_DATE_FORMAT一致
+ * 数字先乘100按最近整数取整，离两个整数的中点足够远时结果一定与DecimalFormat的HALF_EVEN相同，直接把各位数字写进线程复用的缓冲区；
+ * 正好在中点附近的值(如0.125、2.675)交给复用的DecimalFormat按精确十进制值处理；
+ * 日期直接由excel序列值算出年月日时分秒写入缓冲区，不创建Calendar和Date，夏令时跳过的时刻仍按原来的方式处理
+ * @author: zhangbing
+ * @create: 2026-10-21 14:00
+ **/
+final class ExcelCellFormatter {
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    /**
+     * 1900-01-01和1904-01-01距1970-01-01的天数
+     */
+    private static final long EPOCH_DAY_1900 = -25567;
+    private static final long EPOCH_DAY_1904 = -24107;
+
+    /**
+     * 乘100后小于2^52时double能表示到0.5以下的精度，超过的走DecimalFormat
+     */
+    private static final double MAX_FAST_SCALED = 4503599627370496.0;
+
+    /**
+     * StreamingCell没有提供是否1904日期系统的方法，读取它的私有字段
+     */
+    private static final MethodHandle STREAMING_USE_1904 = streamingUse1904();
+
+    private static final ThreadLocal<Buffer> BUFFER = ThreadLocal.withInitial(Buffer::new);
+
+    private ExcelCellFormatter() {
+    }
+
+    /**
+     * 按"0.00"格式化数字，与原来的DecimalFormat + toUpperCase + 科学计数处理结果一致
+     */
+    static String formatNumber(double value) {
+        Buffer buffer = BUFFER.get();
+        double scaled = value * 100;
+        if (!(Math.abs(scaled) < MAX_FAST_SCALED)) {
+            return buffer.legacy(value);
+        }
+        double rounded = Math.rint(scaled);
+        //乘法本身有不超过半个ulp的误差，误差可能跨过中点时无法确定HALF_EVEN的结果
+        if (Math.abs(scaled - rounded) >= 0.5 - 2 * Math.ulp(scaled)) {
+            return buffer.legacy(value);
+        }
+        //负数舍入到0时DecimalFormat仍保留负号，-0.0也一样
+        boolean negative = value < 0 || Double.doubleToRawLongBits(value) == Long.MIN_VALUE;
+        return buffer.number(negative, (long) Math.abs(rounded));
+    }
+
+    /**
+     * 把日期单元格按yyyy-MM-dd HH:mm:ss格式化，无法确定日期系统时返回null
+     */
+    static String formatDate(Cell cell) {
+        Boolean use1904 = isDate1904(cell);
+        if (use1904 == null) {
+            return null;
+        }
+        return formatDate(cell.getNumericCellValue(), use1904);
+    }
+
+    /**
+     * 把excel日期序列值按yyyy-MM-dd HH:mm:ss格式化，供没有Cell对象的事件模式读取使用，无法处理时返回null
+     */
+    static String formatDate(double value, boolean use1904) {
+        if (!(value >= 0) || value > Integer.MAX_VALUE) {
+            return null;
+        }
+        //与poi的DateUtil.getJavaDate相同：整数部分为天，小数部分四舍五入到毫秒，1900日期系统保留1900-02-29这一天
+        int wholeDays = (int) Math.floor(value);
+        long millisInDay = (long) ((value - wholeDays) * MILLIS_PER_DAY + 0.5);
+        long epochDay;
+        if (use1904) {
+            epochDay = EPOCH_DAY_1904 + wholeDays;
+        } else {
+            epochDay = EPOCH_DAY_1900 + wholeDays - (wholeDays < 61 ? 1 : 2);
+        }
+        epochDay += millisInDay / MILLIS_PER_DAY;
+        long secondOfDay = millisInDay % MILLIS_PER_DAY / 1000;
+        Buffer buffer = BUFFER.get();
+        if (!buffer.isValidLocalTime(epochDay * MILLIS_PER_DAY + secondOfDay * 1000)) {
+            //夏令时跳过的时刻，Calendar会顺延，交给原来的方式处理
+            return null;
+        }
+        return buffer.dateTime(epochDay, (int) secondOfDay);
+    }
+
+    private static Boolean isDate1904(Cell cell) {
+        if (cell instanceof StreamingCell) {
+            if (STREAMING_USE_1904 == null) {
+                return null;
+            }
+            try {
+                return (boolean) STREAMING_USE_1904.invokeExact((StreamingCell) cell);
+            } catch (Throwable e) {
+                return null;
+            }
+        }
+        if (cell instanceof XSSFCell) {
+            return ((XSSFCell) cell).getSheet().getWorkbook().isDate1904();
+        }
+        if (cell instanceof HSSFCell) {
+            return ((HSSFCell) cell).getSheet().getWorkbook().getInternalWorkbook().isUsing1904DateWindowing();
+        }
+        return null;
+    }
+
+    private static MethodHandle streamingUse1904() {
+        try {
+            Field field = StreamingCell.class.getDeclaredField("use1904Dates");
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 每个线程一个，格式化结果先写入chars再生成字符串
+     */
+    private static final class Buffer {
+        final char[] chars = new char[32];
+        final DecimalFormat decimalFormat = new DecimalFormat("0.00");
+        final char zeroDigit;
+        final char decimalSeparator;
+        final char minusSign;
+        final TimeZone timeZone = TimeZone.getDefault();
+
+        Buffer() {
+            DecimalFormatSymbols symbols = decimalFormat.getDecimalFormatSymbols();
+            zeroDigit = symbols.getZeroDigit();
+            decimalSeparator = symbols.getDecimalSeparator();
+            minusSign = symbols.getMinusSign();
+        }
+
+        String legacy(double value) {
+            String val = decimalFormat.format(value).toUpperCase();
+            if (val.contains("E")) {
+                val = val.split("E")[0].replace(".", "");
+            }
+            return val;
+        }
+
+        String number(boolean negative, long hundredths) {
+            int pos = chars.length;
+            chars[--pos] = (char) (zeroDigit + hundredths % 10);
+            chars[--pos] = (char) (zeroDigit + hundredths / 10 % 10);
+            chars[--pos] = decimalSeparator;
+            long integer = hundredths / 100;
+            do {
+                chars[--pos] = (char) (zeroDigit + integer % 10);
+                integer /= 10;
+            } while (integer > 0);
+            if (negative) {
+                chars[--pos] = minusSign;
+            }
+            return new String(chars, pos, chars.length - pos);
+        }
+
+        /**
+         * 当地时间能否换算成时间戳后原样换算回来，不能说明落在夏令时切换跳过的时间段
+         */
+        boolean isValidLocalTime(long localMillis) {
+            long utc = localMillis - timeZone.getOffset(localMillis - timeZone.getRawOffset());
+            return utc + timeZone.getOffset(utc) == localMillis;
+        }
+
+        String dateTime(long epochDay, int secondOfDay) {
+            //由1970-01-01起的天数推算公历年月日
+            long z = epochDay + 719468;
+            long era = (z >= 0 ? z : z - 146096) / 146097;
+            long doe = z - era * 146097;
+            long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+            long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+            long mp = (5 * doy + 2) / 153;
+            int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+            int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+            int year = (int) (yoe + era * 400 + (month <= 2 ? 1 : 0));
+
+            int pos = writeYear(year);
+            chars[pos] = '-';
+            write2(pos + 1, month);
+            chars[pos + 3] = '-';
+            write2(pos + 4, day);
+            chars[pos + 6] = ' ';
+            write2(pos + 7, secondOfDay / 3600);
+            chars[pos + 9] = ':';
+            write2(pos + 10, secondOfDay / 60 % 60);
+            chars[pos + 12] = ':';
+            write2(pos + 13, secondOfDay % 60);
+            return new String(chars, 0, pos + 15);
+        }
+
+        /**
+         * 年份至少4位，与SimpleDateFormat的yyyy一样超过9999时写出全部位数
+         *
+         * @return 年份之后的下标
+         */
+        private int writeYear(int year) {
+            int digits = 4;
+            for (int limit = 10000; digits < 10 && year >= limit; limit *= 10) {
+                digits++;
+            }
+            for (int pos = digits - 1, value = year; pos >= 0; pos--, value /= 10) {
+                chars[pos] = (char) (zeroDigit + value % 10);
+            }
+            return digits;
+        }
+
+        private void write2(int pos, int value) {
+            chars[pos] = (char) (zeroDigit + value / 10);
+            chars[pos + 1] = (char) (zeroDigit + value % 10);
+        }
+    }
+}
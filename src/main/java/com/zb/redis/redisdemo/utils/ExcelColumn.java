@@ -0,0 +1,35 @@
+package com.zb.redis.redisdemo.utils;
+
+import java.lang.annotation.*;
+
+/**
+ * @description: 把excel的列绑定到对象字段，按标题名称或列下标匹配，未标注的字段不读取
+ * 支持String、int/Integer、long/Long、double/Double、boolean/Boolean、BigDecimal、Date、LocalDate、LocalDateTime和枚举
+ * @author: zhangbing
+ * @create: 2026-10-21 09:30
+ **/
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ExcelColumn {
+
+    /**
+     * 标题名称，为空时使用字段名
+     */
+    String value() default "";
+
+    /**
+     * 列下标，从0开始，大于等于0时忽略标题名称
+     */
+    int index() default -1;
+
+    /**
+     * 日期列为文本时的格式
+     */
+    String format() default DateUtil.DEFAULT_DATE_FORMAT;
+
+    /**
+     * 文件中没有该列时是否报错
+     */
+    boolean required() default true;
+}
@@ -7,18 +7,28 @@ import com.monitorjbl.xlsx.StreamingReader;
 import lombok.extern.log4j.Log4j2;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.poi.hssf.usermodel.HSSFDateUtil;
-import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletResponse;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
-import java.text.DecimalFormat;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Log4j2
 public class ExcelFileUtil {
@@ -99,47 +109,438 @@ public class ExcelFileUtil {
      * @throws InvalidFormatException
      */
     public static JSONArray readXLSX(MultipartFile file) throws IOException {
-        Workbook wk = null;
         JSONArray jsonArray = new JSONArray();
+        List<String> titles = new ArrayList<>();
         try {
+            readXLSX(file.getInputStream(), new ExcelRowSink() {
+                @Override
+                public void start(List<String> rowTitles) {
+                    titles.addAll(rowTitles);
+                }
+
+                @Override
+                public void accept(int rowNum, String[] values) {
+                    JSONObject jsonObject = new JSONObject();
+                    for (int i = 0; i < titles.size(); i++) {
+                        jsonObject.put(titles.get(i), values[i]);
+                    }
+                    jsonArray.add(jsonObject);
+                }
+            });
+        } catch (Exception e) {
+            log.error("文件解析异常");
+        }
+        return jsonArray;
+    }
+
+    /**
+     * 流式读取XLSX文件的第一个sheet，每解析一行就推送给sink，内存占用只与StreamingReader的行缓存有关
+     *
+     * @param in   xlsx文件流
+     * @param sink 行接收方
+     * @return 推送的数据行数，不含标题行
+     * @throws IOException
+     */
+    public static long readXLSX(InputStream in, ExcelRowSink sink) throws IOException {
+        try (Workbook wk = builderWorbook(in)) {
+            return readSheet(getSheetByIndex(wk, 0), sink);
+        }
+    }
+
+    /**
+     * 逐行读取XLS文件的第一个sheet推送给sink，行的含义与read(Sheet, Workbook, boolean)相同，
+     * 标题的第一项为line，值为行号，之后是第一行的键，全为空的行不推送，
+     * 文件流先写入临时文件，再用事件模式逐条解析，内存中只有当前一行
+     *
+     * @param in          xls文件流
+     * @param isDeleteOne 是否删除第一行
+     * @param sink        行接收方
+     * @return 推送的数据行数，不含标题行
+     * @throws IOException
+     */
+    public static long readXLS(InputStream in, boolean isDeleteOne, ExcelRowSink sink) throws IOException {
+        File tempFile = copyToTempFile(in);
+        try {
+            XlsSinkRows rows = new XlsSinkRows(isDeleteOne, sink);
+            XlsEventReader.read(tempFile, rows);
+            return rows.rows;
+        } finally {
+            deleteTempFile(tempFile);
+        }
+    }
+
+    /**
+     * 事件模式读取XLS文件的第一个sheet，每行转成的JSON对象与read(Sheet, Workbook, boolean)相同，
+     * 包括line行号、第一行作为键、跳过全为空的行，读到一行就推送一行
+     *
+     * @param file        xls文件
+     * @param isDeleteOne 是否删除第一行
+     * @param consumer    行JSON对象的接收方
+     * @throws IOException
+     */
+    public static void readXLS(File file, boolean isDeleteOne, Consumer<JSONObject> consumer) throws IOException {
+        List<String> titles = new ArrayList<>();
+        XlsEventReader.read(file, new XlsSinkRows(isDeleteOne, new ExcelRowSink() {
+            @Override
+            public void start(List<String> rowTitles) {
+                titles.addAll(rowTitles);
+            }
 
-            wk = builderWorbook(file);
+            @Override
+            public void accept(int rowNum, String[] values) {
+                JSONObject obj = new JSONObject();
+                for (int i = 0; i < values.length; i++) {
+                    obj.put(titles.get(i), values[i]);
+                }
+                consumer.accept(obj);
+            }
+        }));
+    }
 
-            Sheet sheet = getSheetByIndex(wk, 0);
+    //sheet的行推送给ExcelRowSink，与read(Sheet, Workbook, boolean)相同
+    private static final class XlsSinkRows implements XlsEventReader.RowHandler {
+        private final boolean isDeleteOne;
+        private final ExcelRowSink sink;
+        private String[] keys;
+        private int cellStart = -1;
+        private int cellEnd = -1;
+        private long rows;
+        /**
+         * 第一行中第一个不能作为键的单元格对应的异常
+         */
+        private RuntimeException keyError;
+
+        XlsSinkRows(boolean isDeleteOne, ExcelRowSink sink) {
+            this.isDeleteOne = isDeleteOne;
+            this.sink = sink;
+        }
 
-            //遍历所有的行
-            List<String> titles = new ArrayList<>();
-            for (Row row : sheet) {
-                if (row.getRowNum() == 0) {
-                    //获取第一行所有的标题
-                    getAllTitle(titles, row);
-                    continue;
+        @Override
+        public void accept(int rowNum, XlsEventReader row) throws IOException {
+            if (isDeleteOne && rowNum == 0) {//删除第一行
+                return;
+            }
+            if (keys == null) {
+                // 获取第一行JSON对象键
+                cellStart = row.getFirstCellNum();
+                cellEnd = row.getLastCellNum();
+                keys = new String[Math.max(0, cellEnd - cellStart)];
+                for (int j = cellStart; j < cellEnd && keyError == null; j++) {
+                    if (!row.hasCell(j) || row.isBlank(j)) {
+                        keyError = new NullPointerException(String.format("the key on row %s index %s is null ",
+                                rowNum + 1, j + 1));
+                    } else {
+                        try {
+                            keys[j - cellStart] = row.getValue(j);
+                        } catch (IllegalStateException e) {
+                            keyError = e;
+                        }
+                    }
                 }
+                if (keyError == null) {
+                    List<String> titles = new ArrayList<>(keys.length + 1);
+                    titles.add("line");
+                    titles.addAll(Arrays.asList(keys));
+                    sink.start(titles);
+                }
+                return;
+            }
+            // 只有键这一行时返回空，所以读到下一行才报错
+            if (keyError != null) {
+                throw keyError;
+            }
+            String[] values = new String[keys.length + 1];
+            //行号
+            values[0] = String.valueOf(rowNum + 1);
+            boolean empty = true;
+            for (int k = cellStart; k < cellEnd; k++) {
+                String val = row.hasCell(k) ? row.getValue(k) : "";
+                if (val == null || !val.isEmpty()) {        // 判断该行是否为空
+                    empty = false;
+                }
+                values[k - cellStart + 1] = val;
+            }
+            if (!empty) {
+                sink.accept(rowNum, values);
+                rows++;
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            sink.finish();
+        }
+    }
+
+    //把上传的文件流写入临时文件，事件模式按需读取文件中的数据块，不把整个文件读入内存
+    private static File copyToTempFile(InputStream in) throws IOException {
+        File tempFile = File.createTempFile("excel-read-", ".xls");
+        try {
+            Files.copy(in, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            deleteTempFile(tempFile);
+            throw e;
+        }
+        return tempFile;
+    }
+
+    private static void deleteTempFile(File tempFile) {
+        if (!tempFile.delete()) {
+            log.warn("删除临时文件失败:{}", tempFile);
+        }
+    }
+
+    /**
+     * 读取excel并按@ExcelColumn绑定成对象，xlsx流式读取，xls按事件模式逐条读取，都不加载整个工作簿
+     *
+     * @param file xlsx或xls文件
+     * @param type 行对象类型，需要无参构造器
+     * @return 非空行绑定的对象
+     * @throws IOException
+     */
+    public static <T> List<T> readExcel(MultipartFile file, Class<T> type) throws IOException {
+        List<T> list = new ArrayList<>();
+        int res = checkFile(file);
+        try (InputStream in = file.getInputStream()) {
+            if (res == 1) {
+                readXLSX(in, type, list::add);
+            } else if (res == 2) {
+                readXLS(in, type, list::add);
+            } else {
+                throw new IllegalArgumentException("文件格式错误,请导入excel文件");
+            }
+        }
+        return list;
+    }
+
+    /**
+     * 流式读取XLSX文件的第一个sheet，按@ExcelColumn把每行绑定成对象推送给consumer，
+     * 列和转换方式在标题行确定，之后每行只按列下标读取单元格
+     *
+     * @param in       xlsx文件流
+     * @param type     行对象类型，需要无参构造器
+     * @param consumer 行对象接收方，全为空的行不推送
+     * @return 推送的行数
+     * @throws IOException
+     */
+    public static <T> long readXLSX(InputStream in, Class<T> type, Consumer<? super T> consumer) throws IOException {
+        try (Workbook wk = builderWorbook(in)) {
+            return readSheet(getSheetByIndex(wk, 0), ExcelRowBinder.of(type), consumer);
+        }
+    }
+
+    /**
+     * 读取XLS文件的第一个sheet并按@ExcelColumn绑定成对象，文件流先写入临时文件，再用事件模式逐条解析，
+     * 不创建HSSFWorkbook，单元格的取值规则与HSSFCell相同
+     *
+     * @see #readXLSX(InputStream, Class, Consumer)
+     */
+    public static <T> long readXLS(InputStream in, Class<T> type, Consumer<? super T> consumer) throws IOException {
+        File tempFile = copyToTempFile(in);
+        try {
+            XlsBeanRows<T> rows = new XlsBeanRows<>(ExcelRowBinder.of(type), consumer);
+            XlsEventReader.read(tempFile, rows);
+            return rows.rows;
+        } finally {
+            deleteTempFile(tempFile);
+        }
+    }
 
-                //遍历所有的列
-                JSONObject jsonObject = new JSONObject();
-                for (int i = 0; i < titles.size(); i++) {
-                    Cell cell = row.getCell(i);
-                    String stringCellValue = null;
-                    if (cell != null) {
-                        stringCellValue = ExcelFileUtil.getValue(cell);
+    //sheet的行绑定成对象，与readSheet(Sheet, ExcelRowBinder, Consumer)相同
+    private static final class XlsBeanRows<T> implements XlsEventReader.RowHandler {
+        private final ExcelRowBinder<T> binder;
+        private final Consumer<? super T> consumer;
+        private ExcelRowBinder.Columns<T> columns;
+        private long rows;
+
+        XlsBeanRows(ExcelRowBinder<T> binder, Consumer<? super T> consumer) {
+            this.binder = binder;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void accept(int rowNum, XlsEventReader row) {
+            if (columns == null) {
+                String[] titles = new String[Math.max(0, row.getLastCellNum())];
+                for (int i = Math.max(0, row.getFirstCellNum()); i < titles.length; i++) {
+                    if (row.hasCell(i)) {
+                        titles[i] = row.getValue(i);
                     }
+                }
+                columns = binder.bind(titles);
+                return;
+            }
+            T bean = columns.read(rowNum, row);
+            if (bean != null) {
+                consumer.accept(bean);
+                rows++;
+            }
+        }
+    }
 
-                    jsonObject.put(titles.get(i), stringCellValue);
+    //第一行为标题，按标题所在的列下标确定字段绑定
+    private static <T> long readSheet(Sheet sheet, ExcelRowBinder<T> binder, Consumer<? super T> consumer)
+            throws IOException {
+        long rows = 0;
+        ExcelRowBinder.Columns<T> columns = null;
+        for (Row row : sheet) {
+            if (columns == null) {
+                String[] titles = new String[Math.max(0, row.getLastCellNum())];
+                for (Cell cell : row) {
+                    titles[cell.getColumnIndex()] = ExcelFileUtil.getValue(cell);
                 }
+                columns = binder.bind(titles);
+                continue;
+            }
+            T bean = columns.read(row);
+            if (bean != null) {
+                consumer.accept(bean);
+                rows++;
+            }
+        }
+        return rows;
+    }
 
-                if (row.getRowNum() > 0) {
-                    jsonArray.add(jsonObject);
+    /**
+     * 并行读取XLSX的多个sheet，每个sheet独立打开、流式读取，推送给各自的sink；
+     * 调用线程打开文件列出sheet名称后直接读取第一个sheet，其余sheet提交到共享的线程池；
+     * 每个sheet读取期间从rowBudget占用sheetRows行的额度，额度不足时等待，
+     * 线程池和额度由调用方在进程内共享，同时进行的多个导入合计缓存的行数也不超过额度
+     *
+     * @param file         xlsx文件
+     * @param sheetNames   要读取的sheet名称，为空时读取全部sheet
+     * @param executor     读取sheet的共享线程池
+     * @param rowBudget    进程内共享的行额度
+     * @param rowCacheSize 每个sheet的行缓存大小
+     * @param sheetRows    每个sheet读取期间占用的行额度，包括行缓存和sink中缓存的行，不能超过rowBudget的总额度
+     * @param sinkFactory  按sheet名称创建行接收方，在读取该sheet的线程中调用，每个sheet一个
+     * @return sheet名称到推送的数据行数，按sheet在文件中的顺序
+     * @throws IOException
+     */
+    public static Map<String, Long> readXLSXSheets(File file, Collection<String> sheetNames, ExecutorService executor,
+                                                   Semaphore rowBudget, int rowCacheSize, int sheetRows,
+                                                   Function<String, ExcelRowSink> sinkFactory) throws IOException {
+        Map<String, Future<Long>> futures = new LinkedHashMap<>();
+        Map<String, Long> rows = new LinkedHashMap<>();
+        try {
+            acquireRows(rowBudget, sheetRows);
+            try (Workbook wk = openSheetReader(file, rowCacheSize)) {
+                List<String> names = selectSheets(wk, sheetNames);
+                if (names.isEmpty()) {
+                    return rows;
                 }
+                for (String name : names.subList(1, names.size())) {
+                    futures.put(name, executor.submit(() -> readSheet(file, name, rowBudget, rowCacheSize, sheetRows,
+                            sinkFactory)));
+                }
+                String first = names.get(0);
+                rows.put(first, readSheet(getSheetByName(wk, first), sinkFactory.apply(first)));
+            } finally {
+                rowBudget.release(sheetRows);
             }
-        } catch (Exception e) {
-            log.error("文件解析异常");
+            for (Map.Entry<String, Future<Long>> entry : futures.entrySet()) {
+                rows.put(entry.getKey(), await(entry.getValue()));
+            }
+            return rows;
+        } catch (IOException | RuntimeException | Error e) {
+            futures.values().forEach(future -> future.cancel(true));
+            throw e;
+        }
+    }
+
+    //按文件中的顺序返回要读取的sheet，指定了不存在的sheet时报错
+    private static List<String> selectSheets(Workbook wk, Collection<String> sheetNames) {
+        List<String> all = new ArrayList<>();
+        for (int i = 0; i < wk.getNumberOfSheets(); i++) {
+            all.add(wk.getSheetName(i));
+        }
+        if (sheetNames == null || sheetNames.isEmpty()) {
+            return all;
+        }
+        Set<String> missing = new LinkedHashSet<>(sheetNames);
+        missing.removeAll(all);
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("sheet不存在:" + missing);
+        }
+        List<String> selected = new ArrayList<>(all);
+        selected.retainAll(sheetNames);
+        return selected;
+    }
 
+    //在线程池中读取单个sheet，单独打开文件，互不共享解析状态
+    private static long readSheet(File file, String sheetName, Semaphore rowBudget, int rowCacheSize, int sheetRows,
+                                  Function<String, ExcelRowSink> sinkFactory) throws IOException {
+        acquireRows(rowBudget, sheetRows);
+        try (Workbook wk = openSheetReader(file, rowCacheSize)) {
+            return readSheet(getSheetByName(wk, sheetName), sinkFactory.apply(sheetName));
         } finally {
-            wk.close();
+            rowBudget.release(sheetRows);
         }
-        return jsonArray;
+    }
 
+    private static Workbook openSheetReader(File file, int rowCacheSize) {
+        return StreamingReader.builder()
+                .rowCacheSize(rowCacheSize)
+                .bufferSize(4096)
+                .open(file);
+    }
+
+    private static void acquireRows(Semaphore rowBudget, int rows) throws IOException {
+        try {
+            rowBudget.acquire(rows);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待读取额度时被中断");
+        }
+    }
+
+    private static long await(Future<Long> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待sheet读取结果时被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    //逐行读取一个sheet，第一行为标题
+    private static long readSheet(Sheet sheet, ExcelRowSink sink) throws IOException {
+        long rows = 0;
+        //遍历所有的行
+        List<String> titles = new ArrayList<>();
+        for (Row row : sheet) {
+            if (row.getRowNum() == 0) {
+                //获取第一行所有的标题
+                getAllTitle(titles, row);
+                sink.start(titles);
+                continue;
+            }
+
+            //遍历所有的列
+            String[] values = new String[titles.size()];
+            for (int i = 0; i < values.length; i++) {
+                Cell cell = row.getCell(i);
+                if (cell != null) {
+                    values[i] = ExcelFileUtil.getValue(cell);
+                }
+            }
+            sink.accept(row.getRowNum(), values);
+            rows++;
+        }
+        sink.finish();
+        return rows;
     }
 
     //获取改行所有的值
@@ -162,11 +563,11 @@ public class ExcelFileUtil {
     }
 
     //使用StreamingReader构建workbook对象
-    private static Workbook builderWorbook(MultipartFile file) throws IOException {
+    private static Workbook builderWorbook(InputStream in) throws IOException {
         return StreamingReader.builder()
                 .rowCacheSize(100)  //缓存到内存中的行数，默认是10
                 .bufferSize(4096)  //读取资源时，缓存到内存的字节大小，默认是1024
-                .open(file.getInputStream());  //打开资源，必须，可以是InputStream或者是File，注意：只能打开XLSX格式的文件
+                .open(in);  //打开资源，必须，可以是InputStream或者是File，注意：只能打开XLSX格式的文件
 
     }
 
@@ -179,7 +580,17 @@ public class ExcelFileUtil {
      * @throws FileNotFoundException
      */
     public static JSONArray readXLS(MultipartFile file, boolean isDeleteOne) throws IOException {
-        return read(new HSSFWorkbook(file.getInputStream()), isDeleteOne);
+        JSONArray array = new JSONArray();
+        File tempFile;
+        try (InputStream in = file.getInputStream()) {
+            tempFile = copyToTempFile(in);
+        }
+        try {
+            readXLS(tempFile, isDeleteOne, array::add);
+        } finally {
+            deleteTempFile(tempFile);
+        }
+        return array;
     }
 
     public static JSONArray read(Workbook book, boolean isDeleteOne) throws IOException {
@@ -263,19 +674,17 @@ public class ExcelFileUtil {
             }
         }
 
-        // 0. 数字 类型
+        // 0. 数字 类型，格式化不创建DecimalFormat、Calendar，见ExcelCellFormatter
         if (cell.getCellTypeEnum() == CellType.NUMERIC) {
             if (HSSFDateUtil.isCellDateFormatted(cell)) {
+                String val = ExcelCellFormatter.formatDate(cell);
+                if (val != null) {
+                    return val;
+                }
                 Date date = cell.getDateCellValue();
                 return DateUtil.getTime(date, DateUtil.DEFAULT_DATE_FORMAT);
             }
-            DecimalFormat df = new DecimalFormat("0.00");
-            String val = df.format(cell.getNumericCellValue());
-            val = val.toUpperCase();
-            if (val.contains("E")) {
-                val = val.split("E")[0].replace(".", "");
-            }
-            return val;
+            return ExcelCellFormatter.formatNumber(cell.getNumericCellValue());
         }
 
         // 1. String类型
@@ -345,6 +754,38 @@ public class ExcelFileUtil {
         return workbook;
     }
 
+    /**
+     * 流式导出，只在内存中保留最近的100行，其余行写入临时文件，用完需要调用dispose删除临时文件
+     *
+     * @param sheetName sheet名称
+     * @param title     表头
+     * @param rows      按需生成的行数据
+     * @return
+     */
+    public static SXSSFWorkbook exportStreaming(String sheetName, String[] title, Iterator<String[]> rows) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        Sheet sheet = StringUtils.isNotEmpty(sheetName) ? workbook.createSheet(sheetName) : workbook.createSheet();
+
+        CellStyle cellStyle = workbook.createCellStyle();
+        cellStyle.setAlignment(HorizontalAlignment.CENTER);
+        Row row = sheet.createRow(0);
+        for (int i = 0; i < title.length; i++) {
+            Cell cell = row.createCell(i);
+            cell.setCellValue(title[i]);
+            cell.setCellStyle(cellStyle);
+        }
+
+        int rowNum = 1;
+        while (rows.hasNext()) {
+            String[] values = rows.next();
+            row = sheet.createRow(rowNum++);
+            for (int j = 0; j < values.length; j++) {
+                row.createCell(j).setCellValue(values[j]);
+            }
+        }
+        return workbook;
+    }
+
 
     public static void outputExcel(XSSFWorkbook wb, HttpServletResponse response) {
         //输出Excel
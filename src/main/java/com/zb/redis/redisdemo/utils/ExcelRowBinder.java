@@ -0,0 +1,628 @@
+package com.zb.redis.redisdemo.utils;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.util.NumberToTextConverter;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * @description: 按@ExcelColumn把excel行绑定成对象
+ * 每个类的构造器和setter只解析一次，通过LambdaMetafactory生成直接调用的函数，无法生成时退回MethodHandle；
+ * 读到标题行时为每个字段确定列下标和转换方式，之后每行只按下标取单元格，数字、布尔直接写入基本类型字段，
+ * 不经过字符串、map和装箱
+ * @author: zhangbing
+ * @create: 2026-10-21 09:40
+ **/
+public final class ExcelRowBinder<T> {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private static final ConcurrentHashMap<Class<?>, ExcelRowBinder<?>> BINDERS = new ConcurrentHashMap<>();
+
+    private final Class<T> type;
+    private final Supplier<T> constructor;
+    private final List<FieldBinding<T>> fields;
+
+    private ExcelRowBinder(Class<T> type) {
+        this.type = type;
+        this.constructor = constructor(type);
+        this.fields = fieldBindings(type);
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException(type.getName() + "没有标注@ExcelColumn的字段");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> ExcelRowBinder<T> of(Class<T> type) {
+        return (ExcelRowBinder<T>) BINDERS.computeIfAbsent(type, ExcelRowBinder::new);
+    }
+
+    /**
+     * 读到标题行时调用，确定每个字段对应的列和转换方式
+     *
+     * @param titles 标题，下标为列下标，没有标题的列为null
+     * @return 本次读取使用的列绑定
+     */
+    public Columns<T> bind(String[] titles) {
+        List<Column<T>> columns = new ArrayList<>(fields.size());
+        for (FieldBinding<T> field : fields) {
+            int index = field.column.index() >= 0 ? field.column.index() : indexOf(titles, field.title);
+            if (index < 0) {
+                if (field.column.required()) {
+                    throw new IllegalArgumentException(String.format("缺少列[%s]，对应%s.%s",
+                            field.title, type.getSimpleName(), field.field.getName()));
+                }
+                continue;
+            }
+            String title = index < titles.length && titles[index] != null ? titles[index] : field.title;
+            columns.add(field.column(index, title));
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Column<T>[] array = columns.toArray(new Column[0]);
+        return new Columns<>(constructor, array);
+    }
+
+    private static int indexOf(String[] titles, String title) {
+        for (int i = 0; i < titles.length; i++) {
+            if (title.equals(titles[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 一次读取中已确定列下标的全部字段，只在读取的线程中使用
+     */
+    public static final class Columns<T> {
+        private final Supplier<T> constructor;
+        private final Column<T>[] columns;
+        private final PoiRow poiRow = new PoiRow();
+
+        Columns(Supplier<T> constructor, Column<T>[] columns) {
+            this.constructor = constructor;
+            this.columns = columns;
+        }
+
+        /**
+         * 把一行绑定成对象
+         *
+         * @return 绑定的列都为空时返回null
+         */
+        public T read(Row row) {
+            poiRow.row = row;
+            try {
+                return read(row.getRowNum(), poiRow);
+            } finally {
+                poiRow.row = null;
+            }
+        }
+
+        /**
+         * 把一行绑定成对象，供没有Row对象的事件模式读取使用
+         *
+         * @param rowNum 行下标，从0开始
+         * @return 绑定的列都为空时返回null
+         */
+        T read(int rowNum, RowValues row) {
+            T bean = null;
+            for (Column<T> column : columns) {
+                if (isBlank(row, column.index)) {
+                    continue;
+                }
+                if (bean == null) {
+                    bean = constructor.get();
+                }
+                try {
+                    column.apply(bean, row);
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException(String.format("第%s行第%s列[%s]的值无法转换为%s:%s",
+                            rowNum + 1, column.index + 1, column.title, column.typeName, e.getMessage()), e);
+                }
+            }
+            return bean;
+        }
+    }
+
+    /**
+     * 按列下标读取一行中的单元格，poi的Row和xls事件模式读取共用同一套转换，取值规则与poi的Cell相同
+     */
+    interface RowValues {
+
+        /**
+         * @return 与Cell.getCellTypeEnum相同，没有单元格时为null
+         */
+        CellType getCellType(int column);
+
+        String getStringValue(int column);
+
+        double getNumericValue(int column);
+
+        boolean getBooleanValue(int column);
+
+        /**
+         * 与DateUtil.isCellDateFormatted相同
+         */
+        boolean isDateFormatted(int column);
+
+        Date getDateValue(int column);
+    }
+
+    private static final class PoiRow implements RowValues {
+        Row row;
+
+        @Override
+        public CellType getCellType(int column) {
+            Cell cell = row.getCell(column);
+            return cell == null ? null : cell.getCellTypeEnum();
+        }
+
+        @Override
+        public String getStringValue(int column) {
+            return row.getCell(column).getStringCellValue();
+        }
+
+        @Override
+        public double getNumericValue(int column) {
+            return row.getCell(column).getNumericCellValue();
+        }
+
+        @Override
+        public boolean getBooleanValue(int column) {
+            return row.getCell(column).getBooleanCellValue();
+        }
+
+        @Override
+        public boolean isDateFormatted(int column) {
+            return org.apache.poi.ss.usermodel.DateUtil.isCellDateFormatted(row.getCell(column));
+        }
+
+        @Override
+        public Date getDateValue(int column) {
+            return row.getCell(column).getDateCellValue();
+        }
+    }
+
+    private static boolean isBlank(RowValues row, int column) {
+        CellType type = row.getCellType(column);
+        if (type == null || type == CellType.BLANK) {
+            return true;
+        }
+        return type == CellType.STRING && row.getStringValue(column).trim().isEmpty();
+    }
+
+    //------------------------------ 单元格读取 ------------------------------
+
+    private static double readDouble(RowValues row, int column) {
+        switch (row.getCellType(column)) {
+            case STRING:
+                return Double.parseDouble(row.getStringValue(column).trim());
+            case BOOLEAN:
+                return row.getBooleanValue(column) ? 1 : 0;
+            default:
+                return row.getNumericValue(column);
+        }
+    }
+
+    private static long readLong(RowValues row, int column) {
+        if (row.getCellType(column) == CellType.STRING) {
+            return Long.parseLong(row.getStringValue(column).trim());
+        }
+        double value = readDouble(row, column);
+        if (value != Math.rint(value)) {
+            throw new NumberFormatException("不是整数:" + value);
+        }
+        return (long) value;
+    }
+
+    private static int readInt(RowValues row, int column) {
+        return Math.toIntExact(readLong(row, column));
+    }
+
+    private static boolean readBoolean(RowValues row, int column) {
+        switch (row.getCellType(column)) {
+            case BOOLEAN:
+                return row.getBooleanValue(column);
+            case NUMERIC:
+                return row.getNumericValue(column) != 0;
+            default:
+                String value = row.getStringValue(column).trim();
+                return "true".equalsIgnoreCase(value) || "1".equals(value) || "是".equals(value);
+        }
+    }
+
+    private static String readString(RowValues row, int column, String format) {
+        switch (row.getCellType(column)) {
+            case NUMERIC:
+                if (row.isDateFormatted(column)) {
+                    return DateUtil.getTime(row.getDateValue(column), format);
+                }
+                return NumberToTextConverter.toText(row.getNumericValue(column));
+            case BOOLEAN:
+                return String.valueOf(row.getBooleanValue(column));
+            default:
+                return row.getStringValue(column).trim();
+        }
+    }
+
+    private static BigDecimal readDecimal(RowValues row, int column) {
+        if (row.getCellType(column) == CellType.STRING) {
+            return new BigDecimal(row.getStringValue(column).trim());
+        }
+        return new BigDecimal(NumberToTextConverter.toText(readDouble(row, column)));
+    }
+
+    private static LocalDateTime readDateTime(RowValues row, int column, DateTimeFormatter formatter) {
+        if (row.getCellType(column) == CellType.NUMERIC) {
+            return LocalDateTime.ofInstant(row.getDateValue(column).toInstant(), ZoneId.systemDefault());
+        }
+        TemporalAccessor parsed = formatter.parse(row.getStringValue(column).trim());
+        LocalDate date = LocalDate.from(parsed);
+        return parsed.isSupported(ChronoField.HOUR_OF_DAY) ? date.atTime(LocalTime.from(parsed))
+                : date.atStartOfDay();
+    }
+
+    //------------------------------ 字段绑定 ------------------------------
+
+    /**
+     * 标注了@ExcelColumn的字段，按字段类型保存对应的setter
+     */
+    private static final class FieldBinding<T> {
+        final Field field;
+        final ExcelColumn column;
+        final String title;
+        final Object setter;
+
+        FieldBinding(Field field, ExcelColumn column, Object setter) {
+            this.field = field;
+            this.column = column;
+            this.title = column.value().isEmpty() ? field.getName() : column.value();
+            this.setter = setter;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Column<T> column(int index, String columnTitle) {
+            Class<?> fieldType = field.getType();
+            String typeName = fieldType.getSimpleName();
+            if (fieldType == int.class) {
+                IntSetter<T> set = (IntSetter<T>) setter;
+                return new Column<T>(index, columnTitle, typeName) {
+                    @Override
+                    void apply(T bean, RowValues row) {
+                        set.accept(bean, readInt(row, index));
+                    }
+                };
+            }
+            if (fieldType == long.class) {
+                LongSetter<T> set = (LongSetter<T>) setter;
+                return new Column<T>(index, columnTitle, typeName) {
+                    @Override
+                    void apply(T bean, RowValues row) {
+                        set.accept(bean, readLong(row, index));
+                    }
+                };
+            }
+            if (fieldType == double.class) {
+                DoubleSetter<T> set = (DoubleSetter<T>) setter;
+                return new Column<T>(index, columnTitle, typeName) {
+                    @Override
+                    void apply(T bean, RowValues row) {
+                        set.accept(bean, readDouble(row, index));
+                    }
+                };
+            }
+            if (fieldType == boolean.class) {
+                BooleanSetter<T> set = (BooleanSetter<T>) setter;
+                return new Column<T>(index, columnTitle, typeName) {
+                    @Override
+                    void apply(T bean, RowValues row) {
+                        set.accept(bean, readBoolean(row, index));
+                    }
+                };
+            }
+            Converter converter = converter(fieldType, column.format());
+            ObjectSetter<T> set = (ObjectSetter<T>) setter;
+            return new Column<T>(index, columnTitle, typeName) {
+                @Override
+                void apply(T bean, RowValues row) {
+                    set.accept(bean, converter.convert(row, index));
+                }
+            };
+        }
+    }
+
+    /**
+     * 引用类型字段的转换函数，读到标题行时按字段类型选定
+     */
+    @FunctionalInterface
+    private interface Converter {
+        Object convert(RowValues row, int column);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Converter converter(Class<?> fieldType, String format) {
+        if (fieldType == String.class) {
+            return (row, column) -> readString(row, column, format);
+        }
+        if (fieldType == Integer.class) {
+            return ExcelRowBinder::readInt;
+        }
+        if (fieldType == Long.class) {
+            return ExcelRowBinder::readLong;
+        }
+        if (fieldType == Double.class) {
+            return ExcelRowBinder::readDouble;
+        }
+        if (fieldType == Boolean.class) {
+            return ExcelRowBinder::readBoolean;
+        }
+        if (fieldType == BigDecimal.class) {
+            return ExcelRowBinder::readDecimal;
+        }
+        if (fieldType.isEnum()) {
+            return (row, column) -> Enum.valueOf((Class<Enum>) fieldType, row.getStringValue(column).trim());
+        }
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern(format);
+        if (fieldType == LocalDateTime.class) {
+            return (row, column) -> readDateTime(row, column, formatter);
+        }
+        if (fieldType == LocalDate.class) {
+            return (row, column) -> readDateTime(row, column, formatter).toLocalDate();
+        }
+        if (fieldType == Date.class) {
+            return (row, column) -> row.getCellType(column) == CellType.NUMERIC ? row.getDateValue(column)
+                    : Date.from(readDateTime(row, column, formatter).atZone(ZoneId.systemDefault()).toInstant());
+        }
+        throw new IllegalArgumentException("不支持的字段类型:" + fieldType.getName());
+    }
+
+    private abstract static class Column<T> {
+        final int index;
+        final String title;
+        final String typeName;
+
+        Column(int index, String title, String typeName) {
+            this.index = index;
+            this.title = title;
+            this.typeName = typeName;
+        }
+
+        abstract void apply(T bean, RowValues row);
+    }
+
+    private static <T> List<FieldBinding<T>> fieldBindings(Class<T> type) {
+        List<FieldBinding<T>> bindings = new ArrayList<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                ExcelColumn column = field.getAnnotation(ExcelColumn.class);
+                if (column == null || Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                //字段类型不支持时在这里就报错，不等到读取
+                if (!field.getType().isPrimitive()) {
+                    converter(field.getType(), column.format());
+                } else if (field.getType() != int.class && field.getType() != long.class
+                        && field.getType() != double.class && field.getType() != boolean.class) {
+                    throw new IllegalArgumentException("不支持的字段类型:" + field.getType().getName());
+                }
+                bindings.add(new FieldBinding<>(field, column, setter(type, field)));
+            }
+        }
+        return bindings;
+    }
+
+    //------------------------------ 访问函数生成 ------------------------------
+
+    @FunctionalInterface
+    interface IntSetter<T> {
+        void accept(T bean, int value);
+    }
+
+    @FunctionalInterface
+    interface LongSetter<T> {
+        void accept(T bean, long value);
+    }
+
+    @FunctionalInterface
+    interface DoubleSetter<T> {
+        void accept(T bean, double value);
+    }
+
+    @FunctionalInterface
+    interface BooleanSetter<T> {
+        void accept(T bean, boolean value);
+    }
+
+    @FunctionalInterface
+    interface ObjectSetter<T> {
+        void accept(T bean, Object value);
+    }
+
+    /**
+     * 优先用public setter生成函数，没有setter或类不能生成时直接写字段
+     */
+    private static Object setter(Class<?> type, Field field) {
+        Class<?> fieldType = field.getType();
+        Class<?> setterType = setterInterface(fieldType);
+        Method method = findSetter(type, field);
+        if (method != null && canSpinLambda(type)) {
+            try {
+                MethodHandle target = LOOKUP.unreflect(method);
+                MethodType samType = MethodType.methodType(void.class, Object.class,
+                        fieldType.isPrimitive() ? fieldType : Object.class);
+                MethodType instantiatedType = MethodType.methodType(void.class, type, fieldType);
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "accept", MethodType.methodType(setterType),
+                        samType, target, instantiatedType);
+                return site.getTarget().invoke();
+            } catch (Throwable e) {
+                //退回MethodHandle
+            }
+        }
+        MethodHandle handle;
+        try {
+            if (method != null) {
+                handle = LOOKUP.unreflect(method);
+            } else {
+                field.setAccessible(true);
+                handle = LOOKUP.unreflectSetter(field);
+            }
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException("无法写入字段" + type.getName() + "." + field.getName(), e);
+        }
+        return handleSetter(fieldType, handle.asType(MethodType.methodType(void.class, Object.class,
+                fieldType.isPrimitive() ? fieldType : Object.class)));
+    }
+
+    private static Object handleSetter(Class<?> fieldType, MethodHandle handle) {
+        if (fieldType == int.class) {
+            return (IntSetter<Object>) (bean, value) -> {
+                try {
+                    handle.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+            };
+        }
+        if (fieldType == long.class) {
+            return (LongSetter<Object>) (bean, value) -> {
+                try {
+                    handle.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+            };
+        }
+        if (fieldType == double.class) {
+            return (DoubleSetter<Object>) (bean, value) -> {
+                try {
+                    handle.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+            };
+        }
+        if (fieldType == boolean.class) {
+            return (BooleanSetter<Object>) (bean, value) -> {
+                try {
+                    handle.invokeExact(bean, value);
+                } catch (Throwable e) {
+                    throw rethrow(e);
+                }
+            };
+        }
+        return (ObjectSetter<Object>) (bean, value) -> {
+            try {
+                handle.invokeExact(bean, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        };
+    }
+
+    private static Class<?> setterInterface(Class<?> fieldType) {
+        if (fieldType == int.class) {
+            return IntSetter.class;
+        }
+        if (fieldType == long.class) {
+            return LongSetter.class;
+        }
+        if (fieldType == double.class) {
+            return DoubleSetter.class;
+        }
+        if (fieldType == boolean.class) {
+            return BooleanSetter.class;
+        }
+        return ObjectSetter.class;
+    }
+
+    private static Method findSetter(Class<?> type, Field field) {
+        String name = "set" + Character.toUpperCase(field.getName().charAt(0)) + field.getName().substring(1);
+        try {
+            Method method = type.getMethod(name, field.getType());
+            return Modifier.isStatic(method.getModifiers()) ? null : method;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> constructor(Class<T> type) {
+        Constructor<T> ctor;
+        try {
+            ctor = type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(type.getName() + "没有无参构造器", e);
+        }
+        if (Modifier.isPublic(ctor.getModifiers()) && canSpinLambda(type)) {
+            try {
+                CallSite site = LambdaMetafactory.metafactory(LOOKUP, "get", MethodType.methodType(Supplier.class),
+                        MethodType.methodType(Object.class), LOOKUP.unreflectConstructor(ctor),
+                        MethodType.methodType(type));
+                return (Supplier<T>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                //退回MethodHandle
+            }
+        }
+        MethodHandle handle;
+        try {
+            ctor.setAccessible(true);
+            handle = LOOKUP.unreflectConstructor(ctor).asType(MethodType.methodType(Object.class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException("无法创建" + type.getName(), e);
+        }
+        return () -> {
+            try {
+                return (T) handle.invokeExact();
+            } catch (Throwable e) {
+                throw new IllegalStateException("创建" + type.getName() + "失败", e);
+            }
+        };
+    }
+
+    /**
+     * 生成的函数类定义在本类的类加载器中，目标类必须是public且能从这个类加载器看到
+     */
+    private static boolean canSpinLambda(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers())) {
+            return false;
+        }
+        try {
+            return Class.forName(type.getName(), false, ExcelRowBinder.class.getClassLoader()) == type;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new IllegalStateException(e);
+    }
+}
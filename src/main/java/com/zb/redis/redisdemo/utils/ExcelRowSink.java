@@ -0,0 +1,34 @@
+package com.zb.redis.redisdemo.utils;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * @description: excel逐行读取的接收方，读到一行就推送一行，不在内存中累积整张表
+ * @author: zhangbing
+ * @create: 2026-10-19 09:30
+ **/
+public interface ExcelRowSink {
+
+    /**
+     * 读到标题行后调用一次
+     *
+     * @param titles 第一行的所有标题
+     */
+    default void start(List<String> titles) throws IOException {
+    }
+
+    /**
+     * 每读到一行数据调用一次
+     *
+     * @param rowNum 行下标，从0开始，标题行为0
+     * @param values 与titles下标一一对应的单元格值，空单元格为null，数组不会被复用
+     */
+    void accept(int rowNum, String[] values) throws IOException;
+
+    /**
+     * 所有行读取完成后调用
+     */
+    default void finish() throws IOException {
+    }
+}
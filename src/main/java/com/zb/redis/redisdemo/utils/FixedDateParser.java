@@ -0,0 +1,264 @@
+package com.zb.redis.redisdemo.utils;
+
+import java.util.TimeZone;
+
+/**
+ * @description: 定长日期格式(yyyy-MM-dd HH:mm:ss、yyyy-MM-dd、yyyy-MM-dd HH:mm、yyyyMMddHHmmss)的专用解析
+ * 直接从字符读出各字段算出时间戳，不创建Calendar、Date等中间对象；失败时不打日志也不抛异常，返回值中带错误码，用isError/errorCode判断
+ * 解析是严格的：长度必须一致、只接受ASCII数字、月日时分秒必须在有效范围内，DateUtil遇到错误时再交给SimpleDateFormat按原来的宽松规则处理
+ * 时区为系统默认时区，夏令时结束重复的那一小时取标准时间，夏令时开始跳过的时刻向后顺延，与SimpleDateFormat一致
+ * @author: zhangbing
+ * @create: 2026-10-22 14:00
+ **/
+public final class FixedDateParser {
+
+    /**
+     * 错误码，解析失败时返回值为ERROR_BASE + 错误码
+     */
+    public static final int ERR_NULL = 1;
+    public static final int ERR_LENGTH = 2;
+    public static final int ERR_FORMAT = 3;
+    public static final int ERR_RANGE = 4;
+    public static final int ERR_UNSUPPORTED = 5;
+
+    private static final long ERROR_BASE = Long.MIN_VALUE;
+    private static final int MAX_ERROR = ERR_UNSUPPORTED;
+
+    private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+    private static final TimeZone TIME_ZONE = TimeZone.getDefault();
+
+    private FixedDateParser() {
+    }
+
+    /**
+     * 支持的定长格式，各字段在字符串中的起始位置，-1表示没有该字段
+     */
+    public enum Layout {
+        DEFAULT(DateUtil.DEFAULT_DATE_FORMAT, "-- ::", 5, 8, 11, 14, 17),
+        DATE(DateUtil.DATE_FORMAT_DATE, "--", 5, 8, -1, -1, -1),
+        DATE_MINUTE(DateUtil.DATE_FORMAT_DATE_MINUTE, "-- :", 5, 8, 11, 14, -1),
+        COMPACT(DateUtil.NEW_DATE_FORMAT, "", 4, 6, 8, 10, 12);
+
+        private final String pattern;
+        private final int length;
+        private final char[] separators;
+        private final int[] separatorIndexes;
+        private final int month;
+        private final int day;
+        private final int hour;
+        private final int minute;
+        private final int second;
+
+        Layout(String pattern, String separators, int month, int day, int hour, int minute, int second) {
+            this.pattern = pattern;
+            this.length = pattern.length();
+            this.separators = separators.toCharArray();
+            this.separatorIndexes = new int[this.separators.length];
+            for (int i = 0, j = 0; i < pattern.length(); i++) {
+                if (!Character.isLetter(pattern.charAt(i))) {
+                    separatorIndexes[j++] = i;
+                }
+            }
+            this.month = month;
+            this.day = day;
+            this.hour = hour;
+            this.minute = minute;
+            this.second = second;
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        /**
+         * @return 不是定长格式时返回null
+         */
+        public static Layout of(String pattern) {
+            if (pattern == null) {
+                return null;
+            }
+            for (Layout layout : values()) {
+                if (layout.pattern.equals(pattern)) {
+                    return layout;
+                }
+            }
+            return null;
+        }
+    }
+
+    public static boolean isError(long result) {
+        return result <= ERROR_BASE + MAX_ERROR;
+    }
+
+    /**
+     * @return 错误码，不是错误时返回0
+     */
+    public static int errorCode(long result) {
+        return isError(result) ? (int) (result - ERROR_BASE) : 0;
+    }
+
+    /**
+     * 按pattern解析成时间戳
+     *
+     * @return 时间戳，失败时isError为true，pattern不是定长格式时错误码为ERR_UNSUPPORTED
+     */
+    public static long parse(CharSequence text, String pattern) {
+        Layout layout = Layout.of(pattern);
+        return layout == null ? ERROR_BASE + ERR_UNSUPPORTED : parse(text, layout);
+    }
+
+    public static long parse(CharSequence text, Layout layout) {
+        if (text == null) {
+            return ERROR_BASE + ERR_NULL;
+        }
+        if (text.length() != layout.length) {
+            return ERROR_BASE + ERR_LENGTH;
+        }
+        for (int i = 0; i < layout.separators.length; i++) {
+            if (text.charAt(layout.separatorIndexes[i]) != layout.separators[i]) {
+                return ERROR_BASE + ERR_FORMAT;
+            }
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, layout.month, 2);
+        int day = digits(text, layout.day, 2);
+        int hour = layout.hour < 0 ? 0 : digits(text, layout.hour, 2);
+        int minute = layout.minute < 0 ? 0 : digits(text, layout.minute, 2);
+        int second = layout.second < 0 ? 0 : digits(text, layout.second, 2);
+        return toMillis(year, month, day, hour, minute, second);
+    }
+
+    /**
+     * 从字符数组的指定位置解析，不需要先创建字符串
+     */
+    public static long parse(char[] chars, int offset, int length, Layout layout) {
+        if (chars == null) {
+            return ERROR_BASE + ERR_NULL;
+        }
+        if (length != layout.length || offset < 0 || offset + length > chars.length) {
+            return ERROR_BASE + ERR_LENGTH;
+        }
+        for (int i = 0; i < layout.separators.length; i++) {
+            if (chars[offset + layout.separatorIndexes[i]] != layout.separators[i]) {
+                return ERROR_BASE + ERR_FORMAT;
+            }
+        }
+        int year = digits(chars, offset, 4);
+        int month = digits(chars, offset + layout.month, 2);
+        int day = digits(chars, offset + layout.day, 2);
+        int hour = layout.hour < 0 ? 0 : digits(chars, offset + layout.hour, 2);
+        int minute = layout.minute < 0 ? 0 : digits(chars, offset + layout.minute, 2);
+        int second = layout.second < 0 ? 0 : digits(chars, offset + layout.second, 2);
+        return toMillis(year, month, day, hour, minute, second);
+    }
+
+    /**
+     * 批量解析一整列，结果写入millis对应位置，失败的位置为带错误码的值
+     * pattern不是定长格式时逐个交给DateUtil.parseLong，失败的位置错误码为ERR_FORMAT
+     *
+     * @return 失败的个数
+     */
+    public static int parseColumn(CharSequence[] values, String pattern, long[] millis) {
+        if (millis.length < values.length) {
+            throw new IllegalArgumentException("结果数组长度不足:" + millis.length + " < " + values.length);
+        }
+        Layout layout = Layout.of(pattern);
+        int failed = 0;
+        for (int i = 0; i < values.length; i++) {
+            long result;
+            if (layout != null) {
+                result = parse(values[i], layout);
+            } else if (values[i] == null) {
+                result = ERROR_BASE + ERR_NULL;
+            } else {
+                Long parsed = DateUtil.parseLong(values[i].toString(), pattern);
+                result = parsed == null ? ERROR_BASE + ERR_FORMAT : parsed;
+            }
+            millis[i] = result;
+            if (isError(result)) {
+                failed++;
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * 读取count位ASCII数字，有非数字时返回-1
+     */
+    private static int digits(CharSequence text, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int digits(char[] chars, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static long toMillis(int year, int month, int day, int hour, int minute, int second) {
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || minute < 0 || second < 0) {
+            return ERROR_BASE + ERR_FORMAT;
+        }
+        //SimpleDateFormat在1582年10月之前按儒略历计算，这里只处理公历
+        if (year < 1583 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59 || second > 59) {
+            return ERROR_BASE + ERR_RANGE;
+        }
+        long local = epochDay(year, month, day) * MILLIS_PER_DAY + ((hour * 60L + minute) * 60 + second) * 1000;
+        return local - offsetOf(local);
+    }
+
+    /**
+     * 当地时间对应的时区偏移，前后一天的偏移相同时直接使用；
+     * 否则附近有切换：两个偏移都能换算回当地时间时(重复的那一小时)取切换后的偏移，都不能时(跳过的时刻)取切换前的偏移
+     */
+    private static int offsetOf(long local) {
+        int before = TIME_ZONE.getOffset(local - MILLIS_PER_DAY);
+        int after = TIME_ZONE.getOffset(local + MILLIS_PER_DAY);
+        if (before == after || TIME_ZONE.getOffset(local - after) == after) {
+            return after;
+        }
+        return before;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    /**
+     * 公历日期距1970-01-01的天数
+     */
+    private static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = y / 400;
+        long yoe = y - era * 400;
+        long doy = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+}
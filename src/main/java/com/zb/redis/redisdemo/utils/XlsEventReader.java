@@ -0,0 +1,505 @@
+package com.zb.redis.redisdemo.utils;
+
+import org.apache.poi.hssf.eventusermodel.AbortableHSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.eventusermodel.HSSFUserException;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BlankRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.DateWindow1904Record;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.ExtendedFormatRecord;
+import org.apache.poi.hssf.record.FormatRecord;
+import org.apache.poi.hssf.record.FormulaRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.SSTRecord;
+import org.apache.poi.hssf.record.StringRecord;
+import org.apache.poi.hssf.usermodel.HSSFDateUtil;
+import org.apache.poi.poifs.filesystem.NPOIFSFileSystem;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.CellType;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * @description: 用HSSF事件模式逐条读取xls第一个sheet的记录，按行回调，不创建HSSFWorkbook
+ * 内存中只有当前一行的单元格，以及共享字符串表、单元格格式等全局记录；读完第一个sheet即停止，不再解析后面的sheet
+ * 行的范围与HSSFSheet一致：有行记录或有单元格的行都会回调，单元格的取值与ExcelFileUtil.getValue相同；
+ * 同时按HSSFCell的规则提供原始类型的值，供ExcelRowBinder绑定对象
+ * @author: zhangbing
+ * @create: 2026-10-22 18:00
+ **/
+final class XlsEventReader extends AbortableHSSFListener implements ExcelRowBinder.RowValues {
+
+    /**
+     * 行回调，row只在回调期间有效，下一行会复用
+     */
+    interface RowHandler {
+        void accept(int rowNum, XlsEventReader row) throws IOException;
+
+        /**
+         * 所有行回调完成后调用
+         */
+        default void finish() throws IOException {
+        }
+    }
+
+    private static final short ABORT = 1;
+
+    //顶层子流：全局、第一个工作表或其它(图表sheet、宏sheet、之后的工作表)
+    private static final int OTHER = -1;
+    private static final int GLOBALS = 0;
+    private static final int FIRST_WORKSHEET = 1;
+
+    private final RowHandler handler;
+
+    //全局记录
+    private SSTRecord sst;
+    private boolean use1904;
+    private final Map<Integer, String> formats = new HashMap<>();
+    private final List<Short> xfFormats = new ArrayList<>();
+    /**
+     * 按单元格格式下标缓存是否为日期格式
+     */
+    private final Map<Integer, Boolean> xfIsDate = new HashMap<>();
+
+    //当前顶层子流
+    private int depth;
+    private int substream = OTHER;
+    private int worksheets;
+    private boolean finished;
+
+    //当前行，按列下标保存，types为null的列没有单元格
+    private int rowNum = -1;
+    /**
+     * 值的类型，公式为缓存结果的类型
+     */
+    private CellType[] types = new CellType[256];
+    private boolean[] formulas = new boolean[256];
+    private String[] strings = new String[256];
+    /**
+     * 数字值，布尔值存为1或0
+     */
+    private double[] numbers = new double[256];
+    private boolean[] dates = new boolean[256];
+    private int firstCellNum = -1;
+    private int lastCellNum = -1;
+    /**
+     * 有行记录但还没读到单元格的行
+     */
+    private final TreeSet<Integer> pendingRows = new TreeSet<>();
+    /**
+     * 缓存结果为字符串的公式，值在随后的StringRecord中
+     */
+    private int pendingStringColumn = -1;
+
+    private XlsEventReader(RowHandler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * 读取xls文件的第一个sheet
+     *
+     * @param file    xls文件，只读打开，按需读取数据块
+     * @param handler 行回调
+     * @throws IOException
+     */
+    static void read(File file, RowHandler handler) throws IOException {
+        XlsEventReader reader = new XlsEventReader(handler);
+        HSSFRequest request = new HSSFRequest();
+        request.addListenerForAllRecords(reader);
+        try (NPOIFSFileSystem fs = new NPOIFSFileSystem(file, true)) {
+            new HSSFEventFactory().abortableProcessWorkbookEvents(request, fs.getRoot());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (HSSFUserException e) {
+            throw new IOException(e);
+        }
+        if (!reader.finished) {
+            //与HSSFWorkbook.getSheetAt(0)一致
+            throw new IllegalArgumentException("Sheet index (0) is out of range (no sheets)");
+        }
+    }
+
+    /**
+     * @return 第一个单元格的列下标，没有单元格时为-1
+     */
+    int getFirstCellNum() {
+        return firstCellNum;
+    }
+
+    /**
+     * @return 最后一个单元格的列下标加1，没有单元格时为-1
+     */
+    int getLastCellNum() {
+        return lastCellNum;
+    }
+
+    /**
+     * 列上是否有单元格，空白单元格也算
+     */
+    boolean hasCell(int column) {
+        return column >= 0 && column < types.length && types[column] != null;
+    }
+
+    boolean isBlank(int column) {
+        return hasCell(column) && !formulas[column] && types[column] == CellType.BLANK;
+    }
+
+    /**
+     * 单元格的值，与ExcelFileUtil.getValue(Cell)相同，空白单元格为""，没有单元格时为null
+     */
+    String getValue(int column) {
+        if (!hasCell(column)) {
+            return null;
+        }
+        if (formulas[column]) {
+            return getStringValue(column);
+        }
+        switch (types[column]) {
+            case NUMERIC:
+                return formatNumber(numbers[column], dates[column]);
+            case BOOLEAN:
+                return String.valueOf(numbers[column] != 0);
+            case STRING:
+                return strings[column];
+            default:
+                return "";
+        }
+    }
+
+    //------------------------------ 与HSSFCell相同的取值 ------------------------------
+
+    @Override
+    public CellType getCellType(int column) {
+        if (!hasCell(column)) {
+            return null;
+        }
+        return formulas[column] ? CellType.FORMULA : types[column];
+    }
+
+    @Override
+    public String getStringValue(int column) {
+        CellType type = types[column];
+        if (type == CellType.STRING) {
+            return strings[column];
+        }
+        if (type == CellType.BLANK && !formulas[column]) {
+            return "";
+        }
+        throw typeMismatch(CellType.STRING, column);
+    }
+
+    @Override
+    public double getNumericValue(int column) {
+        CellType type = types[column];
+        if (type == CellType.NUMERIC) {
+            return numbers[column];
+        }
+        if (type == CellType.BLANK && !formulas[column]) {
+            return 0;
+        }
+        throw typeMismatch(CellType.NUMERIC, column);
+    }
+
+    @Override
+    public boolean getBooleanValue(int column) {
+        CellType type = types[column];
+        if (type == CellType.BOOLEAN) {
+            return numbers[column] != 0;
+        }
+        if (type == CellType.BLANK && !formulas[column]) {
+            return false;
+        }
+        throw typeMismatch(CellType.BOOLEAN, column);
+    }
+
+    @Override
+    public boolean isDateFormatted(int column) {
+        return types[column] == CellType.NUMERIC && dates[column];
+    }
+
+    @Override
+    public Date getDateValue(int column) {
+        if (types[column] == CellType.BLANK && !formulas[column]) {
+            return null;
+        }
+        return HSSFDateUtil.getJavaDate(getNumericValue(column), use1904);
+    }
+
+    private IllegalStateException typeMismatch(CellType expected, int column) {
+        return new IllegalStateException("Cannot get a " + expected + " value from a " + types[column]
+                + (formulas[column] ? " formula" : "") + " cell");
+    }
+
+    @Override
+    public short abortableProcessRecord(Record record) {
+        if (record instanceof BOFRecord) {
+            if (depth++ == 0) {
+                substream = substream((BOFRecord) record);
+            }
+            return 0;
+        }
+        if (record instanceof EOFRecord) {
+            if (--depth == 0 && substream == FIRST_WORKSHEET) {
+                endSheet();
+                return ABORT;
+            }
+            return 0;
+        }
+        //sheet中嵌入的图表等子流不处理
+        if (depth != 1) {
+            return 0;
+        }
+        if (substream == GLOBALS) {
+            processGlobal(record);
+        } else if (substream == FIRST_WORKSHEET) {
+            processSheet(record);
+        }
+        return 0;
+    }
+
+    /**
+     * 只有工作表的子流算作sheet，工作簿以图表sheet或宏sheet开头时跳过它们
+     */
+    private int substream(BOFRecord bof) {
+        switch (bof.getType()) {
+            case BOFRecord.TYPE_WORKBOOK:
+                return GLOBALS;
+            case BOFRecord.TYPE_WORKSHEET:
+                return worksheets++ == 0 ? FIRST_WORKSHEET : OTHER;
+            default:
+                return OTHER;
+        }
+    }
+
+    private void processGlobal(Record record) {
+        if (record instanceof SSTRecord) {
+            sst = (SSTRecord) record;
+        } else if (record instanceof DateWindow1904Record) {
+            use1904 = ((DateWindow1904Record) record).getWindowing() == 1;
+        } else if (record instanceof FormatRecord) {
+            FormatRecord format = (FormatRecord) record;
+            formats.put(format.getIndexCode(), format.getFormatString());
+        } else if (record instanceof ExtendedFormatRecord) {
+            xfFormats.add(((ExtendedFormatRecord) record).getFormatIndex());
+        }
+    }
+
+    private void processSheet(Record record) {
+        if (record instanceof StringRecord) {
+            if (pendingStringColumn >= 0) {
+                strings[pendingStringColumn] = ((StringRecord) record).getString();
+                pendingStringColumn = -1;
+            }
+            return;
+        }
+        if (record instanceof RowRecord) {
+            int row = ((RowRecord) record).getRowNumber();
+            if (row > rowNum) {
+                pendingRows.add(row);
+            }
+            return;
+        }
+        if (record instanceof MulBlankRecord) {
+            MulBlankRecord blanks = (MulBlankRecord) record;
+            moveTo(blanks.getRow());
+            for (int i = 0; i < blanks.getNumColumns(); i++) {
+                put(blanks.getFirstColumn() + i, CellType.BLANK, false);
+            }
+            return;
+        }
+        if (!(record instanceof CellValueRecordInterface)) {
+            return;
+        }
+        CellValueRecordInterface cell = (CellValueRecordInterface) record;
+        moveTo(cell.getRow());
+        int column = cell.getColumn();
+        if (record instanceof NumberRecord) {
+            put(column, CellType.NUMERIC, false);
+            putNumber(column, ((NumberRecord) record).getValue(), cell.getXFIndex());
+        } else if (record instanceof LabelSSTRecord) {
+            put(column, CellType.STRING, false);
+            strings[column] = trim(sst.getString(((LabelSSTRecord) record).getSSTIndex()).getString());
+        } else if (record instanceof LabelRecord) {
+            put(column, CellType.STRING, false);
+            strings[column] = trim(((LabelRecord) record).getValue());
+        } else if (record instanceof FormulaRecord) {
+            FormulaRecord formula = (FormulaRecord) record;
+            CellType type = cachedResultType(formula.getCachedResultType());
+            put(column, type, true);
+            if (type == CellType.STRING) {
+                //缓存的是空字符串时没有StringRecord
+                strings[column] = "";
+                if (formula.hasCachedResultString()) {
+                    pendingStringColumn = column;
+                }
+            } else if (type == CellType.NUMERIC) {
+                putNumber(column, formula.getValue(), cell.getXFIndex());
+            } else if (type == CellType.BOOLEAN) {
+                numbers[column] = formula.getCachedBooleanValue() ? 1 : 0;
+            }
+        } else if (record instanceof BoolErrRecord) {
+            BoolErrRecord boolErr = (BoolErrRecord) record;
+            put(column, boolErr.isBoolean() ? CellType.BOOLEAN : CellType.ERROR, false);
+            numbers[column] = boolErr.isBoolean() && boolErr.getBooleanValue() ? 1 : 0;
+        } else if (record instanceof BlankRecord) {
+            put(column, CellType.BLANK, false);
+        }
+    }
+
+    /**
+     * 切换到row行，先回调当前行和中间只有行记录的行
+     */
+    private void moveTo(int row) {
+        pendingStringColumn = -1;
+        if (row == rowNum) {
+            return;
+        }
+        if (row < rowNum) {
+            throw new IllegalStateException("xls单元格未按行顺序存储，第" + (row + 1) + "行出现在第" + (rowNum + 1) + "行之后");
+        }
+        if (rowNum >= 0) {
+            emit();
+        }
+        while (!pendingRows.isEmpty() && pendingRows.first() < row) {
+            emitEmpty(pendingRows.pollFirst());
+        }
+        pendingRows.remove(row);
+        rowNum = row;
+    }
+
+    private void endSheet() {
+        if (rowNum >= 0) {
+            emit();
+        }
+        while (!pendingRows.isEmpty()) {
+            emitEmpty(pendingRows.pollFirst());
+        }
+        finished = true;
+        try {
+            handler.finish();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void emitEmpty(int row) {
+        rowNum = row;
+        emit();
+    }
+
+    private void emit() {
+        try {
+            handler.accept(rowNum, this);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        //只清理用到的列
+        if (firstCellNum >= 0) {
+            Arrays.fill(types, firstCellNum, lastCellNum, null);
+            Arrays.fill(strings, firstCellNum, lastCellNum, null);
+        }
+        firstCellNum = -1;
+        lastCellNum = -1;
+    }
+
+    private void put(int column, CellType type, boolean formula) {
+        if (column >= types.length) {
+            int length = Math.max(column + 1, types.length * 2);
+            types = Arrays.copyOf(types, length);
+            formulas = Arrays.copyOf(formulas, length);
+            strings = Arrays.copyOf(strings, length);
+            numbers = Arrays.copyOf(numbers, length);
+            dates = Arrays.copyOf(dates, length);
+        }
+        types[column] = type;
+        formulas[column] = formula;
+        if (firstCellNum < 0 || column < firstCellNum) {
+            firstCellNum = column;
+        }
+        if (column + 1 > lastCellNum) {
+            lastCellNum = column + 1;
+        }
+    }
+
+    private void putNumber(int column, double value, short xfIndex) {
+        numbers[column] = value;
+        dates[column] = HSSFDateUtil.isValidExcelDate(value) && isDateFormat(xfIndex);
+    }
+
+    private String formatNumber(double value, boolean date) {
+        if (date) {
+            String val = ExcelCellFormatter.formatDate(value, use1904);
+            if (val != null) {
+                return val;
+            }
+            return DateUtil.getTime(HSSFDateUtil.getJavaDate(value, use1904), DateUtil.DEFAULT_DATE_FORMAT);
+        }
+        return ExcelCellFormatter.formatNumber(value);
+    }
+
+    /**
+     * 与HSSFDateUtil.isCellDateFormatted相同，格式字符串先取文件中定义的，再取内置的
+     */
+    private boolean isDateFormat(short xfIndex) {
+        Boolean isDate = xfIsDate.get((int) xfIndex);
+        if (isDate == null) {
+            isDate = false;
+            if (xfIndex >= 0 && xfIndex < xfFormats.size()) {
+                int formatIndex = xfFormats.get(xfIndex);
+                String format = formats.get(formatIndex);
+                if (format == null && formatIndex >= 0 && formatIndex < BuiltinFormats.getAll().length) {
+                    format = BuiltinFormats.getBuiltinFormat(formatIndex);
+                }
+                isDate = HSSFDateUtil.isADateFormat(formatIndex, format);
+            }
+            xfIsDate.put((int) xfIndex, isDate);
+        }
+        return isDate;
+    }
+
+    /**
+     * 公式缓存结果的类型码，与CellType的编码一致；poi 3.17的FormulaRecord还没有返回CellType的方法，
+     * CellType.forInt已过时，这里自己转换
+     */
+    private static CellType cachedResultType(int code) {
+        switch (code) {
+            case 0:
+                return CellType.NUMERIC;
+            case 1:
+                return CellType.STRING;
+            case 3:
+                return CellType.BLANK;
+            case 4:
+                return CellType.BOOLEAN;
+            case 5:
+                return CellType.ERROR;
+            default:
+                throw new IllegalArgumentException("未知的公式结果类型:" + code);
+        }
+    }
+
+    private static String trim(String val) {
+        if (val == null || val.trim().length() == 0) {
+            return "";
+        }
+        return val.trim();
+    }
+}
@@ -0,0 +1,42 @@
+package com.zb.redis.redisdemo.service.serializer;
+
+import com.zb.redis.redisdemo.service.LoadJobReport;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class CompactRedisSerializerTest {
+
+    @Test
+    public void roundTripAndOldVersion() {
+        CompactTypeRegistry registry = new CompactTypeRegistry()
+                .register(LoadJobReport.class, 1, 1, "jobId", "removed:STRING", "keyCount")
+                .register(LoadJobReport.class, 1, 2, "jobId", "keyCount", "opsPerSecond", "error");
+        CompactRedisSerializer<LoadJobReport> serializer = new CompactRedisSerializer<>(registry, LoadJobReport.class);
+
+        LoadJobReport report = new LoadJobReport();
+        report.setJobId("job");
+        report.setKeyCount(-42);
+        report.setOpsPerSecond(1.5);
+        assertEquals(report, serializer.deserialize(serializer.serialize(report)));
+
+        // 版本1写入的数据：jobId=j，removed=go，keyCount=zigzag(7)
+        byte[] v1 = {(byte) 0xFF, 1, 1, 0, 1, 'j', 2, 'g', 'o', 14};
+        LoadJobReport old = serializer.deserialize(v1);
+        assertEquals("j", old.getJobId());
+        assertEquals(7, old.getKeyCount());
+        assertNull(old.getError());
+    }
+
+    @Test
+    public void legacyJson() {
+        CompactTypeRegistry registry = new CompactTypeRegistry().register(LoadJobReport.class, 1, 1, "jobId");
+        CompactRedisSerializer<LoadJobReport> serializer = new CompactRedisSerializer<>(registry, LoadJobReport.class);
+        LoadJobReport report = serializer.deserialize("{\"jobId\":\"旧数据\",\"written\":3}".getBytes(StandardCharsets.UTF_8));
+        assertEquals("旧数据", report.getJobId());
+        assertEquals(3, report.getWritten());
+    }
+}
@@ -0,0 +1,157 @@
+package com.zb.redis.redisdemo.utils;
+
+import org.junit.Test;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneOffsetTransition;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * 结果与SimpleDateFormat一致，时区相关的用例按系统默认时区取值，可用-Duser.timezone在不同时区下运行
+ */
+public class DateUtilTest {
+
+    private static final DateTimeFormatter LOCAL = DateTimeFormatter.ofPattern(DateUtil.DEFAULT_DATE_FORMAT);
+
+    @Test
+    public void beforeGregorianChange() {
+        String[] texts = {"0100-01-01 00:00:00", "1500-03-01 12:00:00", "1582-10-04 23:59:59",
+                "1582-10-10 08:00:00", "1582-10-15 00:00:00", "1582-10-16 00:00:00"};
+        for (String text : texts) {
+            assertParse(DateUtil.DEFAULT_DATE_FORMAT, text);
+            assertParse(DateUtil.DATE_FORMAT_DATE, text.substring(0, 10));
+            assertFormat(DateUtil.DEFAULT_DATE_FORMAT, parse(DateUtil.DEFAULT_DATE_FORMAT, text).getTime());
+        }
+    }
+
+    @Test
+    public void beforeFirstTransition() {
+        List<ZoneOffsetTransition> transitions = ZoneId.systemDefault().getRules().getTransitions();
+        assumeTrue(!transitions.isEmpty());
+        LocalDateTime first = transitions.get(0).getDateTimeBefore();
+        for (LocalDateTime time : new LocalDateTime[]{first.minusDays(10), first.minusHours(1), first.plusDays(1),
+                first.plusDays(2)}) {
+            String text = LOCAL.format(time);
+            assertParse(DateUtil.DEFAULT_DATE_FORMAT, text);
+            long millis = parse(DateUtil.DEFAULT_DATE_FORMAT, text).getTime();
+            assertFormat(DateUtil.DEFAULT_DATE_FORMAT, millis);
+            assertFormat(DateUtil.DATE_FORMAT_DATE_MINUTE, millis);
+            assertLongToDate(millis);
+        }
+    }
+
+    /**
+     * TimeZone逐年的切换只保留到2037年，之后按最后的规则推算，与tzdb中逐年列出的切换(如Africa/Casablanca)不一致，只比较到2036年
+     */
+    @Test
+    public void daylightSavingOverlapAndGap() {
+        int checked = 0;
+        for (ZoneOffsetTransition transition : ZoneId.systemDefault().getRules().getTransitions()) {
+            int year = transition.getDateTimeBefore().getYear();
+            if (year < 1970 || year > 2036) {
+                continue;
+            }
+            //重复的时段取切换后的当地时间，跳过的时段取切换前的当地时间
+            LocalDateTime local = transition.isOverlap() ? transition.getDateTimeAfter() : transition.getDateTimeBefore();
+            String text = LOCAL.format(local.plusMinutes(transition.getDuration().abs().toMinutes() / 2));
+            assertParse(DateUtil.DEFAULT_DATE_FORMAT, text);
+            assertParse(DateUtil.DATE_FORMAT_DATE_MINUTE, text.substring(0, 16));
+            long start = transition.getInstant().toEpochMilli() - 60 * 60 * 1000L;
+            for (long millis = start; millis < start + 3 * 60 * 60 * 1000L; millis += 7 * 60 * 1000 + 1234) {
+                assertFormat(DateUtil.DEFAULT_DATE_FORMAT, millis);
+                assertLongToDate(millis);
+            }
+            checked++;
+        }
+        assumeTrue(checked > 0);
+    }
+
+    @Test
+    public void twoDigitYear() {
+        for (String text : new String[]{"26-10-19", "99-01-01", "00-02-29", "46-06-15", "47-06-15"}) {
+            assertParse("yy-MM-dd", text);
+        }
+        assertParse(DateUtil.YEAR, "70");
+        long millis = parse(DateUtil.DEFAULT_DATE_FORMAT, "2026-10-19 18:00:02").getTime();
+        assertFormat(DateUtil.YEAR, millis);
+        assertFormat("yy-MM-dd", millis);
+    }
+
+    @Test
+    public void lenientRollover() {
+        assertParse(DateUtil.DATE_FORMAT_DATE, "2026-02-30");
+        assertParse(DateUtil.DATE_FORMAT_DATE, "2024-02-30");
+        assertParse(DateUtil.DATE_FORMAT_DATE, "2026-13-01");
+        assertParse(DateUtil.DATE_FORMAT_DATE, "2026-00-00");
+        assertParse(DateUtil.DEFAULT_DATE_FORMAT, "2026-02-30 25:61:61");
+        assertParse(DateUtil.DATE_FORMAT_DATE_MINUTE, "2026-12-31 23:60");
+    }
+
+    @Test
+    public void trailingText() {
+        assertParse(DateUtil.DEFAULT_DATE_FORMAT, "2026-10-19 18:00:02abc");
+        assertParse(DateUtil.DEFAULT_DATE_FORMAT, "2026-10-19 18:00:02.123");
+        assertParse(DateUtil.DATE_FORMAT_DATE, "2026-10-19 18:00:02");
+        assertParse(DateUtil.DATE_FORMAT_DATE, "2026-02-30xyz");
+        assertParse(DateUtil.DATE_FORMAT_DATE_MINUTE, "2026-10-19 18:00 下午");
+        assertParse(DateUtil.DEFAULT_DATE_FORMAT, "2026-10-19");
+        assertParse(DateUtil.DEFAULT_DATE_FORMAT, "abc");
+    }
+
+    /**
+     * 这些字母在DateTimeFormatter中含义不同：S为秒的小数、u为年、D为一年中的第几天且DD不够三位时报错、F不同
+     */
+    @Test
+    public void lettersWithDifferentMeaning() {
+        long millis = parse(DateUtil.DEFAULT_DATE_FORMAT, "2026-10-19 18:00:02").getTime() + 5;
+        for (String pattern : new String[]{"yyyy-MM-dd HH:mm:ss.S", "yyyy-MM-dd HH:mm:ss.SSS", "u", "yyyy-MM-dd u",
+                "DD", "D", "F", "yyyy-MM-dd F", "E", "a", "Z", "k", "K", "Y", "w", "W"}) {
+            assertFormat(pattern, millis);
+            assertFormat(pattern, millis + 123456789L);
+        }
+        assertParse("yyyy-MM-dd HH:mm:ss.S", "2026-10-19 18:00:02.5");
+        assertParse("yyyy-MM-dd HH:mm:ss.S", "2026-10-19 18:00:02.123");
+        assertParse("yyyy-MM-dd HH:mm:ss.SSS", "2026-10-19 18:00:02.5");
+        assertParse("yyyy u", "2026 3");
+        assertParse("yyyy DD", "2026 45");
+        assertParse("yyyy-MM F", "2026-10 2");
+    }
+
+    private static Date parse(String pattern, String text) {
+        try {
+            return new SimpleDateFormat(pattern).parse(text);
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    private static void assertParse(String pattern, String text) {
+        Date expected = parse(pattern, text);
+        assertEquals(pattern + " " + text, expected, DateUtil.parseDate(text, pattern));
+        assertEquals(pattern + " " + text, expected == null ? null : expected.getTime(), DateUtil.parseLong(text, pattern));
+    }
+
+    private static void assertFormat(String pattern, long millis) {
+        assertEquals(pattern + " " + millis, new SimpleDateFormat(pattern).format(new Date(millis)),
+                DateUtil.getTime(millis, pattern));
+    }
+
+    /**
+     * 原来的longToDate按默认格式输出后再按pattern解析
+     */
+    private static void assertLongToDate(long millis) {
+        String text = new SimpleDateFormat(DateUtil.DEFAULT_DATE_FORMAT).format(new Date(millis));
+        for (String pattern : new String[]{DateUtil.DEFAULT_DATE_FORMAT, DateUtil.DATE_FORMAT_DATE_MINUTE,
+                DateUtil.DATE_FORMAT_DATE}) {
+            assertEquals(pattern + " " + millis, parse(pattern, text), DateUtil.longToDate(millis, pattern));
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.zb.redis.redisdemo.utils;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTWorkbook;
+
+import java.text.DecimalFormat;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExcelCellFormatterTest {
+
+    private static final double[] NUMBERS = {0, 1, -1, 0.5, -1.5, 3.14159, 1234.567, -98765.4321, 0.001, 0.996,
+            100.0049, 1e10, 123456789.987, 4.35, 1.005};
+
+    /**
+     * 1900-01-01、1900-02-28、1900-03-01、1970-01-01中午、带毫秒的时间、9999-12-31 23:59:59
+     */
+    private static final double[] DATES = {1, 59, 61, 25569.5, 45000.123456, 46314.999988426, 2958465.99998843};
+
+    /**
+     * 10000-01-01、超过5位的年份
+     */
+    private static final double[] LARGE_YEARS = {2958466, 3000000.25, 40000000.5};
+
+    @Test
+    public void numberSameAsDataFormatter() throws Exception {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            Cell cell = cell(wb, "0.00");
+            DataFormatter formatter = new DataFormatter();
+            for (double value : NUMBERS) {
+                cell.setCellValue(value);
+                assertEquals(String.valueOf(value), formatter.formatCellValue(cell),
+                        ExcelCellFormatter.formatNumber(value));
+            }
+        }
+    }
+
+    /**
+     * DataFormatter按HALF_UP舍入，这里保持原来DecimalFormat按精确二进制值HALF_EVEN的结果
+     */
+    @Test
+    public void tieSameAsDecimalFormat() {
+        DecimalFormat decimalFormat = new DecimalFormat("0.00");
+        for (double value : new double[]{0.125, 0.375, 2.675, -0.125, -0.001, -0.0, 1.0E20}) {
+            String expected = decimalFormat.format(value).toUpperCase();
+            if (expected.contains("E")) {
+                expected = expected.split("E")[0].replace(".", "");
+            }
+            assertEquals(String.valueOf(value), expected, ExcelCellFormatter.formatNumber(value));
+        }
+    }
+
+    @Test
+    public void dateSameAsDataFormatter() throws Exception {
+        assertDates(false, DATES);
+        assertDates(false, LARGE_YEARS);
+    }
+
+    @Test
+    public void date1904SameAsDataFormatter() throws Exception {
+        assertDates(true, new double[]{0, 1, 366.25, 43000.75});
+        assertDates(true, LARGE_YEARS);
+    }
+
+    @Test
+    public void largeYear() {
+        assertEquals("10000-01-01 00:00:00", ExcelCellFormatter.formatDate(2958466, false));
+        assertEquals("10001-01-01 06:00:00", ExcelCellFormatter.formatDate(2958466 + 366.25, false));
+    }
+
+    private static void assertDates(boolean use1904, double[] values) throws Exception {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            if (use1904) {
+                CTWorkbook workbook = wb.getCTWorkbook();
+                (workbook.isSetWorkbookPr() ? workbook.getWorkbookPr() : workbook.addNewWorkbookPr()).setDate1904(true);
+            }
+            Cell cell = cell(wb, "yyyy-mm-dd hh:mm:ss");
+            DataFormatter formatter = new DataFormatter();
+            for (double value : values) {
+                cell.setCellValue(value);
+                String expected = formatter.formatCellValue(cell);
+                assertEquals(String.valueOf(value), expected, ExcelCellFormatter.formatDate(cell));
+                assertEquals(String.valueOf(value), expected, ExcelCellFormatter.formatDate(value, use1904));
+            }
+        }
+    }
+
+    private static Cell cell(XSSFWorkbook wb, String format) {
+        CellStyle style = wb.createCellStyle();
+        style.setDataFormat(wb.createDataFormat().getFormat(format));
+        Cell cell = wb.createSheet().createRow(0).createCell(0);
+        cell.setCellStyle(style);
+        return cell;
+    }
+}
@@ -0,0 +1,257 @@
+package com.zb.redis.redisdemo.utils;
+
+import org.apache.poi.hssf.usermodel.HSSFFormulaEvaluator;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExcelRowBinderTest {
+
+    public enum Level {
+        LOW, HIGH
+    }
+
+    public static class Item {
+        @ExcelColumn("编号")
+        private long id;
+        @ExcelColumn("数量")
+        private int count;
+        @ExcelColumn("价格")
+        private double price;
+        @ExcelColumn("启用")
+        private boolean enabled;
+        @ExcelColumn("名称")
+        private String name;
+        @ExcelColumn(value = "金额", required = false)
+        private BigDecimal amount;
+        @ExcelColumn("级别")
+        private Level level;
+        @ExcelColumn(value = "日期", format = DateUtil.DATE_FORMAT_DATE)
+        private LocalDate date;
+        @ExcelColumn(index = 8)
+        private LocalDateTime time;
+        //没有setter，直接写字段
+        @ExcelColumn(value = "备注", required = false)
+        private String remark;
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        public void setPrice(double price) {
+            this.price = price;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public void setLevel(Level level) {
+            this.level = level;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public void setTime(LocalDateTime time) {
+            this.time = time;
+        }
+    }
+
+    /**
+     * 非public类不能生成函数，走MethodHandle
+     */
+    static class Hidden {
+        @ExcelColumn("编号")
+        int id;
+        @ExcelColumn("名称")
+        Integer code;
+    }
+
+    private static final String[] TITLES = {"编号", "数量", "价格", "启用", "名称", "金额", "级别", "日期", "时间"};
+
+    @Test
+    public void bindByTitleAndIndex() throws Exception {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            Sheet sheet = wb.createSheet();
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("42");
+            row.createCell(1).setCellValue(3);
+            row.createCell(2).setCellValue(1.5);
+            row.createCell(3).setCellValue("是");
+            row.createCell(4).setCellValue(12.0);
+            row.createCell(5).setCellValue("0.10");
+            row.createCell(6).setCellValue(" HIGH ");
+            row.createCell(7).setCellValue("2026-10-19");
+            row.createCell(8).setCellValue("2026-10-19 18:00:02");
+
+            Item item = ExcelRowBinder.of(Item.class).bind(TITLES).read(row);
+            assertEquals(42L, item.id);
+            assertEquals(3, item.count);
+            assertEquals(1.5, item.price, 0);
+            assertTrue(item.enabled);
+            assertEquals("12", item.name);
+            assertEquals(new BigDecimal("0.10"), item.amount);
+            assertEquals(Level.HIGH, item.level);
+            assertEquals(LocalDate.of(2026, 10, 19), item.date);
+            assertEquals(LocalDateTime.of(2026, 10, 19, 18, 0, 2), item.time);
+            assertNull(item.remark);
+        }
+    }
+
+    @Test
+    public void writeFieldWithoutSetter() throws Exception {
+        String[] titles = {"编号", "备注", "数量", "价格", "启用", "名称", "级别", "日期", "时间"};
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            Row row = wb.createSheet().createRow(1);
+            row.createCell(1).setCellValue("备注内容");
+            row.createCell(3).setCellValue(false);
+            Item item = ExcelRowBinder.of(Item.class).bind(titles).read(row);
+            assertEquals("备注内容", item.remark);
+            assertFalse(item.enabled);
+            assertNull(item.amount);
+
+            Row hidden = wb.getSheetAt(0).createRow(2);
+            hidden.createCell(0).setCellValue(7);
+            hidden.createCell(1).setCellValue("8");
+            Hidden bean = ExcelRowBinder.of(Hidden.class).bind(new String[]{"编号", "名称"}).read(hidden);
+            assertEquals(7, bean.id);
+            assertEquals(Integer.valueOf(8), bean.code);
+        }
+    }
+
+    /**
+     * xls按事件模式读取时，绑定结果与HSSFWorkbook的行相同
+     */
+    @Test
+    public void xlsEventRowsSameAsWorkbook() throws Exception {
+        byte[] bytes;
+        try (HSSFWorkbook wb = new HSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            CellStyle dateStyle = wb.createCellStyle();
+            dateStyle.setDataFormat(wb.createDataFormat().getFormat("yyyy-mm-dd hh:mm:ss"));
+            Sheet sheet = wb.createSheet();
+            Row title = sheet.createRow(0);
+            for (int i = 0; i < TITLES.length; i++) {
+                title.createCell(i).setCellValue(TITLES[i]);
+            }
+            title.createCell(9).setCellValue("备注");
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue(42);
+            row.createCell(1).setCellFormula("1+2");
+            row.createCell(2).setCellValue("1.5");
+            row.createCell(3).setCellValue(true);
+            row.createCell(4).setCellFormula("CONCATENATE(\"a\",\"b\")");
+            row.createCell(5).setCellValue(0.1);
+            row.createCell(6).setCellValue("LOW");
+            row.createCell(7).setCellValue(46314.75);
+            row.getCell(7).setCellStyle(dateStyle);
+            row.createCell(8).setCellValue("2026-10-19 18:00:02");
+            row.createCell(9).setCellValue(46314.75);
+            row.getCell(9).setCellStyle(dateStyle);
+            //空行和只有空白单元格的行
+            sheet.createRow(3).createCell(0).setCellValue(" ");
+            Row last = sheet.createRow(5);
+            last.createCell(0).setCellValue("7");
+            last.createCell(3).setCellValue(0);
+            last.createCell(4).setCellValue(12.5);
+            new HSSFFormulaEvaluator(wb).evaluateAll();
+            wb.write(out);
+            bytes = out.toByteArray();
+        }
+
+        List<Item> expected = new ArrayList<>();
+        try (HSSFWorkbook wb = new HSSFWorkbook(new ByteArrayInputStream(bytes))) {
+            Sheet sheet = wb.getSheetAt(0);
+            String[] titles = new String[10];
+            for (Cell cell : sheet.getRow(0)) {
+                titles[cell.getColumnIndex()] = cell.getStringCellValue();
+            }
+            ExcelRowBinder.Columns<Item> columns = ExcelRowBinder.of(Item.class).bind(titles);
+            for (Row row : sheet) {
+                Item item = row.getRowNum() == 0 ? null : columns.read(row);
+                if (item != null) {
+                    expected.add(item);
+                }
+            }
+        }
+        List<Item> actual = new ArrayList<>();
+        assertEquals(2, ExcelFileUtil.readXLS(new ByteArrayInputStream(bytes), Item.class, actual::add));
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            for (Field field : Item.class.getDeclaredFields()) {
+                field.setAccessible(true);
+                assertEquals(field.getName(), field.get(expected.get(i)), field.get(actual.get(i)));
+            }
+        }
+        assertEquals(3, actual.get(0).count);
+        assertEquals("ab", actual.get(0).name);
+        assertEquals(LocalDate.of(2026, 10, 19), actual.get(0).date);
+        assertEquals("2026-10-19 18:00:00", actual.get(0).remark);
+        assertEquals("12.5", actual.get(1).name);
+    }
+
+    @Test
+    public void blankRowReturnsNull() throws Exception {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            Row row = wb.createSheet().createRow(1);
+            row.createCell(0).setCellValue("  ");
+            assertNull(ExcelRowBinder.of(Item.class).bind(TITLES).read(row));
+        }
+    }
+
+    @Test
+    public void missingRequiredColumn() {
+        try {
+            ExcelRowBinder.of(Item.class).bind(new String[]{"编号", "数量"});
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("价格"));
+        }
+    }
+
+    @Test
+    public void conversionErrorNamesCell() throws Exception {
+        try (XSSFWorkbook wb = new XSSFWorkbook()) {
+            Row row = wb.createSheet().createRow(4);
+            row.createCell(1).setCellValue(2.5);
+            try {
+                ExcelRowBinder.of(Item.class).bind(TITLES).read(row);
+                fail();
+            } catch (IllegalArgumentException e) {
+                assertEquals("第5行第2列[数量]的值无法转换为int:不是整数:2.5", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.zb.redis.redisdemo.utils;
+
+import org.junit.Test;
+
+import java.text.SimpleDateFormat;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FixedDateParserTest {
+
+    @Test
+    public void sameAsSimpleDateFormat() throws Exception {
+        String[][] cases = {
+                {DateUtil.DEFAULT_DATE_FORMAT, "2026-10-19 18:00:02"},
+                {DateUtil.DEFAULT_DATE_FORMAT, "2024-02-29 23:59:59"},
+                {DateUtil.DATE_FORMAT_DATE, "1970-01-01"},
+                {DateUtil.DATE_FORMAT_DATE_MINUTE, "1999-12-31 00:01"},
+                {DateUtil.NEW_DATE_FORMAT, "20261019180002"}
+        };
+        for (String[] c : cases) {
+            long expected = new SimpleDateFormat(c[0]).parse(c[1]).getTime();
+            assertEquals(c[1], expected, FixedDateParser.parse(c[1], c[0]));
+            char[] chars = ("##" + c[1]).toCharArray();
+            assertEquals(c[1], expected, FixedDateParser.parse(chars, 2, c[1].length(), FixedDateParser.Layout.of(c[0])));
+        }
+    }
+
+    @Test
+    public void errorCodes() {
+        String pattern = DateUtil.DEFAULT_DATE_FORMAT;
+        assertEquals(FixedDateParser.ERR_NULL, FixedDateParser.errorCode(FixedDateParser.parse(null, pattern)));
+        assertEquals(FixedDateParser.ERR_LENGTH, FixedDateParser.errorCode(FixedDateParser.parse("2026-10-19", pattern)));
+        assertEquals(FixedDateParser.ERR_FORMAT, FixedDateParser.errorCode(FixedDateParser.parse("2026/10/19 18:00:02", pattern)));
+        assertEquals(FixedDateParser.ERR_FORMAT, FixedDateParser.errorCode(FixedDateParser.parse("2026-1O-19 18:00:02", pattern)));
+        assertEquals(FixedDateParser.ERR_RANGE, FixedDateParser.errorCode(FixedDateParser.parse("2026-02-29 18:00:02", pattern)));
+        assertEquals(FixedDateParser.ERR_RANGE, FixedDateParser.errorCode(FixedDateParser.parse("2026-10-19 24:00:00", pattern)));
+        assertEquals(FixedDateParser.ERR_UNSUPPORTED, FixedDateParser.errorCode(FixedDateParser.parse("10/19", DateUtil.MONTH_DAY)));
+        assertFalse(FixedDateParser.isError(0));
+        assertFalse(FixedDateParser.isError(Long.MAX_VALUE));
+        assertFalse(FixedDateParser.isError(-1));
+    }
+
+    @Test
+    public void parseColumn() {
+        long[] millis = new long[4];
+        int failed = FixedDateParser.parseColumn(new String[]{"2026-10-19", "bad", null, "2026-10-20"}, DateUtil.DATE_FORMAT_DATE, millis);
+        assertEquals(2, failed);
+        assertEquals(DateUtil.parseLong("2026-10-19", DateUtil.DATE_FORMAT_DATE).longValue(), millis[0]);
+        assertTrue(FixedDateParser.isError(millis[1]));
+        assertEquals(FixedDateParser.ERR_NULL, FixedDateParser.errorCode(millis[2]));
+        assertEquals(millis[0] + 24 * 60 * 60 * 1000L, millis[3]);
+    }
+}